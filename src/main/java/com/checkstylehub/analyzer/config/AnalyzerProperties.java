@@ -0,0 +1,813 @@
+package com.checkstylehub.analyzer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tunable settings of the analyzer, bound from {@code analyzer.*} properties.
+ * Every value has a sensible default, so none of them has to be set explicitly.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "analyzer")
+public class AnalyzerProperties {
+
+    private final Checkstyle checkstyle = new Checkstyle();
+    private final ViolationCache violationCache = new ViolationCache();
+    private final Results results = new Results();
+    private final CacheFiles cacheFiles = new CacheFiles();
+    private final Profiling profiling = new Profiling();
+    private final Limits limits = new Limits();
+    private final Discovery discovery = new Discovery();
+    private final Sources sources = new Sources();
+    private final Warmup warmup = new Warmup();
+    private final Mirrors mirrors = new Mirrors();
+    private final Clones clones = new Clones();
+    private final Workspaces workspaces = new Workspaces();
+    private final Progress progress = new Progress();
+
+    public Checkstyle getCheckstyle() {
+        return checkstyle;
+    }
+
+    public ViolationCache getViolationCache() {
+        return violationCache;
+    }
+
+    public Results getResults() {
+        return results;
+    }
+
+    public CacheFiles getCacheFiles() {
+        return cacheFiles;
+    }
+
+    public Profiling getProfiling() {
+        return profiling;
+    }
+
+    public Discovery getDiscovery() {
+        return discovery;
+    }
+
+    public Limits getLimits() {
+        return limits;
+    }
+
+    public Sources getSources() {
+        return sources;
+    }
+
+    public Warmup getWarmup() {
+        return warmup;
+    }
+
+    public Mirrors getMirrors() {
+        return mirrors;
+    }
+
+    public Clones getClones() {
+        return clones;
+    }
+
+    public Workspaces getWorkspaces() {
+        return workspaces;
+    }
+
+    public Progress getProgress() {
+        return progress;
+    }
+
+    /**
+     * Settings of the Checkstyle execution engine.
+     */
+    public static class Checkstyle {
+
+        /**
+         * Whether a single analysis may split its files into shards audited in parallel.
+         */
+        private boolean parallel = true;
+
+        /**
+         * Minimal number of files per shard, so that small repositories are audited on one thread.
+         */
+        private int minFilesPerShard = 100;
+
+        /**
+         * Upper bound of shards per analysis; zero or less means the number of available processors.
+         */
+        private int maxShards = 0;
+
+        /**
+         * Maximal number of parsed configurations kept in memory.
+         */
+        private int configCacheSize = 32;
+
+        /**
+         * Maximal number of idle pooled Checkers per configuration; zero or less means the number of processors.
+         */
+        private int checkerPoolMaxIdle = 0;
+
+        /**
+         * How long a pooled Checker may stay idle before it is destroyed.
+         */
+        private Duration checkerPoolIdleTimeout = Duration.ofMinutes(10);
+
+        /**
+         * Files larger than this are skipped instead of audited.
+         */
+        private DataSize maxFileSize = DataSize.ofMegabytes(2);
+
+        /**
+         * Wall time after which the watchdog abandons a file; zero disables the watchdog.
+         */
+        private Duration fileTimeout = Duration.ofSeconds(60);
+
+        public boolean isParallel() {
+            return parallel;
+        }
+
+        public void setParallel(boolean parallel) {
+            this.parallel = parallel;
+        }
+
+        public int getMinFilesPerShard() {
+            return minFilesPerShard;
+        }
+
+        public void setMinFilesPerShard(int minFilesPerShard) {
+            this.minFilesPerShard = minFilesPerShard;
+        }
+
+        public int getMaxShards() {
+            return maxShards;
+        }
+
+        public void setMaxShards(int maxShards) {
+            this.maxShards = maxShards;
+        }
+
+        public int getConfigCacheSize() {
+            return configCacheSize;
+        }
+
+        public void setConfigCacheSize(int configCacheSize) {
+            this.configCacheSize = configCacheSize;
+        }
+
+        public int getCheckerPoolMaxIdle() {
+            return checkerPoolMaxIdle;
+        }
+
+        public void setCheckerPoolMaxIdle(int checkerPoolMaxIdle) {
+            this.checkerPoolMaxIdle = checkerPoolMaxIdle;
+        }
+
+        public Duration getCheckerPoolIdleTimeout() {
+            return checkerPoolIdleTimeout;
+        }
+
+        public void setCheckerPoolIdleTimeout(Duration checkerPoolIdleTimeout) {
+            this.checkerPoolIdleTimeout = checkerPoolIdleTimeout;
+        }
+
+        public DataSize getMaxFileSize() {
+            return maxFileSize;
+        }
+
+        public void setMaxFileSize(DataSize maxFileSize) {
+            this.maxFileSize = maxFileSize;
+        }
+
+        public Duration getFileTimeout() {
+            return fileTimeout;
+        }
+
+        public void setFileTimeout(Duration fileTimeout) {
+            this.fileTimeout = fileTimeout;
+        }
+    }
+
+    /**
+     * Settings of the persistent per-file violation cache.
+     */
+    public static class ViolationCache {
+
+        /**
+         * Whether violations of unchanged files are reused across analyses.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximal number of cached files; least recently used entries are evicted beyond it.
+         */
+        private long maxEntries = 200_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    /**
+     * Settings of the streaming persistence of analysis results.
+     */
+    public static class Results {
+
+        /**
+         * Capacity of the queue between the audit and the result writer.
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * Number of results saved per transaction.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Whether a full analysis of a commit that was already analyzed completely with the same configuration
+         * hash copies the results of that analysis instead of auditing again.
+         */
+        private boolean reuse = true;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public boolean isReuse() {
+            return reuse;
+        }
+
+        public void setReuse(boolean reuse) {
+            this.reuse = reuse;
+        }
+    }
+
+    /**
+     * Settings of the per-repository Checkstyle cache files kept on local disk.
+     */
+    public static class CacheFiles {
+
+        /**
+         * Whether unchanged violation-free files of a repository are skipped using its cache file.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Directory holding the cache files; created on first use.
+         */
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "checkstyle-hub", "cache-files");
+
+        /**
+         * Disk quota of the directory; least recently used cache files are deleted beyond it.
+         */
+        private DataSize maxDiskSize = DataSize.ofMegabytes(256);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getMaxDiskSize() {
+            return maxDiskSize;
+        }
+
+        public void setMaxDiskSize(DataSize maxDiskSize) {
+            this.maxDiskSize = maxDiskSize;
+        }
+    }
+
+    /**
+     * Settings of the opt-in analysis profiler.
+     */
+    public static class Profiling {
+
+        /**
+         * Whether clients may request profiled analyses; when disabled the profile flag is ignored.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of slowest files stored per profiled analysis; all checks are always stored.
+         */
+        private int storedFiles = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getStoredFiles() {
+            return storedFiles;
+        }
+
+        public void setStoredFiles(int storedFiles) {
+            this.storedFiles = storedFiles;
+        }
+    }
+
+    /**
+     * Server-side maximums of the per-request analysis limits; requests may only lower them.
+     */
+    public static class Limits {
+
+        /**
+         * Maximal number of Java files audited per analysis.
+         */
+        private int maxFiles = 100_000;
+
+        /**
+         * Maximal number of violations stored per analysis.
+         */
+        private long maxViolations = 1_000_000;
+
+        /**
+         * Maximal wall time of an analysis, including cloning.
+         */
+        private Duration maxDuration = Duration.ofHours(1);
+
+        /**
+         * Maximal number of stored configurations run together in one analysis.
+         */
+        private int maxConfigurations = 5;
+
+        public int getMaxFiles() {
+            return maxFiles;
+        }
+
+        public void setMaxFiles(int maxFiles) {
+            this.maxFiles = maxFiles;
+        }
+
+        public long getMaxViolations() {
+            return maxViolations;
+        }
+
+        public void setMaxViolations(long maxViolations) {
+            this.maxViolations = maxViolations;
+        }
+
+        public Duration getMaxDuration() {
+            return maxDuration;
+        }
+
+        public void setMaxDuration(Duration maxDuration) {
+            this.maxDuration = maxDuration;
+        }
+
+        public int getMaxConfigurations() {
+            return maxConfigurations;
+        }
+
+        public void setMaxConfigurations(int maxConfigurations) {
+            this.maxConfigurations = maxConfigurations;
+        }
+    }
+
+    /**
+     * Default globs of the file discovery, matched against paths relative to the repository root.
+     * A request may replace the includes and add excludes.
+     */
+    public static class Discovery {
+
+        /**
+         * Files to analyze.
+         */
+        private List<String> includes = new ArrayList<>(List.of("**/*.java"));
+
+        /**
+         * Files and directories to leave out; directories matched by a pattern ending in {@code /**}
+         * are not walked at all.
+         */
+        private List<String> excludes = new ArrayList<>(List.of(
+                "**/.git/**", "**/.hg/**", "**/.svn/**", "**/.gradle/**", "**/.idea/**",
+                "**/target/**", "**/build/**", "**/out/**", "**/node_modules/**",
+                "**/vendor/**", "**/third_party/**", "**/src/*/resources/**",
+                "**/module-info.java"));
+
+        /**
+         * Threads walking the tree; 0 means the number of available processors.
+         */
+        private int parallelism = 0;
+
+        /**
+         * Capacity of the queue between the walk and the audit; a full queue pauses the walk.
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * Maximal number of discovered files handed to the audit at once.
+         */
+        private int batchSize = 2_000;
+
+        /**
+         * Time a batch waits for more files once its first file arrived.
+         */
+        private Duration batchLinger = Duration.ofMillis(200);
+
+        public List<String> getIncludes() {
+            return includes;
+        }
+
+        public void setIncludes(List<String> includes) {
+            this.includes = includes;
+        }
+
+        public List<String> getExcludes() {
+            return excludes;
+        }
+
+        public void setExcludes(List<String> excludes) {
+            this.excludes = excludes;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getBatchLinger() {
+            return batchLinger;
+        }
+
+        public void setBatchLinger(Duration batchLinger) {
+            this.batchLinger = batchLinger;
+        }
+    }
+
+    /**
+     * Limits of the synchronous analysis of sources posted in the request body.
+     */
+    public static class Sources {
+
+        /**
+         * Maximal number of files per request.
+         */
+        private int maxFiles = 200;
+
+        /**
+         * Maximal total size of the file contents per request.
+         */
+        private DataSize maxTotalSize = DataSize.ofMegabytes(5);
+
+        public int getMaxFiles() {
+            return maxFiles;
+        }
+
+        public void setMaxFiles(int maxFiles) {
+            this.maxFiles = maxFiles;
+        }
+
+        public DataSize getMaxTotalSize() {
+            return maxTotalSize;
+        }
+
+        public void setMaxTotalSize(DataSize maxTotalSize) {
+            this.maxTotalSize = maxTotalSize;
+        }
+    }
+
+    /**
+     * Startup warm-up that audits a bundled synthetic corpus with the active configuration before the
+     * application reports ready, so that the first analyses do not pay for class loading and JIT compilation.
+     */
+    public static class Warmup {
+
+        /**
+         * Whether the warm-up runs at startup.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of copies of the synthetic source in the corpus.
+         */
+        private int files = 200;
+
+        /**
+         * Rounds audited at least, even if the throughput is stable earlier.
+         */
+        private int minRounds = 3;
+
+        /**
+         * Rounds audited at most.
+         */
+        private int maxRounds = 20;
+
+        /**
+         * Relative throughput change between two rounds below which the throughput counts as stable.
+         */
+        private double stableChange = 0.05;
+
+        /**
+         * Maximal duration of the warm-up; the last round is finished before it ends.
+         */
+        private Duration maxDuration = Duration.ofMinutes(2);
+
+        /**
+         * Whether the application exits after the warm-up, for the training run of the {@code cds} build profile.
+         */
+        private boolean trainingRun = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getFiles() {
+            return files;
+        }
+
+        public void setFiles(int files) {
+            this.files = files;
+        }
+
+        public int getMinRounds() {
+            return minRounds;
+        }
+
+        public void setMinRounds(int minRounds) {
+            this.minRounds = minRounds;
+        }
+
+        public int getMaxRounds() {
+            return maxRounds;
+        }
+
+        public void setMaxRounds(int maxRounds) {
+            this.maxRounds = maxRounds;
+        }
+
+        public double getStableChange() {
+            return stableChange;
+        }
+
+        public void setStableChange(double stableChange) {
+            this.stableChange = stableChange;
+        }
+
+        public Duration getMaxDuration() {
+            return maxDuration;
+        }
+
+        public void setMaxDuration(Duration maxDuration) {
+            this.maxDuration = maxDuration;
+        }
+
+        public boolean isTrainingRun() {
+            return trainingRun;
+        }
+
+        public void setTrainingRun(boolean trainingRun) {
+            this.trainingRun = trainingRun;
+        }
+    }
+
+    /**
+     * Local bare mirrors of analyzed repositories, updated by incremental fetches.
+     */
+    public static class Mirrors {
+
+        /**
+         * Whether repositories are checked out from local mirrors instead of being cloned for every analysis.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Directory holding the mirrors; created on first use.
+         */
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "checkstyle-hub", "mirrors");
+
+        /**
+         * Disk quota of the directory; least recently used mirrors without checkouts are deleted beyond it.
+         */
+        private DataSize maxDiskSize = DataSize.ofGigabytes(10);
+
+        /**
+         * Whether an analysis writes only the files the discovery accepts, read directly from the object
+         * database of the mirror, instead of checking out the whole working tree.
+         */
+        private boolean sourcesOnly = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getMaxDiskSize() {
+            return maxDiskSize;
+        }
+
+        public void setMaxDiskSize(DataSize maxDiskSize) {
+            this.maxDiskSize = maxDiskSize;
+        }
+
+        public boolean isSourcesOnly() {
+            return sourcesOnly;
+        }
+
+        public void setSourcesOnly(boolean sourcesOnly) {
+            this.sourcesOnly = sourcesOnly;
+        }
+    }
+
+    /**
+     * Clones made for every analysis when mirrors are disabled.
+     */
+    public static class Clones {
+
+        /**
+         * Whether a clone writes only the files the discovery accepts instead of checking out every file.
+         */
+        private boolean sparse = true;
+
+        /**
+         * Blobs larger than this are not downloaded by the shallow clone of the default branch of a sparse
+         * clone, if the server supports partial clone filters; 0 downloads all blobs.
+         */
+        private DataSize blobLimit = DataSize.ofMegabytes(2);
+
+        public boolean isSparse() {
+            return sparse;
+        }
+
+        public void setSparse(boolean sparse) {
+            this.sparse = sparse;
+        }
+
+        public DataSize getBlobLimit() {
+            return blobLimit;
+        }
+
+        public void setBlobLimit(DataSize blobLimit) {
+            this.blobLimit = blobLimit;
+        }
+    }
+
+    /**
+     * Working trees of analyses, deleted in the background by the workspace janitor.
+     */
+    public static class Workspaces {
+
+        /**
+         * Directory in which working trees are created; orphaned working trees in it are deleted on startup,
+         * so it must not be shared with another running instance. A RAM-backed file system such as
+         * /dev/shm avoids disk I/O for the audited sources.
+         */
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "checkstyle-hub", "workspaces");
+
+        /**
+         * Disk quota of the working trees; new working trees wait while it is exhausted.
+         */
+        private DataSize maxDiskSize = DataSize.ofGigabytes(20);
+
+        /**
+         * Free space the file system of the directory must keep; new working trees wait below it.
+         */
+        private DataSize minFreeSpace = DataSize.ofGigabytes(1);
+
+        /**
+         * Size a new working tree reserves against the quota and the free space until it is measured.
+         */
+        private DataSize estimatedSize = DataSize.ofMegabytes(256);
+
+        /**
+         * How long a new working tree waits for space before the analysis fails.
+         */
+        private Duration quotaTimeout = Duration.ofMinutes(10);
+
+        public Path getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(Path directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getMaxDiskSize() {
+            return maxDiskSize;
+        }
+
+        public void setMaxDiskSize(DataSize maxDiskSize) {
+            this.maxDiskSize = maxDiskSize;
+        }
+
+        public DataSize getMinFreeSpace() {
+            return minFreeSpace;
+        }
+
+        public void setMinFreeSpace(DataSize minFreeSpace) {
+            this.minFreeSpace = minFreeSpace;
+        }
+
+        public DataSize getEstimatedSize() {
+            return estimatedSize;
+        }
+
+        public void setEstimatedSize(DataSize estimatedSize) {
+            this.estimatedSize = estimatedSize;
+        }
+
+        public Duration getQuotaTimeout() {
+            return quotaTimeout;
+        }
+
+        public void setQuotaTimeout(Duration quotaTimeout) {
+            this.quotaTimeout = quotaTimeout;
+        }
+    }
+
+    /**
+     * Settings of the clone progress streamed to the log topic of an analysis.
+     */
+    public static class Progress {
+
+        /**
+         * Minimal time between two progress messages of a clone or fetch task; the end of a task is always sent.
+         */
+        private Duration interval = Duration.ofSeconds(1);
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+    }
+}
@@ -3,14 +3,22 @@ package com.checkstylehub.analyzer.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Configuration for asynchronous task execution.
  * Provides a thread pool for running analysis tasks concurrently.
  * Core pool: 2 threads, Max pool: 5 threads, Queue capacity: 10 tasks.
+ * A separate CPU-bound pool, sized to the number of processors, audits file shards,
+ * and result writer threads persist violations while the audit is running.
+ * A single watchdog thread abandons files that exceed their audit time, and a single janitor thread
+ * deletes working trees off the analysis threads.
  */
 @Configuration
 @EnableAsync
@@ -26,4 +34,32 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    @Bean(name = "checkstyleExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService checkstyleExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("CheckstyleWorker-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), threadFactory);
+    }
+
+    @Bean(name = "resultWriterExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService resultWriterExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ResultWriter-");
+        threadFactory.setDaemon(true);
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    @Bean(name = "auditWatchdogExecutor", destroyMethod = "shutdownNow")
+    public ScheduledExecutorService auditWatchdogExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("AuditWatchdog-");
+        threadFactory.setDaemon(true);
+        return Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @Bean(name = "workspaceJanitorExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService workspaceJanitorExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("WorkspaceJanitor-");
+        threadFactory.setDaemon(true);
+        return Executors.newSingleThreadExecutor(threadFactory);
+    }
 }
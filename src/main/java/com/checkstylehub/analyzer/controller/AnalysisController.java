@@ -1,20 +1,35 @@
 package com.checkstylehub.analyzer.controller;
 
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.AnalysisProfileDto;
 import com.checkstylehub.analyzer.dto.AnalysisRequestDto;
 import com.checkstylehub.analyzer.dto.AnalysisRequestStatusDto;
 import com.checkstylehub.analyzer.dto.AnalysisResultDto;
+import com.checkstylehub.analyzer.dto.SkippedFileDto;
+import com.checkstylehub.analyzer.dto.SourceAnalysisRequestDto;
+import com.checkstylehub.analyzer.dto.SourceAnalysisResultDto;
 import com.checkstylehub.analyzer.entity.AnalysisRequest;
 import com.checkstylehub.analyzer.entity.AnalysisResult;
 import com.checkstylehub.analyzer.repository.AnalysisRequestRepository;
 import com.checkstylehub.analyzer.repository.AnalysisResultRepository;
+import com.checkstylehub.analyzer.repository.SkippedFileRepository;
+import com.checkstylehub.analyzer.service.AnalysisProfileService;
 import com.checkstylehub.analyzer.service.AnalysisService;
+import com.checkstylehub.analyzer.service.CheckstyleConfigurationService;
+import com.checkstylehub.analyzer.service.FileDiscoveryService;
+import com.checkstylehub.analyzer.service.GitService;
+import com.checkstylehub.analyzer.service.SourceAnalysisService;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -29,34 +44,124 @@ public class AnalysisController {
     private final AnalysisService analysisService;
     private final AnalysisRequestRepository requestRepository;
     private final AnalysisResultRepository resultRepository;
+    private final SkippedFileRepository skippedFileRepository;
+    private final AnalysisProfileService profileService;
+    private final FileDiscoveryService discoveryService;
+    private final SourceAnalysisService sourceAnalysisService;
+    private final CheckstyleConfigurationService configurationService;
+    private final AnalyzerProperties properties;
 
     public AnalysisController(AnalysisService analysisService,
                               AnalysisRequestRepository requestRepository,
-                              AnalysisResultRepository resultRepository) {
+                              AnalysisResultRepository resultRepository,
+                              SkippedFileRepository skippedFileRepository,
+                              AnalysisProfileService profileService,
+                              FileDiscoveryService discoveryService,
+                              SourceAnalysisService sourceAnalysisService,
+                              CheckstyleConfigurationService configurationService,
+                              AnalyzerProperties properties) {
         this.analysisService = analysisService;
         this.requestRepository = requestRepository;
         this.resultRepository = resultRepository;
+        this.skippedFileRepository = skippedFileRepository;
+        this.profileService = profileService;
+        this.discoveryService = discoveryService;
+        this.sourceAnalysisService = sourceAnalysisService;
+        this.configurationService = configurationService;
+        this.properties = properties;
     }
 
     /**
      * Initiates a new Checkstyle analysis for the specified repository.
      *
-     * @param requestDto DTO containing repository URL and optional Checkstyle configuration
-     * @return ResponseEntity with the created request ID
+     * @param requestDto DTO containing repository URL, optional Checkstyle configuration, profiling flag,
+     *                   limits, discovery globs, the commits of an incremental analysis and the names
+     *                   of several stored configurations to run together
+     * @return ResponseEntity with the created request ID, or 400 if the URL is missing, a glob is invalid,
+     *         the base of an incremental analysis is incomplete or unusable or the configuration names are
+     *         unknown, repeated or too many
      */
     @PostMapping("/analyze")
     public ResponseEntity<Long> startAnalysis(@RequestBody AnalysisRequestDto requestDto) {
         if (requestDto.getRepoUrl() == null || requestDto.getRepoUrl().isBlank()) {
             return ResponseEntity.badRequest().build();
         }
+        try {
+            discoveryService.filterFor(requestDto.getIncludes(), requestDto.getExcludes());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean changedLinesOnly = Boolean.TRUE.equals(requestDto.getChangedLinesOnly());
+        boolean incremental = requestDto.getBaseRequestId() != null || requestDto.getBaseCommit() != null
+                || requestDto.getHeadCommit() != null || changedLinesOnly;
+        List<String> configNames = requestDto.getConfigNames() != null ? requestDto.getConfigNames() : List.of();
+        if (!configNames.isEmpty() && !isValidConfigurationSet(requestDto)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (incremental && !isValidIncrementalBase(requestDto)) {
+            return ResponseEntity.badRequest().build();
+        }
 
         AnalysisRequest request = new AnalysisRequest(requestDto.getRepoUrl());
+        request.setProfiled(Boolean.TRUE.equals(requestDto.getProfile()));
+        request.setMaxFiles(requestDto.getMaxFiles());
+        request.setMaxViolations(requestDto.getMaxViolations());
+        request.setMaxDurationSeconds(requestDto.getMaxDurationSeconds());
+        request.setIncludeGlobs(requestDto.getIncludes());
+        request.setExcludeGlobs(requestDto.getExcludes());
+        request.setConfigNames(configNames);
+        if (incremental) {
+            request.setBaseCommit(requestDto.getBaseCommit().strip());
+            request.setHeadCommit(requestDto.getHeadCommit().strip());
+            request.setBaseRequestId(requestDto.getBaseRequestId());
+            request.setChangedLinesOnly(changedLinesOnly);
+        }
         AnalysisRequest savedRequest = requestRepository.save(request);
         analysisService.startAnalysisFlow(savedRequest.getId(), requestDto.getCheckstyleConfig());
 
         return ResponseEntity.ok(savedRequest.getId());
     }
 
+    /**
+     * Cancels a queued or running analysis. A running analysis stops its clone or audit, drops its results
+     * and ends in status CANCELLED shortly after this call returns.
+     *
+     * @param id the analysis request ID
+     * @return 202 if the analysis is being cancelled, 404 if the request is not found, or 409 if it has
+     *         already ended
+     */
+    @DeleteMapping("/analyze/{id}")
+    public ResponseEntity<Void> cancelAnalysis(@PathVariable Long id) {
+        if (!requestRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!analysisService.cancelAnalysis(id)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Analyzes the posted sources synchronously and returns the violations directly; nothing is persisted.
+     *
+     * @param requestDto DTO containing the file paths and contents and an optional configuration name
+     * @return ResponseEntity with the violations, reported against the posted paths
+     * @throws ResponseStatusException 400 if a path is invalid or a limit is exceeded, 404 if the named
+     *                                 configuration does not exist, 422 if Checkstyle cannot audit the files
+     */
+    @PostMapping("/analyze/sources")
+    public ResponseEntity<SourceAnalysisResultDto> analyzeSources(@RequestBody SourceAnalysisRequestDto requestDto) {
+        try {
+            return ResponseEntity.ok(sourceAnalysisService.analyze(requestDto.getFiles(), requestDto.getConfigName()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (CheckstyleException e) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        }
+    }
+
     /**
      * Retrieves the current status of an analysis request.
      *
@@ -67,12 +172,22 @@ public class AnalysisController {
     @GetMapping("/status/{id}")
     public ResponseEntity<AnalysisRequestStatusDto> getAnalysisStatus(@PathVariable Long id) {
         return requestRepository.findById(id)
-                .map(req -> new AnalysisRequestStatusDto(
-                        req.getId(),
-                        req.getStatus() != null ? req.getStatus().name() : null,
-                        req.getErrorMessage(),
-                        req.getCreatedAt()
-                ))
+                .map(req -> {
+                    AnalysisRequestStatusDto status = new AnalysisRequestStatusDto(
+                            req.getId(),
+                            req.getStatus() != null ? req.getStatus().name() : null,
+                            req.getErrorMessage(),
+                            req.getCreatedAt()
+                    );
+                    status.setDiscoverySkippedFiles(req.getDiscoverySkippedFiles());
+                    status.setDiscoverySkippedBytes(req.getDiscoverySkippedBytes());
+                    status.setBaseRequestId(req.getBaseRequestId());
+                    status.setHeadCommit(req.getHeadCommit());
+                    status.setChangedFiles(req.getChangedFiles());
+                    status.setCommitSha(req.getCommitSha());
+                    status.setReusedRequestId(req.getReusedRequestId());
+                    return status;
+                })
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Request not found"));
     }
@@ -80,27 +195,120 @@ public class AnalysisController {
     /**
      * Retrieves all Checkstyle violations found during analysis.
      *
-     * @param id the analysis request ID
+     * @param id         the analysis request ID
+     * @param configName optional configuration of a multi-configuration analysis to list the violations of
      * @return ResponseEntity with a list of analysis results (violations)
      */
     @GetMapping("/results/{id}")
     @Transactional(readOnly = true)
-    public ResponseEntity<List<AnalysisResultDto>> getAnalysisResults(@PathVariable Long id) {
+    public ResponseEntity<List<AnalysisResultDto>> getAnalysisResults(@PathVariable Long id,
+                                                                      @RequestParam(required = false) String configName) {
         if (!requestRepository.existsById(id)) {
             return ResponseEntity.notFound().build();
         }
 
-        List<AnalysisResult> results = resultRepository.findByRequestId(id);
+        List<AnalysisResult> results = configName != null
+                ? resultRepository.findByRequestIdAndConfigName(id, configName)
+                : resultRepository.findByRequestId(id);
         List<AnalysisResultDto> dtoList = results.stream()
-                .map(r -> new AnalysisResultDto(
-                        r.getId(),
-                        r.getFilePath(),
-                        r.getLineNumber(),
-                        r.getSeverity(),
-                        r.getMessage()
-                ))
+                .map(r -> {
+                    AnalysisResultDto dto = new AnalysisResultDto(
+                            r.getId(),
+                            r.getFilePath(),
+                            r.getLineNumber(),
+                            r.getSeverity(),
+                            r.getMessage()
+                    );
+                    dto.setConfigName(r.getConfigName());
+                    return dto;
+                })
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(dtoList);
+    }
+
+    /**
+     * Retrieves the files that were skipped during analysis because they exceeded the size or time limit.
+     *
+     * @param id the analysis request ID
+     * @return ResponseEntity with the skipped files and the reason for each
+     */
+    @GetMapping("/results/{id}/skipped")
+    public ResponseEntity<List<SkippedFileDto>> getSkippedFiles(@PathVariable Long id) {
+        if (!requestRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        List<SkippedFileDto> dtoList = skippedFileRepository.findByRequestIdOrderByFilePath(id).stream()
+                .map(s -> new SkippedFileDto(s.getFilePath(), s.getReason(), s.getDetail()))
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(dtoList);
     }
+
+    /**
+     * Retrieves the slowest files and checks of a profiled analysis.
+     *
+     * @param id    the analysis request ID
+     * @param limit maximal number of files and of checks to list
+     * @return ResponseEntity with the profile
+     * @throws ResponseStatusException if the request is not found or was not profiled
+     */
+    @GetMapping("/profile/{id}")
+    public ResponseEntity<AnalysisProfileDto> getAnalysisProfile(@PathVariable Long id,
+                                                                 @RequestParam(defaultValue = "20") int limit) {
+        if (!requestRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Request not found");
+        }
+        return profileService.getProfile(id, limit)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Profile not found"));
+    }
+
+    /**
+     * Checks that a multi-configuration request names distinct stored configurations within the limit
+     * instead of a custom configuration, and is not profiled: the profile times a single configuration.
+     */
+    private boolean isValidConfigurationSet(AnalysisRequestDto requestDto) {
+        List<String> configNames = requestDto.getConfigNames();
+        if (requestDto.getCheckstyleConfig() != null && !requestDto.getCheckstyleConfig().isBlank()
+                || Boolean.TRUE.equals(requestDto.getProfile())
+                || configNames.size() > properties.getLimits().getMaxConfigurations()) {
+            return false;
+        }
+        Set<String> seen = new HashSet<>();
+        for (String configName : configNames) {
+            if (configName == null || configName.isBlank() || !seen.add(configName)
+                    || configurationService.getConfigurationXml(configName).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that an incremental request names both commits and, unless it reports only changed lines,
+     * a completed analysis of the same repository with the same configurations. A changed-lines request
+     * carries nothing over, so it must not name a base analysis. The commit and the configuration hash of
+     * the base analysis are checked by the analysis, once the base commit can be resolved in the clone.
+     */
+    private boolean isValidIncrementalBase(AnalysisRequestDto requestDto) {
+        if (requestDto.getBaseCommit() == null || requestDto.getBaseCommit().isBlank()
+                || requestDto.getHeadCommit() == null || requestDto.getHeadCommit().isBlank()) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(requestDto.getChangedLinesOnly())) {
+            return requestDto.getBaseRequestId() == null;
+        }
+        if (requestDto.getBaseRequestId() == null) {
+            return false;
+        }
+        return requestRepository.findById(requestDto.getBaseRequestId())
+                .filter(base -> base.getStatus() == AnalysisRequest.RequestStatus.COMPLETED)
+                .filter(base -> GitService.normalizeRepositoryUrl(base.getRepoUrl())
+                        .equals(GitService.normalizeRepositoryUrl(requestDto.getRepoUrl())))
+                .filter(base -> base.getConfigNames().equals(
+                        requestDto.getConfigNames() != null ? requestDto.getConfigNames() : List.of()))
+                .isPresent();
+    }
 }
@@ -1,21 +1,35 @@
 package com.checkstylehub.analyzer.controller;
 
+import com.checkstylehub.analyzer.service.AnalysisService;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.stereotype.Controller;
 
 /**
  * WebSocket controller for handling real-time messages from clients.
- * Currently, not required as logs are sent directly from the service.
- * Can be extended for client-initiated actions (e.g., cancel analysis).
+ * Logs are sent directly from the service; clients can cancel an analysis by sending a message
+ * to /app/analyze/{id}/cancel, like with DELETE /api/analyze/{id}. The cancellation is logged to the
+ * log topic of the analysis.
  */
 @Controller
 public class LogWebsocketController {
 
+    private final AnalysisService analysisService;
+
+    public LogWebsocketController(AnalysisService analysisService) {
+        this.analysisService = analysisService;
+    }
+
     @MessageMapping("/hello")
     @SendTo("/topic/greetings")
     public String greeting(String message) throws Exception {
         Thread.sleep(1000);
         return "Hello! You sent: " + message;
     }
+
+    @MessageMapping("/analyze/{id}/cancel")
+    public void cancelAnalysis(@DestinationVariable Long id) {
+        analysisService.cancelAnalysis(id);
+    }
 }
@@ -0,0 +1,47 @@
+package com.checkstylehub.analyzer.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for the profile of a profiled analysis.
+ * Lists the slowest files and checks, slowest first.
+ */
+public class AnalysisProfileDto {
+
+    private Long requestId;
+    private List<ProfileEntryDto> slowestFiles;
+    private List<ProfileEntryDto> slowestChecks;
+
+    public AnalysisProfileDto() {
+    }
+
+    public AnalysisProfileDto(Long requestId, List<ProfileEntryDto> slowestFiles, List<ProfileEntryDto> slowestChecks) {
+        this.requestId = requestId;
+        this.slowestFiles = slowestFiles;
+        this.slowestChecks = slowestChecks;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(Long requestId) {
+        this.requestId = requestId;
+    }
+
+    public List<ProfileEntryDto> getSlowestFiles() {
+        return slowestFiles;
+    }
+
+    public void setSlowestFiles(List<ProfileEntryDto> slowestFiles) {
+        this.slowestFiles = slowestFiles;
+    }
+
+    public List<ProfileEntryDto> getSlowestChecks() {
+        return slowestChecks;
+    }
+
+    public void setSlowestChecks(List<ProfileEntryDto> slowestChecks) {
+        this.slowestChecks = slowestChecks;
+    }
+}
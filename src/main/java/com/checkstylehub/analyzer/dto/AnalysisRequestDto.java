@@ -1,13 +1,35 @@
 package com.checkstylehub.analyzer.dto;
 
+import java.util.List;
+
 /**
  * Data Transfer Object for analysis request.
  * Used to receive repository URL and optional Checkstyle configuration from client.
+ * Setting {@code profile} records per-file and per-check timings of the analysis.
+ * The optional limits are capped by the server maximums; omitted limits default to them.
+ * Optional {@code includes} replace the default discovery globs and {@code excludes} are added to them.
+ * Setting {@code baseCommit}, {@code headCommit} and {@code baseRequestId} requests an incremental analysis
+ * that audits only the files changed between the commits and carries over the other results of the
+ * completed base analysis. With {@code changedLinesOnly} only violations on lines added or modified
+ * between the commits are reported, and no base analysis is needed.
+ * Optional {@code configNames} run several stored configurations in one pass instead of a single one;
+ * every result is then tagged with the configuration that reported it.
  */
 public class AnalysisRequestDto {
 
     private String repoUrl;
     private String checkstyleConfig;
+    private Boolean profile;
+    private Integer maxFiles;
+    private Long maxViolations;
+    private Long maxDurationSeconds;
+    private List<String> includes;
+    private List<String> excludes;
+    private String baseCommit;
+    private String headCommit;
+    private Long baseRequestId;
+    private Boolean changedLinesOnly;
+    private List<String> configNames;
 
     public String getRepoUrl() {
         return repoUrl;
@@ -24,4 +46,92 @@ public class AnalysisRequestDto {
     public void setCheckstyleConfig(String checkstyleConfig) {
         this.checkstyleConfig = checkstyleConfig;
     }
+
+    public Boolean getProfile() {
+        return profile;
+    }
+
+    public void setProfile(Boolean profile) {
+        this.profile = profile;
+    }
+
+    public Integer getMaxFiles() {
+        return maxFiles;
+    }
+
+    public void setMaxFiles(Integer maxFiles) {
+        this.maxFiles = maxFiles;
+    }
+
+    public Long getMaxViolations() {
+        return maxViolations;
+    }
+
+    public void setMaxViolations(Long maxViolations) {
+        this.maxViolations = maxViolations;
+    }
+
+    public Long getMaxDurationSeconds() {
+        return maxDurationSeconds;
+    }
+
+    public void setMaxDurationSeconds(Long maxDurationSeconds) {
+        this.maxDurationSeconds = maxDurationSeconds;
+    }
+
+    public List<String> getIncludes() {
+        return includes;
+    }
+
+    public void setIncludes(List<String> includes) {
+        this.includes = includes;
+    }
+
+    public List<String> getExcludes() {
+        return excludes;
+    }
+
+    public void setExcludes(List<String> excludes) {
+        this.excludes = excludes;
+    }
+
+    public String getBaseCommit() {
+        return baseCommit;
+    }
+
+    public void setBaseCommit(String baseCommit) {
+        this.baseCommit = baseCommit;
+    }
+
+    public String getHeadCommit() {
+        return headCommit;
+    }
+
+    public void setHeadCommit(String headCommit) {
+        this.headCommit = headCommit;
+    }
+
+    public Long getBaseRequestId() {
+        return baseRequestId;
+    }
+
+    public void setBaseRequestId(Long baseRequestId) {
+        this.baseRequestId = baseRequestId;
+    }
+
+    public Boolean getChangedLinesOnly() {
+        return changedLinesOnly;
+    }
+
+    public void setChangedLinesOnly(Boolean changedLinesOnly) {
+        this.changedLinesOnly = changedLinesOnly;
+    }
+
+    public List<String> getConfigNames() {
+        return configNames;
+    }
+
+    public void setConfigNames(List<String> configNames) {
+        this.configNames = configNames;
+    }
 }
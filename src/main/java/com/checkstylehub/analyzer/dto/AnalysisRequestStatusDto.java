@@ -11,6 +11,13 @@ public class AnalysisRequestStatusDto {
     private String status;
     private String errorMessage;
     private LocalDateTime createdAt;
+    private Integer discoverySkippedFiles;
+    private Long discoverySkippedBytes;
+    private Long baseRequestId;
+    private String headCommit;
+    private Integer changedFiles;
+    private String commitSha;
+    private Long reusedRequestId;
 
     public AnalysisRequestStatusDto() {
     }
@@ -53,4 +60,75 @@ public class AnalysisRequestStatusDto {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    /**
+     * Number of files left out by the discovery globs; null until discovery has run.
+     */
+    public Integer getDiscoverySkippedFiles() {
+        return discoverySkippedFiles;
+    }
+
+    public void setDiscoverySkippedFiles(Integer discoverySkippedFiles) {
+        this.discoverySkippedFiles = discoverySkippedFiles;
+    }
+
+    public Long getDiscoverySkippedBytes() {
+        return discoverySkippedBytes;
+    }
+
+    public void setDiscoverySkippedBytes(Long discoverySkippedBytes) {
+        this.discoverySkippedBytes = discoverySkippedBytes;
+    }
+
+    /**
+     * Analysis whose results of unchanged files were carried over; null for a full analysis.
+     */
+    public Long getBaseRequestId() {
+        return baseRequestId;
+    }
+
+    public void setBaseRequestId(Long baseRequestId) {
+        this.baseRequestId = baseRequestId;
+    }
+
+    public String getHeadCommit() {
+        return headCommit;
+    }
+
+    public void setHeadCommit(String headCommit) {
+        this.headCommit = headCommit;
+    }
+
+    /**
+     * Number of changed files audited by an incremental analysis; null until the diff is computed.
+     */
+    public Integer getChangedFiles() {
+        return changedFiles;
+    }
+
+    public void setChangedFiles(Integer changedFiles) {
+        this.changedFiles = changedFiles;
+    }
+
+    /**
+     * Commit the analysis audited; null until the repository is checked out.
+     */
+    public String getCommitSha() {
+        return commitSha;
+    }
+
+    public void setCommitSha(String commitSha) {
+        this.commitSha = commitSha;
+    }
+
+    /**
+     * Completed analysis of the same commit and configuration whose results were copied; null if audited.
+     */
+    public Long getReusedRequestId() {
+        return reusedRequestId;
+    }
+
+    public void setReusedRequestId(Long reusedRequestId) {
+        this.reusedRequestId = reusedRequestId;
+    }
 }
@@ -10,6 +10,7 @@ public class AnalysisResultDto {
     private int lineNumber;
     private String severity;
     private String message;
+    private String configName;
 
     public AnalysisResultDto() {
     }
@@ -61,4 +62,15 @@ public class AnalysisResultDto {
     public void setMessage(String message) {
         this.message = message;
     }
+
+    /**
+     * Configuration that reported the violation in a multi-configuration analysis, otherwise null.
+     */
+    public String getConfigName() {
+        return configName;
+    }
+
+    public void setConfigName(String configName) {
+        this.configName = configName;
+    }
 }
@@ -0,0 +1,44 @@
+package com.checkstylehub.analyzer.dto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Data Transfer Object for the wall time measured by a profiled audit.
+ * Check times are net of the shared cost of reading and parsing files, which is reported
+ * under its own names; file times are the sum of everything spent on the file.
+ */
+public class AuditProfileDto {
+
+    private Map<String, Long> checkNanos = new HashMap<>();
+    private Map<String, Long> fileNanos = new HashMap<>();
+
+    public void addCheckTime(String check, long nanos) {
+        checkNanos.merge(check, nanos, Long::sum);
+    }
+
+    public void addFileTime(String fileName, long nanos) {
+        fileNanos.merge(fileName, nanos, Long::sum);
+    }
+
+    public void merge(AuditProfileDto other) {
+        other.checkNanos.forEach(this::addCheckTime);
+        other.fileNanos.forEach(this::addFileTime);
+    }
+
+    public Map<String, Long> getCheckNanos() {
+        return checkNanos;
+    }
+
+    public void setCheckNanos(Map<String, Long> checkNanos) {
+        this.checkNanos = checkNanos;
+    }
+
+    public Map<String, Long> getFileNanos() {
+        return fileNanos;
+    }
+
+    public void setFileNanos(Map<String, Long> fileNanos) {
+        this.fileNanos = fileNanos;
+    }
+}
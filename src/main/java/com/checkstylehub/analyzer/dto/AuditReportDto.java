@@ -0,0 +1,108 @@
+package com.checkstylehub.analyzer.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object for the outcome of a single Checkstyle audit.
+ * Contains the violations together with statistics about how they were obtained.
+ * When violations are streamed to a sink during the audit, the list stays empty.
+ */
+public class AuditReportDto {
+
+    private List<ViolationDto> violations = new ArrayList<>();
+    private long violationCount;
+    private int totalFiles;
+    private int cachedFiles;
+    private List<SkippedFileDto> skippedFiles = new ArrayList<>();
+    private AuditProfileDto profile;
+    private boolean partial;
+
+    public AuditReportDto() {
+    }
+
+    public AuditReportDto(List<ViolationDto> violations, long violationCount, int totalFiles, int cachedFiles) {
+        this.violations = violations;
+        this.violationCount = violationCount;
+        this.totalFiles = totalFiles;
+        this.cachedFiles = cachedFiles;
+    }
+
+    /**
+     * Share of files that were not audited because their violations were taken from the violation cache
+     * or the repository's cache file.
+     *
+     * @return value between 0.0 and 1.0
+     */
+    public double getCacheHitRatio() {
+        return totalFiles == 0 ? 0.0 : (double) cachedFiles / totalFiles;
+    }
+
+    public List<ViolationDto> getViolations() {
+        return violations;
+    }
+
+    public void setViolations(List<ViolationDto> violations) {
+        this.violations = violations;
+    }
+
+    /**
+     * Number of violations found; equals the size of the violation list unless violations were streamed.
+     */
+    public long getViolationCount() {
+        return violationCount;
+    }
+
+    public void setViolationCount(long violationCount) {
+        this.violationCount = violationCount;
+    }
+
+    public int getTotalFiles() {
+        return totalFiles;
+    }
+
+    public void setTotalFiles(int totalFiles) {
+        this.totalFiles = totalFiles;
+    }
+
+    public int getCachedFiles() {
+        return cachedFiles;
+    }
+
+    public void setCachedFiles(int cachedFiles) {
+        this.cachedFiles = cachedFiles;
+    }
+
+    /**
+     * Files that were not audited because they exceeded the size or time limit of a file.
+     */
+    public List<SkippedFileDto> getSkippedFiles() {
+        return skippedFiles;
+    }
+
+    public void setSkippedFiles(List<SkippedFileDto> skippedFiles) {
+        this.skippedFiles = skippedFiles;
+    }
+
+    /**
+     * Timings of a profiled audit; null unless profiling was requested.
+     */
+    public AuditProfileDto getProfile() {
+        return profile;
+    }
+
+    public void setProfile(AuditProfileDto profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Whether the audit stopped early because a limit was hit; the report then covers only part of the files.
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+}
@@ -0,0 +1,80 @@
+package com.checkstylehub.analyzer.dto;
+
+/**
+ * Log message with the progress of a clone or fetch task, sent via WebSocket with level PROGRESS.
+ * Progress messages are not stored with the logs of the analysis.
+ */
+public class CloneProgressDto extends LogMessageDto {
+
+    public static final String LEVEL = "PROGRESS";
+
+    private String task;
+    private int completed;
+    private int total;
+    private Integer percent;
+    private long bytes;
+
+    public CloneProgressDto(String message, String task, int completed, int total, Integer percent, long bytes) {
+        super(LEVEL, message);
+        this.task = task;
+        this.completed = completed;
+        this.total = total;
+        this.percent = percent;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Name of the task as reported by JGit, e.g. "Receiving objects".
+     */
+    public String getTask() {
+        return task;
+    }
+
+    public void setTask(String task) {
+        this.task = task;
+    }
+
+    /**
+     * Units of work done, e.g. objects received.
+     */
+    public int getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(int completed) {
+        this.completed = completed;
+    }
+
+    /**
+     * Units of work of the task, or zero if unknown.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    /**
+     * Percentage done, or null if the total is unknown.
+     */
+    public Integer getPercent() {
+        return percent;
+    }
+
+    public void setPercent(Integer percent) {
+        this.percent = percent;
+    }
+
+    /**
+     * Bytes of pack files received so far by the clone or fetch.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+}
@@ -0,0 +1,45 @@
+package com.checkstylehub.analyzer.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object for the files that differ between two commits, as paths relative to the
+ * repository root. A renamed file appears with its new path among the changed paths and with its old
+ * path among the removed ones.
+ */
+public class CommitDiffDto {
+
+    private List<String> changedPaths = new ArrayList<>();
+    private List<String> removedPaths = new ArrayList<>();
+
+    public CommitDiffDto() {
+    }
+
+    public CommitDiffDto(List<String> changedPaths, List<String> removedPaths) {
+        this.changedPaths = changedPaths;
+        this.removedPaths = removedPaths;
+    }
+
+    /**
+     * Files added, modified, copied or renamed in the head commit.
+     */
+    public List<String> getChangedPaths() {
+        return changedPaths;
+    }
+
+    public void setChangedPaths(List<String> changedPaths) {
+        this.changedPaths = changedPaths;
+    }
+
+    /**
+     * Files of the base commit that no longer exist under their path in the head commit.
+     */
+    public List<String> getRemovedPaths() {
+        return removedPaths;
+    }
+
+    public void setRemovedPaths(List<String> removedPaths) {
+        this.removedPaths = removedPaths;
+    }
+}
@@ -0,0 +1,68 @@
+package com.checkstylehub.analyzer.dto;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object for the outcome of file discovery in a repository.
+ * Files inside pruned directories are not visited, so they are counted only as part of the directory.
+ */
+public class DiscoveryResultDto {
+
+    private List<Path> files = new ArrayList<>();
+    private int skippedFiles;
+    private long skippedBytes;
+    private int prunedDirectories;
+
+    public DiscoveryResultDto() {
+    }
+
+    public DiscoveryResultDto(List<Path> files, int skippedFiles, long skippedBytes, int prunedDirectories) {
+        this.files = files;
+        this.skippedFiles = skippedFiles;
+        this.skippedBytes = skippedBytes;
+        this.prunedDirectories = prunedDirectories;
+    }
+
+    /**
+     * Files accepted for analysis, in walk order.
+     */
+    public List<Path> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<Path> files) {
+        this.files = files;
+    }
+
+    /**
+     * Number of visited files that the include and exclude globs left out.
+     */
+    public int getSkippedFiles() {
+        return skippedFiles;
+    }
+
+    public void setSkippedFiles(int skippedFiles) {
+        this.skippedFiles = skippedFiles;
+    }
+
+    public long getSkippedBytes() {
+        return skippedBytes;
+    }
+
+    public void setSkippedBytes(long skippedBytes) {
+        this.skippedBytes = skippedBytes;
+    }
+
+    /**
+     * Number of excluded directories whose subtrees were not walked.
+     */
+    public int getPrunedDirectories() {
+        return prunedDirectories;
+    }
+
+    public void setPrunedDirectories(int prunedDirectories) {
+        this.prunedDirectories = prunedDirectories;
+    }
+}
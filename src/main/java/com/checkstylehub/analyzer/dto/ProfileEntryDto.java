@@ -0,0 +1,34 @@
+package com.checkstylehub.analyzer.dto;
+
+/**
+ * Data Transfer Object for one file or check of an analysis profile.
+ */
+public class ProfileEntryDto {
+
+    private String name;
+    private double durationMillis;
+
+    public ProfileEntryDto() {
+    }
+
+    public ProfileEntryDto(String name, double durationMillis) {
+        this.name = name;
+        this.durationMillis = durationMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public double getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(double durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
@@ -0,0 +1,51 @@
+package com.checkstylehub.analyzer.dto;
+
+/**
+ * Data Transfer Object for a file that was not audited, with the reason why.
+ */
+public class SkippedFileDto {
+
+    public static final String REASON_TOO_LARGE = "TOO_LARGE";
+    public static final String REASON_TIMEOUT = "TIMEOUT";
+    public static final String REASON_LFS_POINTER = "LFS_POINTER";
+
+    private String filePath;
+    private String reason;
+    private String detail;
+
+    public SkippedFileDto() {
+    }
+
+    public SkippedFileDto(String filePath, String reason, String detail) {
+        this.filePath = filePath;
+        this.reason = reason;
+        this.detail = detail;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Reason code, e.g. TOO_LARGE, TIMEOUT or LFS_POINTER.
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+}
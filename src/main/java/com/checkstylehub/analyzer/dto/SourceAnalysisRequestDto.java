@@ -0,0 +1,39 @@
+package com.checkstylehub.analyzer.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for a synchronous analysis of sources posted in the request body.
+ */
+public class SourceAnalysisRequestDto {
+
+    private String configName;
+    private List<SourceFileDto> files;
+
+    public SourceAnalysisRequestDto() {
+    }
+
+    public SourceAnalysisRequestDto(String configName, List<SourceFileDto> files) {
+        this.configName = configName;
+        this.files = files;
+    }
+
+    /**
+     * Name of a stored configuration; the active configuration is used when it is not set.
+     */
+    public String getConfigName() {
+        return configName;
+    }
+
+    public void setConfigName(String configName) {
+        this.configName = configName;
+    }
+
+    public List<SourceFileDto> getFiles() {
+        return files;
+    }
+
+    public void setFiles(List<SourceFileDto> files) {
+        this.files = files;
+    }
+}
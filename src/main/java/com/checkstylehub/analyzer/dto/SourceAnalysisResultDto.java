@@ -0,0 +1,55 @@
+package com.checkstylehub.analyzer.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object for the result of a synchronous source analysis.
+ * File paths are the ones given in the request.
+ */
+public class SourceAnalysisResultDto {
+
+    private List<ViolationDto> violations = new ArrayList<>();
+    private List<SkippedFileDto> skippedFiles = new ArrayList<>();
+    private long durationMillis;
+
+    public SourceAnalysisResultDto() {
+    }
+
+    public SourceAnalysisResultDto(List<ViolationDto> violations, List<SkippedFileDto> skippedFiles,
+                                   long durationMillis) {
+        this.violations = violations;
+        this.skippedFiles = skippedFiles;
+        this.durationMillis = durationMillis;
+    }
+
+    public List<ViolationDto> getViolations() {
+        return violations;
+    }
+
+    public void setViolations(List<ViolationDto> violations) {
+        this.violations = violations;
+    }
+
+    /**
+     * Files that exceeded the size or time limit and were not audited.
+     */
+    public List<SkippedFileDto> getSkippedFiles() {
+        return skippedFiles;
+    }
+
+    public void setSkippedFiles(List<SkippedFileDto> skippedFiles) {
+        this.skippedFiles = skippedFiles;
+    }
+
+    /**
+     * Wall time spent on the server, including staging the files.
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
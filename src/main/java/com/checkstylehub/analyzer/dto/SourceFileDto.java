@@ -0,0 +1,38 @@
+package com.checkstylehub.analyzer.dto;
+
+/**
+ * Data Transfer Object for one source file posted for synchronous analysis.
+ */
+public class SourceFileDto {
+
+    private String path;
+    private String content;
+
+    public SourceFileDto() {
+    }
+
+    public SourceFileDto(String path, String content) {
+        this.path = path;
+        this.content = content;
+    }
+
+    /**
+     * Relative path of the file, e.g. {@code src/main/java/com/example/Foo.java}; violations are reported
+     * against it.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
@@ -0,0 +1,86 @@
+package com.checkstylehub.analyzer.dto;
+
+/**
+ * Data Transfer Object for a single Checkstyle violation produced by the audit engine.
+ * Unlike Checkstyle's AuditEvent, it holds only plain values, so it can be cached and serialized.
+ */
+public class ViolationDto {
+
+    private String filePath;
+    private int lineNumber;
+    private int columnNumber;
+    private String severity;
+    private String message;
+    private String source;
+
+    public ViolationDto() {
+    }
+
+    public ViolationDto(String filePath, int lineNumber, int columnNumber,
+                        String severity, String message, String source) {
+        this.filePath = filePath;
+        this.lineNumber = lineNumber;
+        this.columnNumber = columnNumber;
+        this.severity = severity;
+        this.message = message;
+        this.source = source;
+    }
+
+    /**
+     * Creates a copy of this violation reported against another file.
+     *
+     * @param otherFilePath the file path of the copy
+     * @return new violation with the same location and message
+     */
+    public ViolationDto withFilePath(String otherFilePath) {
+        return new ViolationDto(otherFilePath, lineNumber, columnNumber, severity, message, source);
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public void setLineNumber(int lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    public int getColumnNumber() {
+        return columnNumber;
+    }
+
+    public void setColumnNumber(int columnNumber) {
+        this.columnNumber = columnNumber;
+    }
+
+    public String getSeverity() {
+        return severity;
+    }
+
+    public void setSeverity(String severity) {
+        this.severity = severity;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+}
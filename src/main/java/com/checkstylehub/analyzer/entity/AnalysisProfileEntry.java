@@ -0,0 +1,103 @@
+package com.checkstylehub.analyzer.entity;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+/**
+ * Entity representing the measured wall time of one file or one check module in a profiled analysis.
+ */
+@Entity
+@Table(name = "analysis_profile_entries",
+        indexes = @Index(name = "idx_analysis_profile_request_kind", columnList = "request_id, kind"))
+public class AnalysisProfileEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "request_id", nullable = false)
+    private AnalysisRequest request;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Kind kind;
+
+    @Column(nullable = false, length = 1024)
+    private String name;
+
+    @Column(nullable = false)
+    private long durationMicros;
+
+    public AnalysisProfileEntry() {
+    }
+
+    public AnalysisProfileEntry(AnalysisRequest request, Kind kind, String name, long durationMicros) {
+        this.request = request;
+        this.kind = kind;
+        this.name = name;
+        this.durationMicros = durationMicros;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public AnalysisRequest getRequest() {
+        return request;
+    }
+
+    public void setRequest(AnalysisRequest request) {
+        this.request = request;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public void setKind(Kind kind) {
+        this.kind = kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+
+    public void setDurationMicros(long durationMicros) {
+        this.durationMicros = durationMicros;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AnalysisProfileEntry that = (AnalysisProfileEntry) o;
+        return Objects.equals(id, that.id) && kind == that.kind && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, kind, name);
+    }
+
+    /**
+     * What a profile entry measures.
+     */
+    public enum Kind {
+        FILE,
+        CHECK
+    }
+}
@@ -11,7 +11,9 @@ import java.util.Objects;
  * Contains status, error information, and relationships to results and logs.
  */
 @Entity
-@Table(name = "analysis_requests")
+@Table(name = "analysis_requests", indexes = {
+        @Index(name = "idx_analysis_requests_commit_config", columnList = "commitSha, configHash")
+})
 public class AnalysisRequest {
 
     @Id
@@ -21,8 +23,12 @@ public class AnalysisRequest {
     @Column(nullable = false)
     private String repoUrl;
 
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    /**
+     * Stored as a plain string through a converter: an enumerated mapping makes Hibernate generate a check
+     * constraint or a native ENUM column, which schema updates never extend with new statuses.
+     */
+    @Convert(converter = RequestStatusConverter.class)
+    @Column(nullable = false, length = 20)
     private RequestStatus status;
 
     @Column(columnDefinition = "TEXT")
@@ -31,6 +37,93 @@ public class AnalysisRequest {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    @Column
+    private Boolean profiled;
+
+    @Column
+    private Integer maxFiles;
+
+    @Column
+    private Long maxViolations;
+
+    @Column
+    private Long maxDurationSeconds;
+
+    /**
+     * Discovery includes of the request, one glob per line; null for the defaults.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String includeGlobs;
+
+    /**
+     * Discovery excludes added by the request, one glob per line.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String excludeGlobs;
+
+    /**
+     * Names of the stored configurations run together in one pass, one per line; null for a single configuration.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String configNames;
+
+    @Column
+    private Integer discoverySkippedFiles;
+
+    @Column
+    private Long discoverySkippedBytes;
+
+    /**
+     * Commit the changes of an incremental analysis are computed from; null for a full analysis.
+     */
+    @Column(length = 64)
+    private String baseCommit;
+
+    /**
+     * Commit an incremental analysis checks out and audits.
+     */
+    @Column(length = 64)
+    private String headCommit;
+
+    /**
+     * Completed analysis of the base commit whose results of unchanged files are carried over;
+     * null when only changed lines are reported.
+     */
+    @Column
+    private Long baseRequestId;
+
+    /**
+     * Number of changed files audited by an incremental analysis.
+     */
+    @Column
+    private Integer changedFiles;
+
+    /**
+     * Whether an incremental analysis reports only violations on lines added or modified since the base commit.
+     */
+    @Column
+    private Boolean changedLinesOnly;
+
+    /**
+     * Commit the analysis audited, as checked out; null until the repository is checked out.
+     */
+    @Column(length = 64)
+    private String commitSha;
+
+    /**
+     * Hash of what the results depend on besides the commit: the configurations, the discovery globs and
+     * whether only changed lines are reported.
+     */
+    @Column(length = 64)
+    private String configHash;
+
+    /**
+     * Completed analysis of the same commit and configuration hash whose results were copied instead of
+     * auditing again; null if the repository was audited.
+     */
+    @Column
+    private Long reusedRequestId;
+
     @OneToMany(mappedBy = "request", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<AnalysisResult> results;
 
@@ -84,6 +177,149 @@ public class AnalysisRequest {
         this.createdAt = createdAt;
     }
 
+    public boolean isProfiled() {
+        return Boolean.TRUE.equals(profiled);
+    }
+
+    public void setProfiled(boolean profiled) {
+        this.profiled = profiled;
+    }
+
+    public Integer getMaxFiles() {
+        return maxFiles;
+    }
+
+    public void setMaxFiles(Integer maxFiles) {
+        this.maxFiles = maxFiles;
+    }
+
+    public Long getMaxViolations() {
+        return maxViolations;
+    }
+
+    public void setMaxViolations(Long maxViolations) {
+        this.maxViolations = maxViolations;
+    }
+
+    public Long getMaxDurationSeconds() {
+        return maxDurationSeconds;
+    }
+
+    public void setMaxDurationSeconds(Long maxDurationSeconds) {
+        this.maxDurationSeconds = maxDurationSeconds;
+    }
+
+    public List<String> getIncludeGlobs() {
+        return splitLines(includeGlobs);
+    }
+
+    public void setIncludeGlobs(List<String> includeGlobs) {
+        this.includeGlobs = joinLines(includeGlobs);
+    }
+
+    public List<String> getExcludeGlobs() {
+        return splitLines(excludeGlobs);
+    }
+
+    public void setExcludeGlobs(List<String> excludeGlobs) {
+        this.excludeGlobs = joinLines(excludeGlobs);
+    }
+
+    public List<String> getConfigNames() {
+        return splitLines(configNames);
+    }
+
+    public void setConfigNames(List<String> configNames) {
+        this.configNames = joinLines(configNames);
+    }
+
+    public Integer getDiscoverySkippedFiles() {
+        return discoverySkippedFiles;
+    }
+
+    public void setDiscoverySkippedFiles(Integer discoverySkippedFiles) {
+        this.discoverySkippedFiles = discoverySkippedFiles;
+    }
+
+    public Long getDiscoverySkippedBytes() {
+        return discoverySkippedBytes;
+    }
+
+    public void setDiscoverySkippedBytes(Long discoverySkippedBytes) {
+        this.discoverySkippedBytes = discoverySkippedBytes;
+    }
+
+    public String getBaseCommit() {
+        return baseCommit;
+    }
+
+    public void setBaseCommit(String baseCommit) {
+        this.baseCommit = baseCommit;
+    }
+
+    public String getHeadCommit() {
+        return headCommit;
+    }
+
+    public void setHeadCommit(String headCommit) {
+        this.headCommit = headCommit;
+    }
+
+    public Long getBaseRequestId() {
+        return baseRequestId;
+    }
+
+    public void setBaseRequestId(Long baseRequestId) {
+        this.baseRequestId = baseRequestId;
+    }
+
+    /**
+     * Whether only the files changed between the base and the head commit are audited.
+     */
+    public boolean isIncremental() {
+        return baseCommit != null;
+    }
+
+    public boolean isChangedLinesOnly() {
+        return Boolean.TRUE.equals(changedLinesOnly);
+    }
+
+    public void setChangedLinesOnly(boolean changedLinesOnly) {
+        this.changedLinesOnly = changedLinesOnly;
+    }
+
+    public Integer getChangedFiles() {
+        return changedFiles;
+    }
+
+    public void setChangedFiles(Integer changedFiles) {
+        this.changedFiles = changedFiles;
+    }
+
+    public String getCommitSha() {
+        return commitSha;
+    }
+
+    public void setCommitSha(String commitSha) {
+        this.commitSha = commitSha;
+    }
+
+    public String getConfigHash() {
+        return configHash;
+    }
+
+    public void setConfigHash(String configHash) {
+        this.configHash = configHash;
+    }
+
+    public Long getReusedRequestId() {
+        return reusedRequestId;
+    }
+
+    public void setReusedRequestId(Long reusedRequestId) {
+        this.reusedRequestId = reusedRequestId;
+    }
+
     public List<AnalysisResult> getResults() {
         return results;
     }
@@ -105,6 +341,14 @@ public class AnalysisRequest {
         return Objects.hash(id, repoUrl);
     }
 
+    private static List<String> splitLines(String lines) {
+        return lines == null || lines.isBlank() ? List.of() : List.of(lines.split("\n"));
+    }
+
+    private static String joinLines(List<String> lines) {
+        return lines == null || lines.isEmpty() ? null : String.join("\n", lines);
+    }
+
     /**
      * Represents the lifecycle status of an analysis request.
      */
@@ -113,6 +357,25 @@ public class AnalysisRequest {
         CLONING,
         ANALYZING,
         COMPLETED,
-        FAILED
+        PARTIAL,
+        FAILED,
+        CANCELLED
+    }
+
+    /**
+     * Stores a request status by its name.
+     */
+    @Converter
+    public static class RequestStatusConverter implements AttributeConverter<RequestStatus, String> {
+
+        @Override
+        public String convertToDatabaseColumn(RequestStatus status) {
+            return status != null ? status.name() : null;
+        }
+
+        @Override
+        public RequestStatus convertToEntityAttribute(String status) {
+            return status != null ? RequestStatus.valueOf(status) : null;
+        }
     }
 }
@@ -32,6 +32,12 @@ public class AnalysisResult {
     @Column(columnDefinition = "TEXT", nullable = false)
     private String message;
 
+    /**
+     * Name of the configuration that reported the violation in a multi-configuration analysis, otherwise null.
+     */
+    @Column
+    private String configName;
+
     public Long getId() {
         return id;
     }
@@ -80,6 +86,14 @@ public class AnalysisResult {
         this.message = message;
     }
 
+    public String getConfigName() {
+        return configName;
+    }
+
+    public void setConfigName(String configName) {
+        this.configName = configName;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
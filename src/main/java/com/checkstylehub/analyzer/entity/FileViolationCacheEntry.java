@@ -0,0 +1,84 @@
+package com.checkstylehub.analyzer.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing the cached Checkstyle violations of one file under one configuration.
+ * The file key identifies the file by its relative path and Git blob id, so identical files
+ * in forks and re-submitted repositories share a single entry.
+ */
+@Entity
+@Table(name = "file_violation_cache",
+        uniqueConstraints = @UniqueConstraint(name = "uk_file_violation_cache_key",
+                columnNames = {"config_hash", "file_key"}),
+        indexes = @Index(name = "idx_file_violation_cache_last_used", columnList = "last_used_at"))
+public class FileViolationCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "config_hash", nullable = false, length = 64)
+    private String configHash;
+
+    @Column(name = "file_key", nullable = false, length = 64)
+    private String fileKey;
+
+    @Column(name = "violations", nullable = false, columnDefinition = "TEXT")
+    private String violations;
+
+    @Column(name = "last_used_at", nullable = false)
+    private LocalDateTime lastUsedAt;
+
+    public FileViolationCacheEntry() {
+    }
+
+    public FileViolationCacheEntry(String configHash, String fileKey, String violations) {
+        this.configHash = configHash;
+        this.fileKey = fileKey;
+        this.violations = violations;
+        this.lastUsedAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getConfigHash() {
+        return configHash;
+    }
+
+    public void setConfigHash(String configHash) {
+        this.configHash = configHash;
+    }
+
+    public String getFileKey() {
+        return fileKey;
+    }
+
+    public void setFileKey(String fileKey) {
+        this.fileKey = fileKey;
+    }
+
+    public String getViolations() {
+        return violations;
+    }
+
+    public void setViolations(String violations) {
+        this.violations = violations;
+    }
+
+    public LocalDateTime getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    public void setLastUsedAt(LocalDateTime lastUsedAt) {
+        this.lastUsedAt = lastUsedAt;
+    }
+}
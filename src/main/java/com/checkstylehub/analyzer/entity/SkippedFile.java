@@ -0,0 +1,96 @@
+package com.checkstylehub.analyzer.entity;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+/**
+ * Entity representing a file that was skipped during analysis, for example because it was too large
+ * or its audit exceeded the per-file time limit.
+ */
+@Entity
+@Table(name = "analysis_skipped_files", indexes = {
+        @Index(name = "idx_analysis_skipped_files_request_id", columnList = "request_id")
+})
+public class SkippedFile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "request_id", nullable = false)
+    private AnalysisRequest request;
+
+    @Column(nullable = false, length = 1024)
+    private String filePath;
+
+    @Column(nullable = false, length = 32)
+    private String reason;
+
+    @Column
+    private String detail;
+
+    public SkippedFile() {
+    }
+
+    public SkippedFile(AnalysisRequest request, String filePath, String reason, String detail) {
+        this.request = request;
+        this.filePath = filePath;
+        this.reason = reason;
+        this.detail = detail;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public AnalysisRequest getRequest() {
+        return request;
+    }
+
+    public void setRequest(AnalysisRequest request) {
+        this.request = request;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SkippedFile that = (SkippedFile) o;
+        return Objects.equals(id, that.id) && Objects.equals(filePath, that.filePath);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, filePath);
+    }
+}
@@ -0,0 +1,18 @@
+package com.checkstylehub.analyzer.repository;
+
+import com.checkstylehub.analyzer.entity.AnalysisProfileEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AnalysisProfileEntryRepository extends JpaRepository<AnalysisProfileEntry, Long> {
+
+    List<AnalysisProfileEntry> findByRequestIdAndKindOrderByDurationMicrosDesc(Long requestId,
+                                                                              AnalysisProfileEntry.Kind kind,
+                                                                              Pageable pageable);
+
+    boolean existsByRequestId(Long requestId);
+}
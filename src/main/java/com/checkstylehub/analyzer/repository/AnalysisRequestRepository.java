@@ -4,6 +4,14 @@ import com.checkstylehub.analyzer.entity.AnalysisRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface AnalysisRequestRepository extends JpaRepository<AnalysisRequest, Long> {
+
+    /**
+     * Finds the latest analysis of a commit with the given configuration hash and status.
+     */
+    Optional<AnalysisRequest> findFirstByCommitShaAndConfigHashAndStatusOrderByIdDesc(
+            String commitSha, String configHash, AnalysisRequest.RequestStatus status);
 }
@@ -2,9 +2,38 @@ package com.checkstylehub.analyzer.repository;
 
 import com.checkstylehub.analyzer.entity.AnalysisResult;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface AnalysisResultRepository extends JpaRepository<AnalysisResult, Long> {
     java.util.List<AnalysisResult> findByRequestId(Long requestId);
+
+    java.util.List<AnalysisResult> findByRequestIdAndConfigName(Long requestId, String configName);
+
+    @Modifying
+    @Transactional
+    @Query("delete from AnalysisResult r where r.request.id = :requestId")
+    int deleteByRequestId(@Param("requestId") Long requestId);
+
+    /**
+     * Copies all results of one analysis to another inside the database, without loading them.
+     *
+     * @return number of copied results
+     */
+    @Modifying
+    @Transactional
+    @Query("insert into AnalysisResult (request, filePath, lineNumber, severity, message, configName) "
+            + "select t, r.filePath, r.lineNumber, r.severity, r.message, r.configName "
+            + "from AnalysisResult r, AnalysisRequest t where r.request.id = :sourceId and t.id = :targetId")
+    int copyResults(@Param("sourceId") Long sourceId, @Param("targetId") Long targetId);
+
+    @Modifying
+    @Transactional
+    @Query("delete from AnalysisResult r where r.request.id = :requestId and r.filePath in :filePaths")
+    int deleteByRequestIdAndFilePathIn(@Param("requestId") Long requestId,
+                                       @Param("filePaths") java.util.Collection<String> filePaths);
 }
@@ -0,0 +1,30 @@
+package com.checkstylehub.analyzer.repository;
+
+import com.checkstylehub.analyzer.entity.FileViolationCacheEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for FileViolationCacheEntry entity.
+ * Provides lookups by file key and least-recently-used eviction of cached violations.
+ */
+@Repository
+public interface FileViolationCacheRepository extends JpaRepository<FileViolationCacheEntry, Long> {
+
+    List<FileViolationCacheEntry> findByConfigHashAndFileKeyIn(String configHash, Collection<String> fileKeys);
+
+    @Query("select e.id from FileViolationCacheEntry e order by e.lastUsedAt asc")
+    List<Long> findLeastRecentlyUsedIds(Pageable pageable);
+
+    @Modifying
+    @Query("update FileViolationCacheEntry e set e.lastUsedAt = :usedAt where e.id in :ids")
+    int touch(@Param("ids") Collection<Long> ids, @Param("usedAt") LocalDateTime usedAt);
+}
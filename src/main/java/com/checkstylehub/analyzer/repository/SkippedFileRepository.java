@@ -0,0 +1,41 @@
+package com.checkstylehub.analyzer.repository;
+
+import com.checkstylehub.analyzer.entity.SkippedFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SkippedFileRepository extends JpaRepository<SkippedFile, Long> {
+
+    List<SkippedFile> findByRequestIdOrderByFilePath(Long requestId);
+
+    @Modifying
+    @Transactional
+    @Query("delete from SkippedFile s where s.request.id = :requestId")
+    int deleteByRequestId(@Param("requestId") Long requestId);
+
+    /**
+     * Copies all skipped files of one analysis to another inside the database, without loading them.
+     *
+     * @return number of copied entries
+     */
+    @Modifying
+    @Transactional
+    @Query("insert into SkippedFile (request, filePath, reason, detail) "
+            + "select t, s.filePath, s.reason, s.detail "
+            + "from SkippedFile s, AnalysisRequest t where s.request.id = :sourceId and t.id = :targetId")
+    int copySkippedFiles(@Param("sourceId") Long sourceId, @Param("targetId") Long targetId);
+
+    @Modifying
+    @Transactional
+    @Query("delete from SkippedFile s where s.request.id = :requestId and s.filePath in :filePaths")
+    int deleteByRequestIdAndFilePathIn(@Param("requestId") Long requestId,
+                                       @Param("filePaths") Collection<String> filePaths);
+}
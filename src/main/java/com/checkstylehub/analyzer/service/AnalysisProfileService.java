@@ -0,0 +1,97 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.AnalysisProfileDto;
+import com.checkstylehub.analyzer.dto.AuditProfileDto;
+import com.checkstylehub.analyzer.dto.ProfileEntryDto;
+import com.checkstylehub.analyzer.entity.AnalysisProfileEntry;
+import com.checkstylehub.analyzer.entity.AnalysisRequest;
+import com.checkstylehub.analyzer.repository.AnalysisProfileEntryRepository;
+import com.checkstylehub.analyzer.repository.AnalysisRequestRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for storing and reading the profiles of profiled analyses.
+ * All check timings are stored; file timings are limited to the slowest files.
+ */
+@Service
+public class AnalysisProfileService {
+
+    private final AnalysisProfileEntryRepository profileRepository;
+    private final AnalysisRequestRepository requestRepository;
+    private final AnalyzerProperties.Profiling settings;
+
+    public AnalysisProfileService(AnalysisProfileEntryRepository profileRepository,
+                                  AnalysisRequestRepository requestRepository,
+                                  AnalyzerProperties properties) {
+        this.profileRepository = profileRepository;
+        this.requestRepository = requestRepository;
+        this.settings = properties.getProfiling();
+    }
+
+    /**
+     * Stores the profile of an analysis.
+     *
+     * @param requestId  the analysis request ID
+     * @param profile    the measured profile
+     * @param pathMapper maps absolute file names to the paths shown to users
+     */
+    @Transactional
+    public void save(Long requestId, AuditProfileDto profile, Function<String, String> pathMapper) {
+        AnalysisRequest request = requestRepository.getReferenceById(requestId);
+        List<AnalysisProfileEntry> entries = new ArrayList<>();
+        profile.getCheckNanos().forEach((check, nanos) -> entries.add(
+                new AnalysisProfileEntry(request, AnalysisProfileEntry.Kind.CHECK, check, toMicros(nanos))));
+        slowest(profile.getFileNanos(), settings.getStoredFiles()).forEach(file -> entries.add(
+                new AnalysisProfileEntry(request, AnalysisProfileEntry.Kind.FILE,
+                        pathMapper.apply(file.getKey()), toMicros(file.getValue()))));
+        profileRepository.saveAll(entries);
+    }
+
+    /**
+     * Reads the slowest files and checks of a profiled analysis.
+     *
+     * @param requestId the analysis request ID
+     * @param limit     maximal number of files and of checks to return
+     * @return the profile, or empty if the analysis was not profiled
+     */
+    @Transactional(readOnly = true)
+    public Optional<AnalysisProfileDto> getProfile(Long requestId, int limit) {
+        if (!profileRepository.existsByRequestId(requestId)) {
+            return Optional.empty();
+        }
+        PageRequest page = PageRequest.of(0, Math.max(1, limit));
+        return Optional.of(new AnalysisProfileDto(requestId,
+                toDtos(profileRepository.findByRequestIdAndKindOrderByDurationMicrosDesc(
+                        requestId, AnalysisProfileEntry.Kind.FILE, page)),
+                toDtos(profileRepository.findByRequestIdAndKindOrderByDurationMicrosDesc(
+                        requestId, AnalysisProfileEntry.Kind.CHECK, page))));
+    }
+
+    private static List<Map.Entry<String, Long>> slowest(Map<String, Long> nanos, int limit) {
+        return nanos.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(Math.max(0, limit))
+                .collect(Collectors.toList());
+    }
+
+    private static List<ProfileEntryDto> toDtos(List<AnalysisProfileEntry> entries) {
+        return entries.stream()
+                .map(entry -> new ProfileEntryDto(entry.getName(), entry.getDurationMicros() / 1000.0))
+                .collect(Collectors.toList());
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -1,18 +1,37 @@
 package com.checkstylehub.analyzer.service;
 
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.AuditProfileDto;
+import com.checkstylehub.analyzer.dto.AuditReportDto;
+import com.checkstylehub.analyzer.dto.CommitDiffDto;
+import com.checkstylehub.analyzer.dto.DiscoveryResultDto;
 import com.checkstylehub.analyzer.dto.LogMessageDto;
+import com.checkstylehub.analyzer.dto.SkippedFileDto;
 import com.checkstylehub.analyzer.entity.AnalysisRequest;
+import com.checkstylehub.analyzer.entity.SkippedFile;
 import com.checkstylehub.analyzer.exception.RepositoryAccessException;
 import com.checkstylehub.analyzer.repository.AnalysisRequestRepository;
 import com.checkstylehub.analyzer.repository.AnalysisResultRepository;
-import jakarta.persistence.EntityManager;
+import com.checkstylehub.analyzer.repository.SkippedFileRepository;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service responsible for orchestrating the complete code analysis workflow.
@@ -22,93 +41,234 @@ import java.util.List;
 @Service
 public class AnalysisService {
 
+    /**
+     * Number of file paths per delete statement when dropping carried-over results of changed files.
+     */
+    private static final int STALE_PATHS_PER_DELETE = 500;
+
     private final GitService gitService;
     private final CheckstyleService checkstyleService;
+    private final CheckstyleConfigurationService configurationService;
+    private final FileDiscoveryService discoveryService;
+    private final ResultWriterService resultWriterService;
+    private final AnalysisProfileService profileService;
     private final AnalysisRequestRepository requestRepository;
     private final AnalysisResultRepository resultRepository;
+    private final SkippedFileRepository skippedFileRepository;
     private final SimpMessagingTemplate messagingTemplate;
     private final com.checkstylehub.analyzer.repository.AnalysisLogRepository logRepository;
-    private final EntityManager entityManager;
+    private final AnalyzerProperties.Limits limits;
+    private final AnalyzerProperties.Results resultSettings;
+    private final AnalyzerProperties.Progress progressSettings;
+    private final Map<Long, AnalysisJob> runningJobs = new HashMap<>();
 
     public AnalysisService(GitService gitService,
                            CheckstyleService checkstyleService,
+                           CheckstyleConfigurationService configurationService,
+                           FileDiscoveryService discoveryService,
+                           ResultWriterService resultWriterService,
+                           AnalysisProfileService profileService,
                            AnalysisRequestRepository requestRepository,
                            AnalysisResultRepository resultRepository,
+                           SkippedFileRepository skippedFileRepository,
                            com.checkstylehub.analyzer.repository.AnalysisLogRepository logRepository,
                            SimpMessagingTemplate messagingTemplate,
-                           EntityManager entityManager) {
+                           AnalyzerProperties properties) {
         this.gitService = gitService;
         this.checkstyleService = checkstyleService;
+        this.configurationService = configurationService;
+        this.discoveryService = discoveryService;
+        this.resultWriterService = resultWriterService;
+        this.profileService = profileService;
         this.requestRepository = requestRepository;
         this.resultRepository = resultRepository;
+        this.skippedFileRepository = skippedFileRepository;
         this.logRepository = logRepository;
         this.messagingTemplate = messagingTemplate;
-        this.entityManager = entityManager;
+        this.limits = properties.getLimits();
+        this.resultSettings = properties.getResults();
+        this.progressSettings = properties.getProgress();
     }
 
     /**
      * Executes the complete analysis workflow asynchronously.
      * Steps: clone repository → find Java files → run Checkstyle → save results.
+     * An incremental request instead checks out its head commit, audits only the Java files changed since
+     * its base commit and carries over the base analysis' results of all other files; in changed-lines mode
+     * it carries nothing over and reports only violations on lines added or modified since the base commit.
+     * A request naming several stored configurations runs them all in the same pass and tags every result
+     * with the configuration that reported it.
+     * The steps after cloning overlap: discovered files are audited in batches while the walk continues,
+     * and results are streamed to the database in batches while Checkstyle is still running,
+     * so the flow itself holds no long-running transaction; every repository call commits on its own.
      * Status updates and logs are sent via WebSocket in real-time.
+     * An analysis that hits one of its limits stops early, keeps the results found so far
+     * and ends in status PARTIAL.
+     * The progress of the clone is sent to the log topic as PROGRESS messages, which are not stored.
+     * A cancelled analysis stops its clone or its audit, drops its results and ends in status CANCELLED.
      *
      * @param requestId              the ID of the analysis request
      * @param customCheckstyleConfig optional custom Checkstyle XML configuration
      */
     @Async("taskExecutor")
-    @Transactional
     public void startAnalysisFlow(Long requestId, String customCheckstyleConfig) {
         String logTopic = "/topic/logs/" + requestId;
         Path tempDir = null;
+        AnalysisJob job = new AnalysisJob(Thread.currentThread(), new CloneProgress(
+                progress -> messagingTemplate.convertAndSend(logTopic, progress), progressSettings.getInterval()));
+        synchronized (runningJobs) {
+            runningJobs.put(requestId, job);
+        }
 
         try {
             AnalysisRequest request = requestRepository.findById(requestId)
                     .orElseThrow(() -> new RuntimeException("Request not found"));
+            if (request.getStatus() == AnalysisRequest.RequestStatus.CANCELLED) {
+                return;
+            }
+            AuditBudget budget = budgetFor(request);
+            job.budget = budget;
 
+            DiscoveryFilter filter = discoveryService.filterFor(request.getIncludeGlobs(), request.getExcludeGlobs());
+            Map<String, String> configurations = configurationsFor(request, customCheckstyleConfig);
+            request.setConfigHash(configurationHash(request, configurations, filter));
+            checkCancelled(job);
+            if (reuseCompletedResults(request, logTopic)) {
+                return;
+            }
             updateStatusAndLog(request, AnalysisRequest.RequestStatus.CLONING, "Починаю клонування...", logTopic);
-            tempDir = gitService.cloneRepository(request.getRepoUrl());
-
-            logInfo("Клонування завершено. Шукаю Java файли...", logTopic);
-            List<Path> javaFiles = checkstyleService.findJavaFiles(tempDir);
-            if (javaFiles.isEmpty()) {
-                throw new IllegalStateException("Репозиторій не містить файлів Java (.java). Аналіз неможливий.");
+            SourceCheckout checkout;
+            beginClone(job);
+            try {
+                checkout = gitService.checkoutSources(request.getRepoUrl(),
+                        request.isIncremental() ? request.getHeadCommit() : null, filter, job.progress);
+            } finally {
+                endClone(job);
             }
-            logInfo("Знайдено " + javaFiles.size() + " Java файлів. Запускаю аналіз...", logTopic);
+            tempDir = checkout.getDirectory();
+            checkCancelled(job);
+            request.setCommitSha(gitService.resolveHead(tempDir));
 
-            updateStatusAndLog(request, AnalysisRequest.RequestStatus.ANALYZING, "Запуск аналізу Checkstyle...", logTopic);
+            updateStatusAndLog(request, AnalysisRequest.RequestStatus.ANALYZING,
+                    "Клонування завершено. Пошук Java файлів і аналіз Checkstyle...", logTopic);
 
-            List<com.puppycrawl.tools.checkstyle.api.AuditEvent> violations =
-                    checkstyleService.runCheckstyle(tempDir, javaFiles, customCheckstyleConfig);
-
-            logInfo("Збереження " + violations.size() + " результатів...", logTopic);
-            request = entityManager.merge(request);
-
-            for (com.puppycrawl.tools.checkstyle.api.AuditEvent event : violations) {
-                com.checkstylehub.analyzer.entity.AnalysisResult result = new com.checkstylehub.analyzer.entity.AnalysisResult();
-                result.setRequest(request);
-                String relativePath = safeRelativizeToString(tempDir, Path.of(event.getFileName()));
-                result.setFilePath(relativePath);
-                result.setLineNumber(event.getLine());
-                result.setSeverity(event.getSeverityLevel().getName());
-                result.setMessage(event.getMessage());
-                resultRepository.save(result);
+            final Path baseDir = tempDir;
+            Function<String, String> pathMapper = fileName -> safeRelativizeToString(baseDir, Path.of(fileName));
+            List<Path> changedFiles = null;
+            ChangedLines changedLines = null;
+            long carriedOverViolations = 0;
+            if (request.isChangedLinesOnly()) {
+                changedLines = gitService.changedLines(tempDir, request.getBaseCommit(), request.getHeadCommit());
+                changedFiles = changedFiles(tempDir, changedLines.getPaths(), filter);
+                request.setChangedFiles(changedFiles.size());
+                logInfo(String.format("Аналіз змінених рядків %s..%s: змінено %d Java файлів.",
+                        request.getBaseCommit(), request.getHeadCommit(), changedFiles.size()), logTopic);
+            } else if (request.isIncremental()) {
+                CommitDiffDto diff = gitService.diffCommits(tempDir, request.getBaseCommit(), request.getHeadCommit());
+                changedFiles = changedFiles(tempDir, diff.getChangedPaths(), filter);
+                request.setChangedFiles(changedFiles.size());
+                carriedOverViolations = carryOverResults(request, tempDir, diff);
+                logInfo(String.format("Інкрементальний аналіз %s..%s: змінено %d Java файлів, перенесено %d порушень з аналізу #%d.",
+                        request.getBaseCommit(), request.getHeadCommit(), changedFiles.size(),
+                        carriedOverViolations, request.getBaseRequestId()), logTopic);
             }
 
-            entityManager.flush();
+            Map<String, AuditReportDto> reports;
+            Map<String, ResultWriterService.ResultStream> resultStreams = new LinkedHashMap<>();
+            try (DiscoveryStream discoveryStream = changedFiles == null ? discoveryService.stream(tempDir, filter) : null) {
+                for (String configName : configurations.keySet()) {
+                    resultStreams.put(configName, resultWriterService.open(requestId, pathMapper, configName));
+                }
+                FileBatchSource files = discoveryStream != null ? discoveryStream : FileBatchSource.of(changedFiles);
+                AuditOptions options = new AuditOptions();
+                // The cache file lists the clean files of a full audit; a diff would overwrite it with a few.
+                options.setRepositoryUrl(request.isIncremental() ? null : request.getRepoUrl());
+                options.setProfile(request.isProfiled());
+                options.setBudget(budget);
+                options.setChangedLines(changedLines);
+                reports = checkstyleService.audit(tempDir, files, configurations, resultStreams::get, options);
+                int totalFiles = reports.values().iterator().next().getTotalFiles();
+                if (discoveryStream != null) {
+                    DiscoveryResultDto discovery = withOmitted(discoveryStream.getResult(), checkout.getOmitted());
+                    // An audit stopped by its limits may end before the walk found the first file.
+                    if (discoveryStream.getDiscoveredFiles() == 0 && !budget.isStopped()) {
+                        throw new IllegalStateException("Репозиторій не містить файлів Java (.java). Аналіз неможливий.");
+                    }
+                    logInfo(String.format("Проаналізовано %d Java файлів. Пошуком пропущено %d файлів (%d байт) і %d каталогів.",
+                            totalFiles, discovery.getSkippedFiles(), discovery.getSkippedBytes(),
+                            discovery.getPrunedDirectories()), logTopic);
+                    request.setDiscoverySkippedFiles(discovery.getSkippedFiles());
+                    request.setDiscoverySkippedBytes(discovery.getSkippedBytes());
+                } else {
+                    logInfo("Проаналізовано " + totalFiles + " змінених Java файлів.", logTopic);
+                }
+                for (Map.Entry<String, AuditReportDto> entry : reports.entrySet()) {
+                    AuditReportDto configReport = entry.getValue();
+                    String prefix = entry.getKey() != null ? "Конфігурація " + entry.getKey() + ": " : "";
+                    logInfo(String.format("%sкеш порушень: %d з %d файлів (%.1f%%) взято з кешу.", prefix,
+                            configReport.getCachedFiles(), configReport.getTotalFiles(),
+                            configReport.getCacheHitRatio() * 100), logTopic);
+                    logInfo(prefix + "збереження " + configReport.getViolationCount() + " результатів...", logTopic);
+                }
+                for (ResultWriterService.ResultStream resultStream : resultStreams.values()) {
+                    resultStream.finish();
+                }
+            } finally {
+                resultStreams.values().forEach(ResultWriterService.ResultStream::close);
+            }
+            checkCancelled(job);
             logInfo("Результати успішно збережено в базу даних.", logTopic);
+            long violationCount = reports.values().stream().mapToLong(AuditReportDto::getViolationCount).sum();
+            boolean partial = reports.values().stream().anyMatch(AuditReportDto::isPartial);
+            List<SkippedFileDto> skippedFiles = distinctSkippedFiles(reports.values());
+            if (changedFiles == null) {
+                skippedFiles.addAll(checkout.getSkippedFiles());
+            }
+            if (!skippedFiles.isEmpty()) {
+                saveSkippedFiles(request, skippedFiles, pathMapper);
+                logInfo("Пропущено " + skippedFiles.size()
+                        + " файлів через ліміт розміру чи часу або Git LFS.", logTopic);
+            }
+            AuditProfileDto profile = reports.values().iterator().next().getProfile();
+            if (profile != null) {
+                profileService.save(requestId, profile, pathMapper);
+                logInfo("Профіль аналізу збережено.", logTopic);
+            }
+            endJob(requestId, job);
 
-            updateStatusAndLog(request, AnalysisRequest.RequestStatus.COMPLETED,
-                    "Аналіз завершено. Знайдено " + violations.size() + " порушень.", logTopic);
+            if (partial) {
+                String reason = describeStopReason(budget);
+                request.setErrorMessage(reason);
+                updateStatusAndLog(request, AnalysisRequest.RequestStatus.PARTIAL,
+                        reason + " Збережено " + (violationCount + carriedOverViolations)
+                                + " порушень.", logTopic);
+            } else {
+                updateStatusAndLog(request, AnalysisRequest.RequestStatus.COMPLETED,
+                        "Аналіз завершено. Знайдено " + (violationCount + carriedOverViolations)
+                                + " порушень.", logTopic);
+            }
 
         } catch (RepositoryAccessException | IllegalStateException | InterruptedException e) {
-            handleFailure(requestId, e.getMessage(), logTopic);
+            if (job.cancelled) {
+                handleCancellation(requestId, logTopic);
+            } else {
+                handleFailure(requestId, e.getMessage(), logTopic);
+            }
         } catch (Exception e) {
-            e.printStackTrace();
-            handleFailure(requestId, "Сталася неочікувана внутрішня помилка: " + e.getMessage(), logTopic);
+            if (job.cancelled) {
+                handleCancellation(requestId, logTopic);
+            } else {
+                e.printStackTrace();
+                handleFailure(requestId, "Сталася неочікувана внутрішня помилка: " + e.getMessage(), logTopic);
+            }
         } finally {
+            synchronized (runningJobs) {
+                runningJobs.remove(requestId);
+            }
             if (tempDir != null) {
                 try {
                     gitService.deleteTempDirectory(tempDir);
-                    logInfo("Тимчасову директорію видалено.", logTopic);
+                    logInfo("Тимчасову директорію передано на видалення.", logTopic);
                 } catch (Exception e) {
                     logError("Не вдалося видалити тимчасову директорію: " + tempDir, logTopic);
                 }
@@ -116,6 +276,287 @@ public class AnalysisService {
         }
     }
 
+    /**
+     * Cancels an analysis. A queued analysis ends in status CANCELLED right away and is skipped when a worker
+     * picks it up. A running analysis aborts its clone or fetch, or stops its audit before the next file,
+     * and then drops its results, frees its worker thread and hands its working tree to the janitor.
+     *
+     * @param requestId the ID of the analysis request
+     * @return false if the request does not exist or has already ended
+     */
+    public boolean cancelAnalysis(Long requestId) {
+        synchronized (runningJobs) {
+            AnalysisJob job = runningJobs.get(requestId);
+            if (job != null) {
+                job.cancelled = true;
+                job.progress.cancel();
+                AuditBudget budget = job.budget;
+                if (budget != null) {
+                    budget.cancel();
+                }
+                if (job.cloning) {
+                    // Wakes the job up while it waits for a mirror, a shared checkout or disk space.
+                    job.thread.interrupt();
+                }
+                return true;
+            }
+            // Holding the lock keeps the job from starting before the queued request is marked.
+            Optional<AnalysisRequest> queued = requestRepository.findById(requestId)
+                    .filter(request -> request.getStatus() == AnalysisRequest.RequestStatus.PENDING);
+            queued.ifPresent(request -> {
+                request.setErrorMessage("Аналіз скасовано.");
+                updateStatusAndLog(request, AnalysisRequest.RequestStatus.CANCELLED,
+                        "Аналіз скасовано до початку.", "/topic/logs/" + requestId);
+            });
+            return queued.isPresent();
+        }
+    }
+
+    /**
+     * Marks a job as cloning, so that a cancellation interrupts its waits.
+     *
+     * @throws CancellationException if the job is already cancelled
+     */
+    private void beginClone(AnalysisJob job) {
+        synchronized (runningJobs) {
+            checkCancelled(job);
+            job.cloning = true;
+        }
+    }
+
+    /**
+     * Ends the cloning phase of a job and clears an interrupt that came too late to stop the clone, so
+     * that it does not hit the database calls that follow.
+     */
+    private void endClone(AnalysisJob job) {
+        synchronized (runningJobs) {
+            job.cloning = false;
+        }
+        Thread.interrupted();
+    }
+
+    /**
+     * Removes a job that is about to write its terminal status from the running jobs, so that a cancellation
+     * arriving after this point is refused instead of being accepted and then overwritten.
+     *
+     * @throws CancellationException if the job is already cancelled
+     */
+    private void endJob(Long requestId, AnalysisJob job) {
+        synchronized (runningJobs) {
+            checkCancelled(job);
+            runningJobs.remove(requestId);
+        }
+    }
+
+    private static void checkCancelled(AnalysisJob job) {
+        if (job.cancelled) {
+            throw new CancellationException("Аналіз скасовано.");
+        }
+    }
+
+    /**
+     * Resolves the limits of a request: values the client did not set default to the server maximums,
+     * and larger values are capped by them. The wall time starts now.
+     */
+    private AuditBudget budgetFor(AnalysisRequest request) {
+        long maxFiles = cap(request.getMaxFiles(), limits.getMaxFiles());
+        long maxViolations = cap(request.getMaxViolations(), limits.getMaxViolations());
+        Duration serverMaxDuration = limits.getMaxDuration();
+        long maxSeconds = cap(request.getMaxDurationSeconds(),
+                serverMaxDuration != null ? serverMaxDuration.toSeconds() : 0);
+        return new AuditBudget((int) Math.min(Integer.MAX_VALUE, maxFiles), maxViolations,
+                maxSeconds > 0 ? Duration.ofSeconds(maxSeconds) : null);
+    }
+
+    /**
+     * Caps a requested limit by the server maximum; zero or less means no limit on either side.
+     */
+    private static long cap(Number requested, long serverMax) {
+        if (requested == null || requested.longValue() <= 0) {
+            return serverMax;
+        }
+        return serverMax > 0 ? Math.min(requested.longValue(), serverMax) : requested.longValue();
+    }
+
+    private static String describeStopReason(AuditBudget budget) {
+        switch (budget.getStopReason()) {
+            case MAX_FILES:
+                return "Аналіз зупинено: досягнуто ліміту файлів (" + budget.getMaxFiles() + ").";
+            case MAX_VIOLATIONS:
+                return "Аналіз зупинено: досягнуто ліміту порушень (" + budget.getMaxViolations() + ").";
+            case CANCELLED:
+                return "Аналіз скасовано.";
+            default:
+                return "Аналіз зупинено: перевищено ліміт часу (" + budget.getMaxDuration().toSeconds() + " с).";
+        }
+    }
+
+    /**
+     * Resolves the configurations of a request by tag: the named stored configurations of a
+     * multi-configuration request, or otherwise the custom or active configuration under the null tag.
+     * The active configuration is resolved here, so that the audit runs and the configuration hash covers
+     * the same rules even if the active configuration changes meanwhile.
+     *
+     * @throws IllegalStateException if a named configuration no longer exists
+     */
+    private Map<String, String> configurationsFor(AnalysisRequest request, String customCheckstyleConfig) {
+        Map<String, String> configurations = new LinkedHashMap<>();
+        if (request.getConfigNames().isEmpty()) {
+            configurations.put(null, customCheckstyleConfig != null && !customCheckstyleConfig.isBlank()
+                    ? customCheckstyleConfig : configurationService.getActiveConfigurationXml());
+            return configurations;
+        }
+        for (String configName : request.getConfigNames()) {
+            configurations.put(configName, configurationService.getConfigurationXml(configName)
+                    .orElseThrow(() -> new IllegalStateException("Конфігурацію " + configName + " не знайдено.")));
+        }
+        return configurations;
+    }
+
+    /**
+     * Merges the skipped files of all configurations, listing every file once.
+     */
+    private static List<SkippedFileDto> distinctSkippedFiles(Collection<AuditReportDto> reports) {
+        Map<String, SkippedFileDto> skippedFiles = new LinkedHashMap<>();
+        for (AuditReportDto report : reports) {
+            report.getSkippedFiles().forEach(skipped -> skippedFiles.putIfAbsent(skipped.getFilePath(), skipped));
+        }
+        return new ArrayList<>(skippedFiles.values());
+    }
+
+    /**
+     * Completes a full, unprofiled request by copying the results of the latest completed analysis of the
+     * same commit with the same configuration hash, if there is one. The commit of the default branch is
+     * looked up with a remote reference listing, which transfers no objects. The same commit id means the
+     * same tree, so an analysis of a fork or another spelling of the URL is reused as well.
+     *
+     * @return true if the request was completed from earlier results
+     */
+    private boolean reuseCompletedResults(AnalysisRequest request, String logTopic) {
+        if (!resultSettings.isReuse() || request.isIncremental() || request.isProfiled()) {
+            return false;
+        }
+        String commitSha;
+        try {
+            commitSha = gitService.resolveRemoteHead(request.getRepoUrl());
+        } catch (RepositoryAccessException e) {
+            // The clone reports the error if the repository is really unreachable.
+            logInfo("Не вдалося визначити коміт без клонування: " + e.getMessage(), logTopic);
+            return false;
+        }
+        if (commitSha == null) {
+            return false;
+        }
+        Optional<AnalysisRequest> previous = requestRepository.findFirstByCommitShaAndConfigHashAndStatusOrderByIdDesc(
+                commitSha, request.getConfigHash(), AnalysisRequest.RequestStatus.COMPLETED);
+        if (previous.isEmpty()) {
+            return false;
+        }
+        AnalysisRequest source = previous.get();
+        long copied = resultRepository.copyResults(source.getId(), request.getId());
+        skippedFileRepository.copySkippedFiles(source.getId(), request.getId());
+        request.setCommitSha(commitSha);
+        request.setReusedRequestId(source.getId());
+        request.setDiscoverySkippedFiles(source.getDiscoverySkippedFiles());
+        request.setDiscoverySkippedBytes(source.getDiscoverySkippedBytes());
+        updateStatusAndLog(request, AnalysisRequest.RequestStatus.COMPLETED,
+                String.format("Коміт %s уже проаналізовано з тією ж конфігурацією (аналіз #%d). Скопійовано %d порушень.",
+                        commitSha, source.getId(), copied), logTopic);
+        return true;
+    }
+
+    /**
+     * Hashes what the results of an analysis depend on besides the commit: the configurations with their
+     * names, the effective discovery globs and whether only changed lines are reported.
+     */
+    private static String configurationHash(AnalysisRequest request, Map<String, String> configurations,
+                                            DiscoveryFilter filter) {
+        StringBuilder key = new StringBuilder();
+        configurations.forEach((name, xml) -> key.append(name).append('\0')
+                .append(CheckstyleConfigurationCache.hash(xml)).append('\n'));
+        key.append(filter.getKey()).append('\n').append(request.isChangedLinesOnly());
+        return CheckstyleConfigurationCache.hash(key.toString());
+    }
+
+    /**
+     * Adds the files a sources-only checkout left out to the statistics of the discovery walk over it.
+     */
+    private static DiscoveryResultDto withOmitted(DiscoveryResultDto discovery, DiscoveryResultDto omitted) {
+        if (omitted == null) {
+            return discovery;
+        }
+        return new DiscoveryResultDto(discovery.getFiles(),
+                discovery.getSkippedFiles() + omitted.getSkippedFiles(),
+                discovery.getSkippedBytes() + omitted.getSkippedBytes(),
+                discovery.getPrunedDirectories() + omitted.getPrunedDirectories());
+    }
+
+    /**
+     * Selects the changed files of a diff that the discovery would have audited and that exist in the
+     * checked-out head commit.
+     */
+    private static List<Path> changedFiles(Path repoDir, Collection<String> changedPaths, DiscoveryFilter filter) {
+        List<Path> files = new ArrayList<>();
+        for (String changedPath : changedPaths) {
+            Path file = repoDir.resolve(changedPath);
+            if (filter.acceptsPath(Path.of(changedPath)) && Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Copies the results and skipped files of the base analysis to an incremental one, except for the
+     * files changed or removed since the base commit. The copy is made before the audit streams the
+     * results of the changed files. Only results of the base commit under the same configurations and
+     * discovery globs are carried over; anything else would mix results of other rules or files.
+     *
+     * @return number of carried-over violations
+     * @throws IllegalStateException if the base analysis is missing, not completed, of another repository,
+     *                               of another commit or made with another configuration hash
+     */
+    private long carryOverResults(AnalysisRequest request, Path repoDir, CommitDiffDto diff) {
+        Long baseRequestId = request.getBaseRequestId();
+        AnalysisRequest base = requestRepository.findById(baseRequestId)
+                .orElseThrow(() -> new IllegalStateException("Базовий аналіз #" + baseRequestId + " не знайдено."));
+        if (base.getStatus() != AnalysisRequest.RequestStatus.COMPLETED
+                || !GitService.normalizeRepositoryUrl(base.getRepoUrl())
+                .equals(GitService.normalizeRepositoryUrl(request.getRepoUrl()))) {
+            throw new IllegalStateException("Базовий аналіз #" + baseRequestId
+                    + " не завершено успішно або виконано для іншого репозиторію.");
+        }
+        String baseCommitId = gitService.resolveCommit(repoDir, request.getBaseCommit());
+        if (base.getCommitSha() == null || !base.getCommitSha().equals(baseCommitId)) {
+            throw new IllegalStateException("Базовий аналіз #" + baseRequestId + " виконано для коміту "
+                    + base.getCommitSha() + ", а не для " + request.getBaseCommit() + ".");
+        }
+        if (!Objects.equals(base.getConfigHash(), request.getConfigHash())) {
+            throw new IllegalStateException("Базовий аналіз #" + baseRequestId
+                    + " виконано з іншою конфігурацією або іншими шаблонами пошуку файлів.");
+        }
+
+        long copied = resultRepository.copyResults(baseRequestId, request.getId());
+        skippedFileRepository.copySkippedFiles(baseRequestId, request.getId());
+        List<String> stalePaths = new ArrayList<>(diff.getChangedPaths());
+        stalePaths.addAll(diff.getRemovedPaths());
+        for (int from = 0; from < stalePaths.size(); from += STALE_PATHS_PER_DELETE) {
+            List<String> chunk = stalePaths.subList(from, Math.min(from + STALE_PATHS_PER_DELETE, stalePaths.size()));
+            copied -= resultRepository.deleteByRequestIdAndFilePathIn(request.getId(), chunk);
+            skippedFileRepository.deleteByRequestIdAndFilePathIn(request.getId(), chunk);
+        }
+        return copied;
+    }
+
+    private void saveSkippedFiles(AnalysisRequest request, List<SkippedFileDto> skippedFiles,
+                                  Function<String, String> pathMapper) {
+        List<SkippedFile> entities = skippedFiles.stream()
+                .map(skipped -> new SkippedFile(request, pathMapper.apply(skipped.getFilePath()),
+                        skipped.getReason(), skipped.getDetail()))
+                .collect(Collectors.toList());
+        skippedFileRepository.saveAll(entities);
+    }
+
     /**
      * Updates the analysis request status and sends a log message via WebSocket.
      */
@@ -127,8 +568,11 @@ public class AnalysisService {
 
     /**
      * Handles analysis failure by updating the request status and logging the error.
+     * Results already streamed to the database are removed, as a failed analysis has no results.
      */
     private void handleFailure(Long requestId, String errorMessage, String topic) {
+        resultRepository.deleteByRequestId(requestId);
+        skippedFileRepository.deleteByRequestId(requestId);
         requestRepository.findById(requestId).ifPresent(request -> {
             request.setStatus(AnalysisRequest.RequestStatus.FAILED);
             request.setErrorMessage(errorMessage);
@@ -137,6 +581,20 @@ public class AnalysisService {
         logError(errorMessage, topic);
     }
 
+    /**
+     * Ends a cancelled analysis: its results are removed like those of a failed one.
+     */
+    private void handleCancellation(Long requestId, String topic) {
+        resultRepository.deleteByRequestId(requestId);
+        skippedFileRepository.deleteByRequestId(requestId);
+        requestRepository.findById(requestId).ifPresent(request -> {
+            request.setStatus(AnalysisRequest.RequestStatus.CANCELLED);
+            request.setErrorMessage("Аналіз скасовано.");
+            requestRepository.save(request);
+        });
+        logInfo("Аналіз скасовано.", topic);
+    }
+
     private void logInfo(String message, String topic) {
         messagingTemplate.convertAndSend(topic, new LogMessageDto("INFO", message));
         persistLogFromTopic(topic, "INFO", message);
@@ -261,4 +719,21 @@ public class AnalysisService {
             }
         }
     }
+
+    /**
+     * Analysis running on a worker thread, with the handles a cancellation uses to stop it.
+     * The cloning flag is guarded by the lock of the running job map.
+     */
+    private static final class AnalysisJob {
+        private final Thread thread;
+        private final CloneProgress progress;
+        private volatile AuditBudget budget;
+        private volatile boolean cancelled;
+        private boolean cloning;
+
+        private AnalysisJob(Thread thread, CloneProgress progress) {
+            this.thread = thread;
+            this.progress = progress;
+        }
+    }
 }
@@ -0,0 +1,143 @@
+package com.checkstylehub.analyzer.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Limits of a single audit: number of files, number of violations and wall time.
+ * Shared by all shards of the audit; once a limit is hit the budget stays exhausted, shards stop
+ * before their next file and the violations found so far are kept. Cancelling the analysis exhausts
+ * the budget the same way.
+ */
+public class AuditBudget {
+
+    private final int maxFiles;
+    private final long maxViolations;
+    private final Duration maxDuration;
+    private final long deadlineNanos;
+    private final AtomicLong violations = new AtomicLong();
+    private final AtomicReference<StopReason> stopReason = new AtomicReference<>();
+    private volatile boolean filesLimited;
+    private int admittedFiles;
+
+    /**
+     * Creates a budget whose wall time starts now.
+     *
+     * @param maxFiles      maximal number of audited files, zero or less for no limit
+     * @param maxViolations maximal number of reported violations, zero or less for no limit
+     * @param maxDuration   maximal wall time, null for no limit
+     */
+    public AuditBudget(int maxFiles, long maxViolations, Duration maxDuration) {
+        this.maxFiles = maxFiles;
+        this.maxViolations = maxViolations;
+        this.maxDuration = maxDuration;
+        this.deadlineNanos = maxDuration != null ? System.nanoTime() + maxDuration.toNanos() : 0;
+    }
+
+    public static AuditBudget unlimited() {
+        return new AuditBudget(0, 0, null);
+    }
+
+    /**
+     * Cuts the file list down to what is left of the file limit. Files arriving in several batches are
+     * counted together. Dropping files marks the audit partial, but the admitted files are still audited.
+     *
+     * @param files files to audit
+     * @return the files within the limit
+     */
+    public synchronized <T> List<T> limitFiles(List<T> files) {
+        if (maxFiles <= 0) {
+            return files;
+        }
+        int remaining = maxFiles - admittedFiles;
+        if (files.size() <= remaining) {
+            admittedFiles += files.size();
+            return files;
+        }
+        filesLimited = true;
+        admittedFiles = maxFiles;
+        return files.subList(0, remaining);
+    }
+
+    /**
+     * Counts one more violation.
+     *
+     * @return false if the violation exceeds the limit and must be dropped
+     */
+    public boolean tryRecordViolation() {
+        if (maxViolations <= 0) {
+            return true;
+        }
+        if (violations.incrementAndGet() > maxViolations) {
+            stop(StopReason.MAX_VIOLATIONS);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the audit has to stop, exhausting the budget when the wall time is over.
+     *
+     * @return true if no further file may be started
+     */
+    public boolean isExhausted() {
+        if (stopReason.get() != null) {
+            return true;
+        }
+        if (maxDuration != null && System.nanoTime() - deadlineNanos > 0) {
+            stop(StopReason.MAX_DURATION);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Exhausts the budget because the analysis was cancelled; shards stop before their next file.
+     */
+    public void cancel() {
+        stop(StopReason.CANCELLED);
+    }
+
+    /**
+     * Whether any limit was hit, so that the audit covers only part of the files.
+     */
+    public boolean isStopped() {
+        return stopReason.get() != null || filesLimited;
+    }
+
+    /**
+     * Limit that stopped the audit first, or null if none was hit.
+     */
+    public StopReason getStopReason() {
+        StopReason reason = stopReason.get();
+        return reason != null || !filesLimited ? reason : StopReason.MAX_FILES;
+    }
+
+    public int getMaxFiles() {
+        return maxFiles;
+    }
+
+    public long getMaxViolations() {
+        return maxViolations;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    private void stop(StopReason reason) {
+        stopReason.compareAndSet(null, reason);
+    }
+
+    /**
+     * Limit of an audit.
+     */
+    public enum StopReason {
+        MAX_FILES,
+        MAX_VIOLATIONS,
+        MAX_DURATION,
+        CANCELLED
+    }
+}
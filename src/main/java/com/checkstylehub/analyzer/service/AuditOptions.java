@@ -0,0 +1,77 @@
+package com.checkstylehub.analyzer.service;
+
+/**
+ * Optional parameters of a single {@link CheckstyleService} audit.
+ * All values are optional; a default instance audits the files without repository-specific caching.
+ */
+public class AuditOptions {
+
+    private String repositoryUrl;
+    private boolean profile;
+    private boolean cacheable = true;
+    private ChangedLines changedLines;
+    private AuditBudget budget = AuditBudget.unlimited();
+
+    public static AuditOptions defaults() {
+        return new AuditOptions();
+    }
+
+    /**
+     * Repository the files were checked out from; enables its Checkstyle cache file.
+     */
+    public String getRepositoryUrl() {
+        return repositoryUrl;
+    }
+
+    public void setRepositoryUrl(String repositoryUrl) {
+        this.repositoryUrl = repositoryUrl;
+    }
+
+    /**
+     * Whether per-file and per-check wall time is measured. Profiling audits every module separately,
+     * so it is several times slower than a regular audit and bypasses the caches.
+     */
+    public boolean isProfile() {
+        return profile;
+    }
+
+    public void setProfile(boolean profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Whether the persistent violation cache and the repository cache files are consulted and updated.
+     * Disabled for one-off sources that are not worth remembering, so the audit touches neither
+     * the database nor the cache directory.
+     */
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    public void setCacheable(boolean cacheable) {
+        this.cacheable = cacheable;
+    }
+
+    /**
+     * Lines to report violations on; violations elsewhere are dropped as soon as Checkstyle raises them.
+     * Null reports all violations. The caches are bypassed when set, as they hold all violations of a file.
+     */
+    public ChangedLines getChangedLines() {
+        return changedLines;
+    }
+
+    public void setChangedLines(ChangedLines changedLines) {
+        this.changedLines = changedLines;
+    }
+
+    /**
+     * Limits of the audit; unlimited by default.
+     */
+    public AuditBudget getBudget() {
+        return budget;
+    }
+
+    public void setBudget(AuditBudget budget) {
+        this.budget = budget;
+    }
+}
@@ -0,0 +1,72 @@
+package com.checkstylehub.analyzer.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lines added or modified per file between two commits, by path relative to the repository root.
+ * Lookups are a hash and a binary search, so the audit can test every violation before creating it.
+ */
+public final class ChangedLines {
+
+    private final Map<String, int[]> ranges;
+
+    private ChangedLines(Map<String, int[]> ranges) {
+        this.ranges = ranges;
+    }
+
+    /**
+     * Creates the changed lines from line ranges per file.
+     *
+     * @param ranges sorted, non-overlapping {@code [first, last]} ranges of 1-based inclusive line numbers
+     *               per file; files without ranges are left out
+     * @return the changed lines
+     */
+    public static ChangedLines of(Map<String, List<int[]>> ranges) {
+        Map<String, int[]> flattened = new HashMap<>();
+        ranges.forEach((path, fileRanges) -> {
+            if (fileRanges.isEmpty()) {
+                return;
+            }
+            int[] bounds = new int[fileRanges.size() * 2];
+            for (int i = 0; i < fileRanges.size(); i++) {
+                bounds[2 * i] = fileRanges.get(i)[0];
+                bounds[2 * i + 1] = fileRanges.get(i)[1];
+            }
+            flattened.put(path, bounds);
+        });
+        return new ChangedLines(flattened);
+    }
+
+    /**
+     * Files with at least one changed line.
+     */
+    public Set<String> getPaths() {
+        return ranges.keySet();
+    }
+
+    /**
+     * Checks whether a violation lies on a changed line. Violations of a whole file, with line 0,
+     * count as changed when the file has any changed line.
+     *
+     * @param relativePath file path relative to the repository root
+     * @param line         1-based line number, or 0 for the whole file
+     * @return true if the violation should be reported
+     */
+    public boolean contains(String relativePath, int line) {
+        int[] bounds = ranges.get(relativePath.indexOf('\\') >= 0 ? relativePath.replace('\\', '/') : relativePath);
+        if (bounds == null) {
+            return false;
+        }
+        if (line <= 0) {
+            return true;
+        }
+        int index = Arrays.binarySearch(bounds, line);
+        // An exact hit is a bound of some range; otherwise the line is inside a range if it falls after
+        // a first line, i.e. at an odd insertion point.
+        return index >= 0 || (-index - 1) % 2 == 1;
+    }
+}
@@ -0,0 +1,196 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pool of configured, reusable Checker instances grouped by configuration hash.
+ * Configuring a Checker instantiates every module of the configuration, so reusing
+ * instances removes that setup cost from each analysis.
+ * Idle instances are destroyed after the configured timeout; all instances of a configuration
+ * are destroyed when the configuration is evicted from {@link CheckstyleConfigurationCache}, and instances
+ * borrowed at that time are destroyed when they are released instead of returning to the pool.
+ */
+@Service
+public class CheckerPool {
+
+    private final AnalyzerProperties.Checkstyle settings;
+    private final Map<String, Deque<IdleChecker>> idleCheckers = new HashMap<>();
+    /** Borrowed instances by configuration hash; guarded by the lock of the idle map. */
+    private final Map<Checker, String> borrowedCheckers = new IdentityHashMap<>();
+    private final Counter created;
+    private final Counter reused;
+
+    public CheckerPool(AnalyzerProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getCheckstyle();
+        this.created = Counter.builder("analyzer.checkstyle.checker.pool")
+                .tag("result", "created")
+                .description("Checker instances handed out by the pool")
+                .register(meterRegistry);
+        this.reused = Counter.builder("analyzer.checkstyle.checker.pool")
+                .tag("result", "reused")
+                .description("Checker instances handed out by the pool")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Borrows a Checker configured with the given configuration.
+     * The caller owns the instance exclusively until it is passed back to {@link #release}.
+     *
+     * @param configHash hash of the configuration, see {@link CheckstyleConfigurationCache#hash(String)}
+     * @param config     the parsed configuration used when a new instance has to be created
+     * @return a ready to use Checker without listeners
+     * @throws CheckstyleException if a new Checker cannot be configured
+     */
+    public Checker borrow(String configHash, Configuration config) throws CheckstyleException {
+        List<Checker> expired = new ArrayList<>();
+        Checker checker = null;
+        synchronized (idleCheckers) {
+            collectExpired(expired);
+            Deque<IdleChecker> idle = idleCheckers.get(configHash);
+            if (idle != null && !idle.isEmpty()) {
+                checker = idle.pollFirst().checker;
+                borrowedCheckers.put(checker, configHash);
+            }
+        }
+        destroyAll(expired);
+
+        if (checker != null) {
+            reused.increment();
+            return checker;
+        }
+
+        checker = new Checker();
+        try {
+            checker.setModuleClassLoader(Checker.class.getClassLoader());
+            checker.configure(config);
+        } catch (CheckstyleException e) {
+            checker.destroy();
+            throw e;
+        }
+        created.increment();
+        synchronized (idleCheckers) {
+            borrowedCheckers.put(checker, configHash);
+        }
+        return checker;
+    }
+
+    /**
+     * Returns a borrowed Checker to the pool.
+     * The caller must have removed its own listeners before releasing the instance. An instance whose
+     * configuration was evicted while it was borrowed is destroyed.
+     *
+     * @param configHash hash of the configuration the Checker was borrowed for
+     * @param checker    the borrowed instance
+     * @param reusable   false if the audit failed and the instance may hold inconsistent state
+     */
+    public void release(String configHash, Checker checker, boolean reusable) {
+        boolean current;
+        synchronized (idleCheckers) {
+            current = borrowedCheckers.remove(checker) != null;
+        }
+        if (!reusable || !current) {
+            checker.destroy();
+            return;
+        }
+        List<Checker> expired = new ArrayList<>();
+        boolean pooled = false;
+        synchronized (idleCheckers) {
+            collectExpired(expired);
+            Deque<IdleChecker> idle = idleCheckers.computeIfAbsent(configHash, key -> new ArrayDeque<>());
+            if (idle.size() < maxIdlePerConfiguration()) {
+                idle.addFirst(new IdleChecker(checker, System.nanoTime()));
+                pooled = true;
+            }
+        }
+        if (!pooled) {
+            expired.add(checker);
+        }
+        destroyAll(expired);
+    }
+
+    /**
+     * Destroys all idle instances created for the given configuration; instances currently borrowed
+     * for it are destroyed on release.
+     *
+     * @param configHash hash of the stale configuration
+     */
+    public void evict(String configHash) {
+        Deque<IdleChecker> removed;
+        synchronized (idleCheckers) {
+            removed = idleCheckers.remove(configHash);
+            borrowedCheckers.values().removeIf(configHash::equals);
+        }
+        if (removed != null) {
+            removed.forEach(idle -> idle.checker.destroy());
+        }
+    }
+
+    public int idleCount() {
+        synchronized (idleCheckers) {
+            return idleCheckers.values().stream().mapToInt(Deque::size).sum();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        List<Checker> all = new ArrayList<>();
+        synchronized (idleCheckers) {
+            idleCheckers.values().forEach(idle -> idle.forEach(entry -> all.add(entry.checker)));
+            idleCheckers.clear();
+        }
+        destroyAll(all);
+    }
+
+    private int maxIdlePerConfiguration() {
+        int configured = settings.getCheckerPoolMaxIdle();
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Moves instances idle for longer than the timeout into the given list. Must hold the pool lock.
+     */
+    private void collectExpired(List<Checker> expired) {
+        long deadline = System.nanoTime() - settings.getCheckerPoolIdleTimeout().toNanos();
+        Iterator<Deque<IdleChecker>> queues = idleCheckers.values().iterator();
+        while (queues.hasNext()) {
+            Deque<IdleChecker> idle = queues.next();
+            // Most recently used instances are at the head, so expired ones sit at the tail.
+            while (!idle.isEmpty() && idle.peekLast().idleSince - deadline < 0) {
+                expired.add(idle.pollLast().checker);
+            }
+            if (idle.isEmpty()) {
+                queues.remove();
+            }
+        }
+    }
+
+    private void destroyAll(List<Checker> checkers) {
+        checkers.forEach(Checker::destroy);
+    }
+
+    private static final class IdleChecker {
+        private final Checker checker;
+        private final long idleSince;
+
+        private IdleChecker(Checker checker, long idleSince) {
+            this.checker = checker;
+            this.idleSince = idleSince;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Manages Checkstyle cache files on local disk, one file per (repository URL, configuration hash).
+ * Like Checkstyle's own cache file, a cache file lists the files that were audited without violations,
+ * so they can be skipped while they stay unchanged. Files are identified by repository-relative path and
+ * Git blob id instead of absolute path and modification time, because every analysis works in a fresh clone.
+ * Next to every cache file a timings file keeps the last measured audit time of each file, which
+ * is used to balance shards. The directory is bounded by a disk quota; least recently used files
+ * are deleted first.
+ */
+@Service
+public class CheckstyleCacheFileService {
+
+    private static final String CONFIG_HASH_KEY = "configuration__";
+    private static final String CACHE_FILE_SUFFIX = ".cache";
+    private static final String TIMINGS_FILE_SUFFIX = ".timings";
+
+    private final AnalyzerProperties.CacheFiles settings;
+
+    public CheckstyleCacheFileService(AnalyzerProperties properties) {
+        this.settings = properties.getCacheFiles();
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * Resolves the cache file of a repository and configuration.
+     *
+     * @param repositoryUrl the repository URL, normalized with {@link GitService#normalizeRepositoryUrl(String)}
+     * @param configHash    hash of the configuration, see {@link CheckstyleConfigurationCache#hash(String)}
+     * @return path of the cache file inside the managed directory
+     */
+    public Path cacheFile(String repositoryUrl, String configHash) {
+        return managedFile(repositoryUrl, configHash, CACHE_FILE_SUFFIX);
+    }
+
+    /**
+     * Resolves the timings file of a repository and configuration.
+     *
+     * @param repositoryUrl the repository URL
+     * @param configHash    hash of the configuration
+     * @return path of the timings file inside the managed directory
+     */
+    public Path timingsFile(String repositoryUrl, String configHash) {
+        return managedFile(repositoryUrl, configHash, TIMINGS_FILE_SUFFIX);
+    }
+
+    /**
+     * Loads the violation-free files recorded for a repository and configuration and marks the
+     * cache file as recently used.
+     *
+     * @param repositoryUrl the repository URL
+     * @param configHash    hash of the configuration
+     * @return blob ids by relative path; empty if there is no usable cache file
+     */
+    public Map<String, String> load(String repositoryUrl, String configHash) {
+        Properties properties = read(cacheFile(repositoryUrl, configHash));
+        if (properties == null || !configHash.equals(properties.getProperty(CONFIG_HASH_KEY))) {
+            return Map.of();
+        }
+
+        Map<String, String> cleanFiles = new HashMap<>();
+        for (String relativePath : properties.stringPropertyNames()) {
+            if (!CONFIG_HASH_KEY.equals(relativePath)) {
+                cleanFiles.put(relativePath, properties.getProperty(relativePath));
+            }
+        }
+        return cleanFiles;
+    }
+
+    /**
+     * Replaces the cache file of a repository and configuration with the given violation-free files,
+     * then enforces the disk quota. The file is written atomically, so concurrent analyses of the same
+     * repository never observe a partially written cache file.
+     *
+     * @param repositoryUrl the repository URL
+     * @param configHash    hash of the configuration
+     * @param cleanFiles    blob ids of violation-free files by relative path
+     */
+    public void store(String repositoryUrl, String configHash, Map<String, String> cleanFiles) {
+        Properties properties = new Properties();
+        properties.putAll(cleanFiles);
+        properties.setProperty(CONFIG_HASH_KEY, configHash);
+        if (write(cacheFile(repositoryUrl, configHash), properties)) {
+            enforceQuota();
+        }
+    }
+
+    /**
+     * Loads the audit times last measured for the files of a repository and configuration
+     * and marks the timings file as recently used.
+     *
+     * @param repositoryUrl the repository URL
+     * @param configHash    hash of the configuration
+     * @return audit time in nanoseconds by relative path; empty if there is no usable timings file
+     */
+    public Map<String, Long> loadTimings(String repositoryUrl, String configHash) {
+        Properties properties = read(timingsFile(repositoryUrl, configHash));
+        if (properties == null) {
+            return Map.of();
+        }
+        Map<String, Long> timings = new HashMap<>();
+        for (String relativePath : properties.stringPropertyNames()) {
+            try {
+                timings.put(relativePath, Long.parseLong(properties.getProperty(relativePath)));
+            } catch (NumberFormatException e) {
+                // A damaged entry only loses the estimate of one file.
+            }
+        }
+        return timings;
+    }
+
+    /**
+     * Replaces the timings file of a repository and configuration, then enforces the disk quota.
+     *
+     * @param repositoryUrl the repository URL
+     * @param configHash    hash of the configuration
+     * @param timings       audit time in nanoseconds by relative path
+     */
+    public void storeTimings(String repositoryUrl, String configHash, Map<String, Long> timings) {
+        Properties properties = new Properties();
+        timings.forEach((relativePath, nanos) -> properties.setProperty(relativePath, Long.toString(nanos)));
+        if (write(timingsFile(repositoryUrl, configHash), properties)) {
+            enforceQuota();
+        }
+    }
+
+    /**
+     * Deletes least recently used cache files until the directory fits into the disk quota.
+     */
+    public void enforceQuota() {
+        long quota = settings.getMaxDiskSize().toBytes();
+        List<CacheFileInfo> cacheFiles = listCacheFiles();
+        long used = cacheFiles.stream().mapToLong(cacheFile -> cacheFile.size).sum();
+        if (used <= quota) {
+            return;
+        }
+        cacheFiles.sort(Comparator.comparing((CacheFileInfo cacheFile) -> cacheFile.lastUsed));
+        for (CacheFileInfo cacheFile : cacheFiles) {
+            if (used <= quota) {
+                break;
+            }
+            if (deleteQuietly(cacheFile.path)) {
+                used -= cacheFile.size;
+            }
+        }
+    }
+
+    /**
+     * Computes the disk space currently used by cache files.
+     *
+     * @return total size in bytes
+     */
+    public long diskUsage() {
+        return listCacheFiles().stream().mapToLong(cacheFile -> cacheFile.size).sum();
+    }
+
+    private Path managedFile(String repositoryUrl, String configHash, String suffix) {
+        String repositoryHash = CheckstyleConfigurationCache.hash(GitService.normalizeRepositoryUrl(repositoryUrl));
+        return settings.getDirectory().resolve(repositoryHash.substring(0, 32) + "-" + configHash + suffix);
+    }
+
+    /**
+     * Reads a managed file and marks it as recently used.
+     *
+     * @return the properties, or null if the file does not exist or cannot be read
+     */
+    private static Properties read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Failed to read Checkstyle cache file " + file + ": " + e.getMessage());
+            return null;
+        }
+        return properties;
+    }
+
+    /**
+     * Writes a managed file atomically, so concurrent analyses never observe a partially written file.
+     *
+     * @return whether the file was written
+     */
+    private static boolean write(Path file, Properties properties) {
+        Path tempFile = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tempFile = Files.createTempFile(file.getParent(), "checkstyle-", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                properties.store(out, null);
+            }
+            moveIntoPlace(tempFile, file);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Failed to write Checkstyle cache file " + file + ": " + e.getMessage());
+            deleteQuietly(tempFile);
+            return false;
+        }
+    }
+
+    private List<CacheFileInfo> listCacheFiles() {
+        List<CacheFileInfo> cacheFiles = new ArrayList<>();
+        Path directory = settings.getDirectory();
+        if (!Files.isDirectory(directory)) {
+            return cacheFiles;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                "*{" + CACHE_FILE_SUFFIX + "," + TIMINGS_FILE_SUFFIX + "}")) {
+            for (Path path : stream) {
+                try {
+                    cacheFiles.add(new CacheFileInfo(path, Files.size(path), Files.getLastModifiedTime(path)));
+                } catch (IOException e) {
+                    // Deleted concurrently; nothing to account for.
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to list Checkstyle cache files in " + directory + ": " + e.getMessage());
+        }
+        return cacheFiles;
+    }
+
+    private static void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static boolean deleteQuietly(Path path) {
+        if (path == null) {
+            return false;
+        }
+        try {
+            return Files.deleteIfExists(path);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static final class CacheFileInfo {
+        private final Path path;
+        private final long size;
+        private final FileTime lastUsed;
+
+        private CacheFileInfo(Path path, long size, FileTime lastUsed) {
+            this.path = path;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
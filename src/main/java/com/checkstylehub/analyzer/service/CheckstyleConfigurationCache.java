@@ -0,0 +1,142 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.puppycrawl.tools.checkstyle.ConfigurationLoader;
+import com.puppycrawl.tools.checkstyle.PropertiesExpander;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.stereotype.Service;
+import org.xml.sax.InputSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of parsed Checkstyle configuration trees.
+ * Entries are keyed by a SHA-256 hash of the normalized XML, so XML parsing, DTD resolution
+ * and property expansion happen only once per distinct configuration.
+ * Hit and miss counts are exported as the {@code analyzer.checkstyle.config.cache} metric.
+ * Evicting or invalidating an entry also destroys the pooled Checkers built from it.
+ */
+@Service
+public class CheckstyleConfigurationCache {
+
+    private final int maxSize;
+    private final Map<String, Configuration> cache;
+    private final CheckerPool checkerPool;
+    private final Counter hits;
+    private final Counter misses;
+
+    public CheckstyleConfigurationCache(AnalyzerProperties properties, MeterRegistry meterRegistry,
+                                        CheckerPool checkerPool) {
+        this.checkerPool = checkerPool;
+        this.maxSize = Math.max(1, properties.getCheckstyle().getConfigCacheSize());
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Configuration> eldest) {
+                if (size() > maxSize) {
+                    checkerPool.evict(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = Counter.builder("analyzer.checkstyle.config.cache")
+                .tag("result", "hit")
+                .description("Lookups of parsed Checkstyle configurations")
+                .register(meterRegistry);
+        this.misses = Counter.builder("analyzer.checkstyle.config.cache")
+                .tag("result", "miss")
+                .description("Lookups of parsed Checkstyle configurations")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("analyzer.checkstyle.config.cache.size", Tags.empty(), cache);
+    }
+
+    /**
+     * Computes the cache key of a configuration: SHA-256 of the XML with normalized line endings
+     * and surrounding whitespace removed.
+     *
+     * @param xml the configuration XML
+     * @return lowercase hex digest
+     */
+    public static String hash(String xml) {
+        String normalized = xml.replace("\r\n", "\n").replace('\r', '\n').strip();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Returns the parsed configuration for the given XML, loading it on a cache miss.
+     *
+     * @param xml the configuration XML
+     * @return parsed configuration tree, shared between callers and treated as read-only
+     * @throws CheckstyleException if the XML is not a valid Checkstyle configuration
+     */
+    public Configuration getConfiguration(String xml) throws CheckstyleException {
+        return getConfiguration(hash(xml), xml);
+    }
+
+    /**
+     * Returns the parsed configuration for an already hashed XML, loading it on a cache miss.
+     *
+     * @param configHash hash of the XML as computed by {@link #hash(String)}
+     * @param xml        the configuration XML
+     * @return parsed configuration tree
+     * @throws CheckstyleException if the XML is not a valid Checkstyle configuration
+     */
+    public Configuration getConfiguration(String configHash, String xml) throws CheckstyleException {
+        synchronized (cache) {
+            Configuration cached = cache.get(configHash);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+
+        Configuration loaded = ConfigurationLoader.loadConfiguration(
+                new InputSource(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))),
+                new PropertiesExpander(System.getProperties()),
+                ConfigurationLoader.IgnoredModulesOptions.OMIT
+        );
+
+        synchronized (cache) {
+            Configuration raced = cache.putIfAbsent(configHash, loaded);
+            return raced != null ? raced : loaded;
+        }
+    }
+
+    /**
+     * Drops the cached entry for the given configuration XML, if any.
+     *
+     * @param xml the configuration XML that is no longer current
+     */
+    public void invalidate(String xml) {
+        if (xml == null) {
+            return;
+        }
+        String configHash = hash(xml);
+        synchronized (cache) {
+            cache.remove(configHash);
+        }
+        checkerPool.evict(configHash);
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+}
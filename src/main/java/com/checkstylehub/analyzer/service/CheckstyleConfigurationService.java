@@ -12,6 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 
 /**
  * Service for managing Checkstyle configurations.
@@ -25,11 +26,14 @@ public class CheckstyleConfigurationService {
 
     private final CheckstyleConfigurationRepository configurationRepository;
     private final CheckstyleXmlConverter xmlConverter;
+    private final CheckstyleConfigurationCache configurationCache;
 
     public CheckstyleConfigurationService(CheckstyleConfigurationRepository configurationRepository,
-                                          CheckstyleXmlConverter xmlConverter) {
+                                          CheckstyleXmlConverter xmlConverter,
+                                          CheckstyleConfigurationCache configurationCache) {
         this.configurationRepository = configurationRepository;
         this.xmlConverter = xmlConverter;
+        this.configurationCache = configurationCache;
     }
 
     @PostConstruct
@@ -81,6 +85,7 @@ public class CheckstyleConfigurationService {
                 .orElseGet(this::initializeDefaultConfiguration);
 
         if (updateDto.getXmlContent() != null && !updateDto.getXmlContent().isBlank()) {
+            configurationCache.invalidate(config.getXmlContent());
             config.setXmlContent(updateDto.getXmlContent());
         }
 
@@ -94,6 +99,7 @@ public class CheckstyleConfigurationService {
                 .orElseGet(this::initializeDefaultConfiguration);
 
         String newXml = xmlConverter.generateXmlFromDto(rulesDto);
+        configurationCache.invalidate(config.getXmlContent());
         config.setXmlContent(newXml);
 
         CheckstyleConfiguration savedConfig = configurationRepository.save(config);
@@ -115,6 +121,18 @@ public class CheckstyleConfigurationService {
                 .orElseGet(this::loadDefaultConfigurationXml);
     }
 
+    /**
+     * Looks up the XML of a stored configuration by its name, whether it is active or not.
+     *
+     * @param configName name of the configuration
+     * @return the XML content, or empty if no configuration has this name
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getConfigurationXml(String configName) {
+        return configurationRepository.findByConfigName(configName)
+                .map(CheckstyleConfiguration::getXmlContent);
+    }
+
     @Transactional
     protected CheckstyleConfiguration initializeDefaultConfiguration() {
         String defaultXml = loadDefaultConfigurationXml();
@@ -1,53 +1,112 @@
 package com.checkstylehub.analyzer.service;
 
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.AuditProfileDto;
+import com.checkstylehub.analyzer.dto.AuditReportDto;
+import com.checkstylehub.analyzer.dto.SkippedFileDto;
+import com.checkstylehub.analyzer.dto.ViolationDto;
 import com.puppycrawl.tools.checkstyle.Checker;
-import com.puppycrawl.tools.checkstyle.ConfigurationLoader;
-import com.puppycrawl.tools.checkstyle.PropertiesExpander;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
 import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.xml.sax.InputSource;
 
-import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Service for running Checkstyle analysis on Java files.
  * Handles configuration loading and violation collection.
+ * Parsed configurations are reused through {@link CheckstyleConfigurationCache}
+ * and configured Checkers are borrowed from {@link CheckerPool}.
+ * Files recorded as unchanged and violation-free in the repository's cache file
+ * ({@link CheckstyleCacheFileService}) and files whose violations are already known from
+ * {@link ViolationCacheService} are not audited again; the remaining files are split into shards
+ * that are audited in parallel, each by its own Checker. Shards are balanced by estimated cost,
+ * taken from the audit times measured in the repository's previous analysis or, failing that, from
+ * the file size.
+ * Profiled audits measure per-file and per-check wall time with a {@link ProfilingCheckerSet} per shard.
+ * A per-file watchdog keeps pathological files from blocking an audit: files over the size limit are
+ * skipped up front, and files audited longer than the file timeout are abandoned while the rest of
+ * their shard continues with a fresh Checker. Skipped files are listed in the report with the reason.
+ * Several configurations can share one pass over the files, each producing its own report.
  */
 @Service
 public class CheckstyleService {
 
+    private static final long WATCHDOG_MIN_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long WATCHDOG_MAX_PERIOD_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     private final CheckstyleConfigurationService configurationService;
+    private final FileDiscoveryService discoveryService;
+    private final CheckstyleConfigurationCache configurationCache;
+    private final CheckerPool checkerPool;
+    private final ViolationCacheService violationCacheService;
+    private final CheckstyleCacheFileService cacheFileService;
+    private final ExecutorService checkstyleExecutor;
+    private final ScheduledExecutorService watchdogExecutor;
+    private final AnalyzerProperties.Checkstyle settings;
+    private final AnalyzerProperties.Profiling profilingSettings;
 
-    public CheckstyleService(CheckstyleConfigurationService configurationService) {
+    public CheckstyleService(CheckstyleConfigurationService configurationService,
+                             FileDiscoveryService discoveryService,
+                             CheckstyleConfigurationCache configurationCache,
+                             CheckerPool checkerPool,
+                             ViolationCacheService violationCacheService,
+                             CheckstyleCacheFileService cacheFileService,
+                             @Qualifier("checkstyleExecutor") ExecutorService checkstyleExecutor,
+                             @Qualifier("auditWatchdogExecutor") ScheduledExecutorService watchdogExecutor,
+                             AnalyzerProperties properties) {
         this.configurationService = configurationService;
+        this.discoveryService = discoveryService;
+        this.configurationCache = configurationCache;
+        this.checkerPool = checkerPool;
+        this.violationCacheService = violationCacheService;
+        this.cacheFileService = cacheFileService;
+        this.checkstyleExecutor = checkstyleExecutor;
+        this.watchdogExecutor = watchdogExecutor;
+        this.settings = properties.getCheckstyle();
+        this.profilingSettings = properties.getProfiling();
     }
 
     /**
-     * Finds all .java files in the given directory recursively.
+     * Finds all .java files in the given directory recursively, using the default discovery globs.
      *
      * @param startDir the root directory to search
      * @return list of Java file paths
      * @throws IOException if directory traversal fails
+     * @see FileDiscoveryService
      */
     public List<Path> findJavaFiles(Path startDir) throws IOException {
-        try (Stream<Path> stream = Files.walk(startDir)) {
-            return stream
-                    .filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".java"))
-                    .filter(path -> !path.getFileName().toString().equals("module-info.java"))
-                    .filter(path -> !path.toString().contains("resources"))
-                    .collect(Collectors.toList());
-        }
+        return discoveryService.discover(startDir).getFiles();
     }
 
     /**
@@ -56,88 +115,985 @@ public class CheckstyleService {
      * @param baseDir         the base directory of the project
      * @param javaFiles       list of Java files to analyze
      * @param customConfigXml optional custom XML configuration
-     * @return list of violations (AuditEvents)
+     * @return list of violations
+     * @throws CheckstyleException if analysis fails
+     */
+    public List<ViolationDto> runCheckstyle(Path baseDir, List<Path> javaFiles, String customConfigXml)
+            throws CheckstyleException {
+        return audit(baseDir, javaFiles, customConfigXml).getViolations();
+    }
+
+    /**
+     * Runs Checkstyle analysis on the provided Java files and reports how the violations were obtained.
+     * Violations of files found in the violation cache are reused; only cache misses are audited,
+     * and their results are stored in the cache afterwards.
+     *
+     * @param baseDir         the base directory of the project
+     * @param javaFiles       list of Java files to analyze
+     * @param customConfigXml optional custom XML configuration
+     * @return audit report with violations and cache statistics
+     * @throws CheckstyleException if analysis fails
+     */
+    public AuditReportDto audit(Path baseDir, List<Path> javaFiles, String customConfigXml)
+            throws CheckstyleException {
+        return audit(baseDir, javaFiles, customConfigXml, null);
+    }
+
+    /**
+     * Runs Checkstyle analysis and streams every violation to the given sink as soon as its file is audited,
+     * instead of collecting the violations in the report. The sink is called concurrently from
+     * all shards and may block to apply backpressure.
+     *
+     * @param baseDir         the base directory of the project
+     * @param javaFiles       list of Java files to analyze
+     * @param customConfigXml optional custom XML configuration
+     * @param violationSink   thread-safe consumer of violations, or null to collect them in the report
+     * @return audit report with the violation count and cache statistics
+     * @throws CheckstyleException if analysis fails
+     */
+    public AuditReportDto audit(Path baseDir, List<Path> javaFiles, String customConfigXml,
+                                Consumer<ViolationDto> violationSink) throws CheckstyleException {
+        return audit(baseDir, javaFiles, customConfigXml, violationSink, AuditOptions.defaults());
+    }
+
+    /**
+     * Runs Checkstyle analysis with additional options, streaming violations to the sink when one is given.
+     * When the options name the repository, violation-free files recorded in its cache file are skipped
+     * while their content is unchanged, and the cache file is rewritten after a successful audit.
+     * A profiled audit bypasses both caches, so that every file is measured, and returns the profile
+     * in the report. When a limit of the options' budget is hit, shards stop before their next file
+     * and the report is marked partial. Files over the size limit or the time limit are skipped and
+     * listed in the report.
+     *
+     * @param baseDir         the base directory of the project
+     * @param javaFiles       list of Java files to analyze
+     * @param customConfigXml optional custom XML configuration
+     * @param violationSink   thread-safe consumer of violations, or null to collect them in the report
+     * @param options         options of this audit
+     * @return audit report with the violation count and cache statistics
      * @throws CheckstyleException if analysis fails
      */
-    public List<AuditEvent> runCheckstyle(Path baseDir, List<Path> javaFiles, String customConfigXml)
+    public AuditReportDto audit(Path baseDir, List<Path> javaFiles, String customConfigXml,
+                                Consumer<ViolationDto> violationSink, AuditOptions options)
+            throws CheckstyleException {
+        return audit(baseDir, FileBatchSource.of(javaFiles), customConfigXml, violationSink, options);
+    }
+
+    /**
+     * Runs Checkstyle analysis on files that arrive in batches, for example from a discovery that is
+     * still walking the tree. Every batch is checked against the caches and audited in parallel shards
+     * as soon as it arrives, so auditing overlaps with discovery and, through the sink, with persistence.
+     * The caches and limits behave as for a single list of files.
+     *
+     * @param baseDir         the base directory of the project
+     * @param source          source of the files to analyze
+     * @param customConfigXml optional custom XML configuration
+     * @param violationSink   thread-safe consumer of violations, or null to collect them in the report
+     * @param options         options of this audit
+     * @return audit report with the violation count and cache statistics
+     * @throws CheckstyleException if analysis or file discovery fails
+     */
+    public AuditReportDto audit(Path baseDir, FileBatchSource source, String customConfigXml,
+                                Consumer<ViolationDto> violationSink, AuditOptions options)
             throws CheckstyleException {
+        return audit(baseDir, source, Collections.singletonMap(null, customConfigXml), tag -> violationSink, options)
+                .get(null);
+    }
 
-        final List<AuditEvent> violations = new ArrayList<>();
+    /**
+     * Runs several configurations in one pass over files that arrive in batches. Every batch is size-checked
+     * and hashed once and then audited by each configuration in turn while it is still in the page cache;
+     * caches, cache files and profiles are kept per configuration, and the limits of the options are shared.
+     *
+     * @param baseDir         the base directory of the project
+     * @param source          source of the files to analyze
+     * @param configurations  Checkstyle XML per configuration tag; a null XML means the active configuration
+     * @param violationSinks  thread-safe consumer of the violations of each tag, or null to collect them
+     *                        in the reports
+     * @param options         options of this audit
+     * @return audit report per configuration tag, in the order of the configurations
+     * @throws CheckstyleException if analysis or file discovery fails
+     */
+    public Map<String, AuditReportDto> audit(Path baseDir, FileBatchSource source, Map<String, String> configurations,
+                                             Function<String, Consumer<ViolationDto>> violationSinks,
+                                             AuditOptions options) throws CheckstyleException {
 
         try {
-            AuditListener listener = new AuditListener() {
-                @Override
-                public void auditStarted(AuditEvent event) {
-                }
+            AuditBudget budget = options.getBudget();
+            boolean profile = options.isProfile() && profilingSettings.isEnabled();
+            boolean cacheable = options.isCacheable() && options.getChangedLines() == null;
+            boolean violationCache = violationCacheService.isEnabled() && cacheable;
+            String repositoryUrl = cacheFileService.isEnabled() && cacheable ? options.getRepositoryUrl() : null;
+            boolean identify = violationCache || repositoryUrl != null;
 
-                @Override
-                public void auditFinished(AuditEvent event) {
-                }
+            List<ConfigurationAudit> audits = new ArrayList<>(configurations.size());
+            for (Map.Entry<String, String> configuration : configurations.entrySet()) {
+                String configXml = resolveConfigurationXml(configuration.getValue());
+                String configHash = CheckstyleConfigurationCache.hash(configXml);
+                Configuration config = configurationCache.getConfiguration(configHash, configXml);
+                Consumer<ViolationDto> violationSink = violationSinks != null
+                        ? violationSinks.apply(configuration.getKey())
+                        : null;
+                AuditRun run = new AuditRun(configHash, config, baseDir, violationSink, identify,
+                        violationCache, profile, budget, settings.getFileTimeout(), options.getChangedLines());
+                Map<String, String> unchangedCleanFiles = repositoryUrl != null && !profile
+                        ? cacheFileService.load(repositoryUrl, configHash)
+                        : Map.of();
+                Map<String, Long> timings = repositoryUrl != null
+                        ? cacheFileService.loadTimings(repositoryUrl, configHash)
+                        : Map.of();
+                audits.add(new ConfigurationAudit(configuration.getKey(), run, unchangedCleanFiles, timings));
+            }
 
-                @Override
-                public void fileStarted(AuditEvent event) {
+            int totalFiles = 0;
+            List<Path> batch;
+            while (!budget.isStopped() && !budget.isExhausted() && !(batch = source.nextBatch()).isEmpty()) {
+                batch = budget.limitFiles(batch);
+                totalFiles += batch.size();
+                List<SkippedFileDto> oversized = new ArrayList<>();
+                List<Path> candidates = skipOversizedFiles(batch, oversized);
+                Map<String, FileIdentity> identities = identify ? identifyFiles(baseDir, candidates) : Map.of();
+                for (ConfigurationAudit audit : audits) {
+                    audit.total.skippedFiles.addAll(oversized);
+                    audit.cachedFiles += auditBatch(audit.run, candidates, identities, audit.unchangedCleanFiles,
+                            audit.timings, audit.total);
                 }
+            }
 
-                @Override
-                public void fileFinished(AuditEvent event) {
+            Map<String, AuditReportDto> reports = new LinkedHashMap<>();
+            for (ConfigurationAudit audit : audits) {
+                ShardResult total = audit.total;
+                // A partial audit knows only some of the clean files, so it keeps the previous cache file.
+                if (repositoryUrl != null && !budget.isStopped()) {
+                    storeCacheFile(repositoryUrl, audit.run, total.cleanFiles);
                 }
-
-                @Override
-                public void addError(AuditEvent event) {
-                    if (event.getSeverityLevel() == SeverityLevel.ERROR ||
-                            event.getSeverityLevel() == SeverityLevel.WARNING) {
-                        violations.add(event);
-                    }
+                // Profiled times include every module's own read and parse, so they would skew the estimates.
+                if (repositoryUrl != null && !profile && !total.fileNanos.isEmpty()) {
+                    storeTimings(repositoryUrl, audit.run, audit.timings, total.fileNanos);
                 }
 
-                @Override
-                public void addException(AuditEvent event, Throwable throwable) {
-                    System.err.println("Checkstyle exception on file " + event.getFileName() + ": " + throwable.getMessage());
+                AuditReportDto report = new AuditReportDto(total.violations, total.violationCount,
+                        totalFiles, audit.cachedFiles);
+                report.setSkippedFiles(total.skippedFiles);
+                report.setProfile(total.profile);
+                report.setPartial(budget.isStopped());
+                reports.put(audit.tag, report);
+            }
+            return reports;
+
+        } catch (CheckstyleException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CheckstyleException("Failed to run Checkstyle analysis: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Audits one batch of files with one configuration: takes what the caches know and audits the rest.
+     *
+     * @param candidates files of the batch within the size limit
+     * @param identities identities of the candidates by absolute file name, empty if files are not identified
+     * @return number of files of the batch taken from the caches
+     */
+    private int auditBatch(AuditRun run, List<Path> candidates, Map<String, FileIdentity> identities,
+                           Map<String, String> unchangedCleanFiles, Map<String, Long> timings, ShardResult total)
+            throws CheckstyleException, InterruptedException {
+        ShardResult fromCache = new ShardResult();
+        run.identities.putAll(identities);
+        Map<String, List<ViolationDto>> cached = run.profile
+                ? Map.of()
+                : lookupCachedViolations(run.configHash, run, identities);
+
+        List<Path> filesToAudit = new ArrayList<>();
+        for (Path file : candidates) {
+            if (run.budget.isExhausted()) {
+                break;
+            }
+            String fileName = absoluteFileName(file);
+            FileIdentity identity = identities.get(fileName);
+            if (identity != null && identity.blobId.equals(unchangedCleanFiles.get(identity.relativePath))) {
+                fromCache.cleanFiles.add(fileName);
+                continue;
+            }
+            String fileKey = run.fileKey(fileName);
+            List<ViolationDto> cachedViolations = fileKey != null ? cached.get(fileKey) : null;
+            if (cachedViolations == null) {
+                filesToAudit.add(file);
+                continue;
+            }
+            if (cachedViolations.isEmpty()) {
+                fromCache.cleanFiles.add(fileName);
+            }
+            cachedViolations.forEach(violation -> fromCache.deliver(violation.withFilePath(fileName), run));
+        }
+
+        total.merge(auditFiles(run, filesToAudit, timings));
+        total.merge(fromCache);
+        return candidates.size() - filesToAudit.size();
+    }
+
+    /**
+     * Computes how many shards the given number of files should be split into.
+     * The count grows with the file count but never exceeds the configured or available processors.
+     *
+     * @param fileCount number of files to audit
+     * @return number of shards, at least 1
+     */
+    int computeShardCount(int fileCount) {
+        if (!settings.isParallel() || fileCount <= 0) {
+            return 1;
+        }
+        int maxShards = settings.getMaxShards() > 0
+                ? settings.getMaxShards()
+                : Runtime.getRuntime().availableProcessors();
+        int byFiles = fileCount / Math.max(1, settings.getMinFilesPerShard());
+        return Math.max(1, Math.min(maxShards, byFiles));
+    }
+
+    /**
+     * Audits the files, splitting them into shards audited in parallel when the file set is large enough.
+     * Every shard collects its own results, which are merged once all shards finish.
+     * With the watchdog enabled even a single shard runs on the pool, so that the caller never waits
+     * on a stalled file.
+     */
+    private ShardResult auditFiles(AuditRun run, List<Path> files, Map<String, Long> timings)
+            throws CheckstyleException, InterruptedException {
+        if (files.isEmpty()) {
+            return new ShardResult();
+        }
+        List<List<File>> shards = splitIntoShards(run, files, timings);
+        if (shards.size() == 1 && run.fileTimeoutNanos <= 0) {
+            return auditShard(run, shards.get(0), null);
+        }
+
+        ShardTasks tasks = new ShardTasks(run);
+        shards.forEach(tasks::submit);
+        ScheduledFuture<?> watchdog = null;
+        if (run.fileTimeoutNanos > 0) {
+            long period = Math.max(WATCHDOG_MIN_PERIOD_NANOS,
+                    Math.min(WATCHDOG_MAX_PERIOD_NANOS, run.fileTimeoutNanos / 4));
+            watchdog = watchdogExecutor.scheduleWithFixedDelay(tasks::abandonStalledFiles,
+                    period, period, TimeUnit.NANOSECONDS);
+        }
+        try {
+            return tasks.collect();
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Separates files larger than the size limit, which are listed as skipped instead of audited.
+     */
+    private List<Path> skipOversizedFiles(List<Path> javaFiles, List<SkippedFileDto> skippedFiles) {
+        long maxFileSize = settings.getMaxFileSize() != null ? settings.getMaxFileSize().toBytes() : 0;
+        if (maxFileSize <= 0) {
+            return javaFiles;
+        }
+        List<Path> accepted = new ArrayList<>(javaFiles.size());
+        for (Path file : javaFiles) {
+            long size;
+            try {
+                size = Files.size(file);
+            } catch (IOException e) {
+                // Unreadable files are audited as usual and reported by Checkstyle.
+                size = 0;
+            }
+            if (size > maxFileSize) {
+                skippedFiles.add(new SkippedFileDto(absoluteFileName(file), SkippedFileDto.REASON_TOO_LARGE,
+                        "Розмір " + size + " байт перевищує ліміт " + maxFileSize + " байт"));
+            } else {
+                accepted.add(file);
+            }
+        }
+        return accepted;
+    }
+
+    private List<List<File>> splitIntoShards(AuditRun run, List<Path> javaFiles, Map<String, Long> timings) {
+        int shardCount = computeShardCount(javaFiles.size());
+        if (shardCount == 1) {
+            List<File> shard = new ArrayList<>(javaFiles.size());
+            javaFiles.forEach(file -> shard.add(file.toFile()));
+            return List.of(shard);
+        }
+        return planShards(javaFiles, estimateCosts(run, javaFiles, timings), shardCount);
+    }
+
+    /**
+     * Splits files into shards with the longest-processing-time-first rule: files are taken in order of
+     * decreasing cost and each is assigned to the shard with the least work so far. A large file therefore
+     * starts early instead of being left for the end of a shard, which shortens the slowest shard.
+     *
+     * @param javaFiles  files to split
+     * @param costs      estimated cost of every file, in the same order
+     * @param shardCount number of shards
+     * @return shards, each ordered from the most to the least expensive file
+     */
+    static List<List<File>> planShards(List<Path> javaFiles, long[] costs, int shardCount) {
+        Integer[] order = new Integer[javaFiles.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> costs[i]).reversed());
+
+        List<List<File>> shards = new ArrayList<>(shardCount);
+        long[] loads = new long[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (int fileIndex : order) {
+            int lightest = 0;
+            for (int shard = 1; shard < shardCount; shard++) {
+                if (loads[shard] < loads[lightest]) {
+                    lightest = shard;
                 }
-            };
+            }
+            shards.get(lightest).add(javaFiles.get(fileIndex).toFile());
+            // Every file adds at least one unit, so empty files are spread as well.
+            loads[lightest] += Math.max(1, costs[fileIndex]);
+        }
+        return shards;
+    }
 
-            org.xml.sax.InputSource configSource = loadConfiguration(customConfigXml);
+    /**
+     * Estimates the audit cost of every file in nanoseconds. Files with a measured time from the previous
+     * analysis use it; the others are estimated from their size at the rate observed for the measured files.
+     * Without any measurements the size itself is the cost, which orders the files the same way.
+     */
+    private static long[] estimateCosts(AuditRun run, List<Path> javaFiles, Map<String, Long> timings) {
+        long[] sizes = new long[javaFiles.size()];
+        Long[] measured = new Long[javaFiles.size()];
+        long measuredNanos = 0;
+        long measuredBytes = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            Path file = javaFiles.get(i);
+            try {
+                sizes[i] = Files.size(file);
+            } catch (IOException e) {
+                sizes[i] = 0;
+            }
+            FileIdentity identity = timings.isEmpty() ? null : run.identities.get(absoluteFileName(file));
+            measured[i] = identity != null ? timings.get(identity.relativePath) : null;
+            if (measured[i] != null) {
+                measuredNanos += measured[i];
+                measuredBytes += sizes[i];
+            }
+        }
+
+        double nanosPerByte = measuredNanos > 0 && measuredBytes > 0 ? (double) measuredNanos / measuredBytes : 1.0;
+        long[] costs = new long[sizes.length];
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = measured[i] != null ? measured[i] : (long) (sizes[i] * nanosPerByte);
+        }
+        return costs;
+    }
 
-            com.puppycrawl.tools.checkstyle.api.Configuration config =
-                    ConfigurationLoader.loadConfiguration(
-                            configSource,
-                            new PropertiesExpander(System.getProperties()),
-                            ConfigurationLoader.IgnoredModulesOptions.OMIT
-                    );
+    /**
+     * Audits one shard of files with a Checker borrowed exclusively from the pool.
+     * The returned result is owned by the shard, so no synchronization is needed while collecting.
+     * When the budget is exhausted, or the watchdog abandoned the shard, the listener aborts the Checker
+     * before the next file; the Checker is then discarded and the files finished so far are returned.
+     *
+     * @param task the task running the shard, or null when no watchdog observes it
+     */
+    private ShardResult auditShard(AuditRun run, List<File> files, ShardTask task) throws CheckstyleException {
+        if (run.profile) {
+            return auditShardProfiled(run, files, task);
+        }
+        ShardListener listener = new ShardListener(run, false);
+        if (task != null) {
+            task.listener = listener;
+        }
 
-            Checker checker = new Checker();
-            checker.setModuleClassLoader(Checker.class.getClassLoader());
-            checker.configure(config);
+        Checker checker = checkerPool.borrow(run.configHash, run.config);
+        boolean reusable = false;
+        try {
             checker.addListener(listener);
-            checker.setBasedir(baseDir.toAbsolutePath().toString());
+            checker.setBasedir(run.baseDir.toAbsolutePath().toString());
 
-            List<java.io.File> filesToProcess = javaFiles.stream()
-                    .map(Path::toFile)
-                    .collect(Collectors.toList());
+            checker.process(files);
+            reusable = true;
+        } catch (CheckstyleException e) {
+            if (!isAborted(e)) {
+                throw e;
+            }
+        } finally {
+            checker.removeListener(listener);
+            checkerPool.release(run.configHash, checker, reusable);
+        }
+        listener.finish();
+        return listener.result;
+    }
 
-            checker.process(filesToProcess);
-            checker.destroy();
+    /**
+     * Audits one shard file by file with single-module Checkers, measuring the time of every module.
+     * The Checkers report each file once per module, so the listener is told where files begin and end.
+     */
+    private ShardResult auditShardProfiled(AuditRun run, List<File> files, ShardTask task)
+            throws CheckstyleException {
+        ShardListener listener = new ShardListener(run, true);
+        listener.result.profile = new AuditProfileDto();
+        if (task != null) {
+            task.listener = listener;
+        }
 
-            return violations;
+        ProfilingCheckerSet checkers = ProfilingCheckerSet.create(run.config, run.absoluteBaseDir, listener);
+        try {
+            for (File file : files) {
+                String fileName = absoluteFileName(file.toPath());
+                if (run.budget.isExhausted() || !listener.beginFile(fileName)) {
+                    break;
+                }
+                AuditProfileDto fileProfile = new AuditProfileDto();
+                checkers.process(file, fileName, fileProfile);
+                listener.endFile(fileProfile);
+            }
+        } finally {
+            checkers.destroy();
+        }
+        listener.finish();
+        return listener.result;
+    }
 
-        } catch (Exception e) {
-            throw new CheckstyleException("Failed to run Checkstyle analysis: " + e.getMessage(), e);
+    private static boolean isAborted(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AuditAbortedException) {
+                return true;
+            }
         }
+        return false;
     }
 
     /**
-     * Loads Checkstyle XML configuration from custom input or active database configuration.
+     * Converts an audit event to a violation. Checker reports file names relative to its base directory,
+     * so they are resolved back to absolute names.
+     */
+    private static ViolationDto toViolation(AuditEvent event, String fileName) {
+        String source = event.getModuleId() != null ? event.getModuleId() : event.getSourceName();
+        return new ViolationDto(
+                fileName,
+                event.getLine(),
+                event.getColumn(),
+                event.getSeverityLevel().getName(),
+                event.getMessage(),
+                source
+        );
+    }
+
+    /**
+     * Computes relative paths and blob ids of the files by absolute file name.
+     * Files that cannot be read get no identity and are always audited.
+     */
+    private Map<String, FileIdentity> identifyFiles(Path baseDir, List<Path> javaFiles) {
+        Map<String, FileIdentity> identities = new HashMap<>();
+        Path base = baseDir.toAbsolutePath().normalize();
+        for (Path file : javaFiles) {
+            try {
+                String blobId = ViolationCacheService.blobId(Files.readAllBytes(file));
+                identities.put(absoluteFileName(file), new FileIdentity(relativePath(base, file), blobId));
+            } catch (IOException e) {
+                // Unreadable files are audited as usual and reported by Checkstyle.
+            }
+        }
+        return identities;
+    }
+
+    private Map<String, List<ViolationDto>> lookupCachedViolations(String configHash, AuditRun run,
+                                                                   Map<String, FileIdentity> identities) {
+        if (!run.violationCacheEnabled || identities.isEmpty()) {
+            return Map.of();
+        }
+        Set<String> fileKeys = new HashSet<>();
+        identities.values().forEach(identity -> fileKeys.add(identity.fileKey));
+        try {
+            return violationCacheService.lookup(configHash, fileKeys);
+        } catch (RuntimeException e) {
+            System.err.println("Violation cache lookup failed: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private void storeCachedViolations(String configHash, Map<String, List<ViolationDto>> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            violationCacheService.store(configHash, entries);
+        } catch (RuntimeException e) {
+            System.err.println("Violation cache store failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrites the repository's timings file with the times measured in this audit, keeping the previous
+     * times of files that were not audited again. Files no longer in the repository are dropped.
+     */
+    private void storeTimings(String repositoryUrl, AuditRun run, Map<String, Long> previous,
+                              Map<String, Long> measured) {
+        Map<String, Long> timings = new HashMap<>();
+        run.identities.forEach((fileName, identity) -> {
+            Long nanos = measured.getOrDefault(fileName, previous.get(identity.relativePath));
+            if (nanos != null) {
+                timings.put(identity.relativePath, nanos);
+            }
+        });
+        cacheFileService.storeTimings(repositoryUrl, run.configHash, timings);
+    }
+
+    /**
+     * Rewrites the repository's cache file with the files known to be violation-free in this audit.
+     */
+    private void storeCacheFile(String repositoryUrl, AuditRun run, Set<String> cleanFiles) {
+        Map<String, String> entries = new HashMap<>();
+        for (String fileName : cleanFiles) {
+            FileIdentity identity = run.identities.get(fileName);
+            if (identity != null) {
+                entries.put(identity.relativePath, identity.blobId);
+            }
+        }
+        cacheFileService.store(repositoryUrl, run.configHash, entries);
+    }
+
+    private static String absoluteFileName(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    private static String relativePath(Path base, Path file) {
+        Path absolute = file.toAbsolutePath().normalize();
+        if (absolute.startsWith(base)) {
+            return base.relativize(absolute).toString().replace('\\', '/');
+        }
+        return absolute.getFileName().toString();
+    }
+
+    /**
+     * Resolves the Checkstyle XML configuration from custom input or active database configuration.
      *
      * @param customConfigXml optional custom configuration XML
-     * @return InputSource containing the configuration
-     * @throws IOException if configuration loading fails
+     * @return the configuration XML to use
      */
-    private InputSource loadConfiguration(String customConfigXml) throws IOException {
+    private String resolveConfigurationXml(String customConfigXml) {
         if (customConfigXml != null && !customConfigXml.isBlank()) {
-            return new InputSource(new ByteArrayInputStream(customConfigXml.getBytes()));
-        } else {
-            String activeConfigXml = configurationService.getActiveConfigurationXml();
-            return new InputSource(new ByteArrayInputStream(activeConfigXml.getBytes()));
+            return customConfigXml;
+        }
+        return configurationService.getActiveConfigurationXml();
+    }
+
+    /**
+     * One configuration of a (possibly multi-configuration) audit with its caches and accumulated result.
+     */
+    private static final class ConfigurationAudit {
+        private final String tag;
+        private final AuditRun run;
+        private final Map<String, String> unchangedCleanFiles;
+        private final Map<String, Long> timings;
+        private final ShardResult total = new ShardResult();
+        private int cachedFiles;
+
+        private ConfigurationAudit(String tag, AuditRun run, Map<String, String> unchangedCleanFiles,
+                                   Map<String, Long> timings) {
+            this.tag = tag;
+            this.run = run;
+            this.unchangedCleanFiles = unchangedCleanFiles;
+            this.timings = timings;
+        }
+    }
+
+    /**
+     * State shared by all shards of one audit. Only the identities grow, as batches of files arrive.
+     */
+    private static final class AuditRun {
+        private final String configHash;
+        private final Configuration config;
+        private final Path baseDir;
+        private final Consumer<ViolationDto> violationSink;
+        private final boolean identify;
+        private final Map<String, FileIdentity> identities = new ConcurrentHashMap<>();
+        private final boolean violationCacheEnabled;
+        private final boolean profile;
+        private final AuditBudget budget;
+        private final Path absoluteBaseDir;
+        private final long fileTimeoutNanos;
+        private final ChangedLines changedLines;
+
+        private AuditRun(String configHash, Configuration config, Path baseDir,
+                         Consumer<ViolationDto> violationSink, boolean identify,
+                         boolean violationCacheEnabled, boolean profile, AuditBudget budget,
+                         Duration fileTimeout, ChangedLines changedLines) {
+            this.configHash = configHash;
+            this.config = config;
+            this.baseDir = baseDir;
+            this.violationSink = violationSink;
+            this.identify = identify;
+            this.violationCacheEnabled = violationCacheEnabled;
+            this.profile = profile;
+            this.budget = budget;
+            this.absoluteBaseDir = baseDir.toAbsolutePath().normalize();
+            this.fileTimeoutNanos = fileTimeout != null ? Math.max(0, fileTimeout.toNanos()) : 0;
+            this.changedLines = changedLines;
+        }
+
+        /**
+         * Returns the violation cache key of a file, or null if the file is not cacheable.
+         */
+        private String fileKey(String fileName) {
+            FileIdentity identity = violationCacheEnabled ? identities.get(fileName) : null;
+            return identity != null ? identity.fileKey : null;
+        }
+
+        private String resolveFileName(String eventFileName) {
+            return absoluteBaseDir.resolve(eventFileName).normalize().toString();
+        }
+    }
+
+    /**
+     * Repository-relative path and content id of one audited file.
+     */
+    private static final class FileIdentity {
+        private final String relativePath;
+        private final String blobId;
+        private final String fileKey;
+
+        private FileIdentity(String relativePath, String blobId) {
+            this.relativePath = relativePath;
+            this.blobId = blobId;
+            this.fileKey = ViolationCacheService.fileKey(relativePath, blobId);
+        }
+    }
+
+    /**
+     * Violations, violation-free files, failed and skipped files collected by one shard, with the audit time
+     * of every finished file.
+     * When the audit streams violations, only their count is kept. The profile is set only when profiling.
+     */
+    private static final class ShardResult {
+        private final List<ViolationDto> violations = new ArrayList<>();
+        private final Set<String> failedFiles = new HashSet<>();
+        private final Set<String> cleanFiles = new HashSet<>();
+        private final List<SkippedFileDto> skippedFiles = new ArrayList<>();
+        private final Map<String, Long> fileNanos = new HashMap<>();
+        private long violationCount;
+        private AuditProfileDto profile;
+
+        private void deliver(ViolationDto violation, AuditRun run) {
+            if (!run.budget.tryRecordViolation()) {
+                return;
+            }
+            violationCount++;
+            if (run.violationSink != null) {
+                run.violationSink.accept(violation);
+            } else {
+                violations.add(violation);
+            }
+        }
+
+        private void merge(ShardResult other) {
+            violations.addAll(other.violations);
+            failedFiles.addAll(other.failedFiles);
+            cleanFiles.addAll(other.cleanFiles);
+            skippedFiles.addAll(other.skippedFiles);
+            fileNanos.putAll(other.fileNanos);
+            violationCount += other.violationCount;
+            if (other.profile != null) {
+                if (profile == null) {
+                    profile = new AuditProfileDto();
+                }
+                profile.merge(other.profile);
+            }
+        }
+    }
+
+    /**
+     * Listener of one shard. Buffers the violations of the file being audited and releases them
+     * when the file is finished, so that completed files can be stored in the violation cache
+     * in small batches while the audit is still running.
+     * When file events are driven externally, the Checker's own file events are ignored, because
+     * profiling reports every file once per module.
+     * Once the watchdog abandons the shard, its result is handed over as it is and all later events of the
+     * stalled Checker are ignored; methods that touch the result are therefore synchronized.
+     */
+    private final class ShardListener implements AuditListener {
+
+        private static final int CACHE_BATCH_SIZE = 500;
+
+        private final AuditRun run;
+        private final boolean externalFileEvents;
+        private final ShardResult result = new ShardResult();
+        private final Map<String, List<ViolationDto>> pendingCacheEntries = new HashMap<>();
+        private String currentFile;
+        private List<ViolationDto> currentViolations;
+        private long currentFileStartNanos;
+        private boolean abandoned;
+
+        private ShardListener(AuditRun run, boolean externalFileEvents) {
+            this.run = run;
+            this.externalFileEvents = externalFileEvents;
+        }
+
+        @Override
+        public void auditStarted(AuditEvent event) {
+        }
+
+        @Override
+        public void auditFinished(AuditEvent event) {
+        }
+
+        @Override
+        public void fileStarted(AuditEvent event) {
+            if (externalFileEvents) {
+                return;
+            }
+            if (run.budget.isExhausted() || !beginFile(run.resolveFileName(event.getFileName()))) {
+                throw new AuditAbortedException();
+            }
+        }
+
+        @Override
+        public void fileFinished(AuditEvent event) {
+            if (!externalFileEvents) {
+                endFile(null);
+            }
+        }
+
+        /**
+         * Starts buffering a file.
+         *
+         * @return false if the shard was abandoned and must stop
+         */
+        private synchronized boolean beginFile(String fileName) {
+            if (abandoned) {
+                return false;
+            }
+            finishCurrentFile(false);
+            currentFile = fileName;
+            currentViolations = new ArrayList<>();
+            currentFileStartNanos = System.nanoTime();
+            return true;
+        }
+
+        private synchronized void endFile(AuditProfileDto fileProfile) {
+            if (abandoned) {
+                return;
+            }
+            finishCurrentFile(true);
+            if (fileProfile != null) {
+                result.profile.merge(fileProfile);
+            }
+        }
+
+        /**
+         * Abandons the shard if its current file has been audited longer than the timeout.
+         * The stalled file is recorded as skipped and dropped together with its buffered violations.
+         *
+         * @return name of the abandoned file, or null if the shard is not stalled
+         */
+        private synchronized String abandonIfStalled(long now, long timeoutNanos) {
+            if (abandoned || currentFile == null || now - currentFileStartNanos < timeoutNanos) {
+                return null;
+            }
+            abandoned = true;
+            String stalledFile = currentFile;
+            result.fileNanos.put(stalledFile, now - currentFileStartNanos);
+            result.skippedFiles.add(new SkippedFileDto(stalledFile, SkippedFileDto.REASON_TIMEOUT,
+                    "Аудит файлу перевищив ліміт " + Duration.ofNanos(timeoutNanos).toMillis() + " мс"));
+            currentFile = null;
+            currentViolations = null;
+            flushCacheEntries();
+            return stalledFile;
+        }
+
+        @Override
+        public synchronized void addError(AuditEvent event) {
+            if (abandoned || event.getSeverityLevel() != SeverityLevel.ERROR &&
+                    event.getSeverityLevel() != SeverityLevel.WARNING) {
+                return;
+            }
+            // Event file names are relative to the Checker's base directory, as are the changed paths.
+            if (run.changedLines != null && !run.changedLines.contains(event.getFileName(), event.getLine())) {
+                return;
+            }
+            String fileName = run.resolveFileName(event.getFileName());
+            ViolationDto violation = toViolation(event, fileName);
+            if (fileName.equals(currentFile)) {
+                currentViolations.add(violation);
+            } else {
+                result.failedFiles.add(fileName);
+                result.deliver(violation, run);
+            }
+        }
+
+        @Override
+        public synchronized void addException(AuditEvent event, Throwable throwable) {
+            if (abandoned) {
+                return;
+            }
+            result.failedFiles.add(run.resolveFileName(event.getFileName()));
+            System.err.println("Checkstyle exception on file " + event.getFileName() + ": " + throwable.getMessage());
+        }
+
+        /**
+         * Releases the buffered file; a file that never finished is reported but not cached.
+         */
+        private void finishCurrentFile(boolean completed) {
+            if (currentFile == null) {
+                return;
+            }
+            currentViolations.forEach(violation -> result.deliver(violation, run));
+            String fileKey = run.fileKey(currentFile);
+            if (!completed) {
+                result.failedFiles.add(currentFile);
+            } else if (!result.failedFiles.contains(currentFile)) {
+                result.fileNanos.put(currentFile, System.nanoTime() - currentFileStartNanos);
+                if (currentViolations.isEmpty()) {
+                    result.cleanFiles.add(currentFile);
+                }
+                if (fileKey != null) {
+                    pendingCacheEntries.put(fileKey, currentViolations);
+                    if (pendingCacheEntries.size() >= CACHE_BATCH_SIZE) {
+                        flushCacheEntries();
+                    }
+                }
+            }
+            currentFile = null;
+            currentViolations = null;
+        }
+
+        private void flushCacheEntries() {
+            storeCachedViolations(run.configHash, new HashMap<>(pendingCacheEntries));
+            pendingCacheEntries.clear();
+        }
+
+        private synchronized void finish() {
+            if (abandoned) {
+                return;
+            }
+            finishCurrentFile(false);
+            flushCacheEntries();
+        }
+    }
+
+    /**
+     * One shard submitted to the pool. Its result is delivered through {@code completion}, which the
+     * watchdog may complete early with the partial result of an abandoned shard.
+     */
+    private static final class ShardTask {
+        private final List<File> files;
+        private final CompletableFuture<ShardResult> completion = new CompletableFuture<>();
+        private volatile ShardListener listener;
+        private volatile Future<?> future;
+
+        private ShardTask(List<File> files) {
+            this.files = files;
+        }
+
+        /**
+         * Returns the files of the shard that come after the given file.
+         */
+        private List<File> filesAfter(String fileName) {
+            for (int i = 0; i < files.size(); i++) {
+                if (absoluteFileName(files.get(i).toPath()).equals(fileName)) {
+                    return new ArrayList<>(files.subList(i + 1, files.size()));
+                }
+            }
+            return List.of();
+        }
+
+        private void cancel() {
+            Future<?> submitted = future;
+            if (submitted != null) {
+                submitted.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Shard tasks of one audit. Results are collected in submission order. When the watchdog abandons a
+     * stalled file, the rest of its shard is submitted as a new task before the stalled task is completed,
+     * so the collector always finds the continuation. The stalled thread cannot be stopped; it finishes
+     * the file in the background and its Checker is discarded.
+     */
+    private final class ShardTasks {
+        private final AuditRun run;
+        private final Queue<ShardTask> pending = new ConcurrentLinkedQueue<>();
+        private final Queue<ShardTask> all = new ConcurrentLinkedQueue<>();
+        private boolean closed;
+
+        private ShardTasks(AuditRun run) {
+            this.run = run;
+        }
+
+        private synchronized void submit(List<File> files) {
+            if (closed) {
+                return;
+            }
+            ShardTask task = new ShardTask(files);
+            all.add(task);
+            pending.add(task);
+            task.future = checkstyleExecutor.submit(() -> {
+                try {
+                    task.completion.complete(auditShard(run, files, task));
+                } catch (Throwable e) {
+                    task.completion.completeExceptionally(e);
+                }
+            });
+        }
+
+        private ShardResult collect() throws CheckstyleException, InterruptedException {
+            ShardResult merged = new ShardResult();
+            try {
+                ShardTask task;
+                while ((task = pending.poll()) != null) {
+                    merged.merge(task.completion.get());
+                }
+                return merged;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                throw new CheckstyleException("Failed to run Checkstyle analysis: " + cause.getMessage(), cause);
+            } finally {
+                synchronized (this) {
+                    closed = true;
+                }
+                all.forEach(ShardTask::cancel);
+            }
+        }
+
+        /**
+         * Called periodically by the watchdog thread.
+         */
+        private void abandonStalledFiles() {
+            try {
+                long now = System.nanoTime();
+                for (ShardTask task : all) {
+                    ShardListener listener = task.listener;
+                    if (listener == null || task.completion.isDone()) {
+                        continue;
+                    }
+                    String stalledFile = listener.abandonIfStalled(now, run.fileTimeoutNanos);
+                    if (stalledFile == null) {
+                        continue;
+                    }
+                    System.err.println("Abandoned Checkstyle audit of " + stalledFile + " after the file timeout");
+                    List<File> remaining = task.filesAfter(stalledFile);
+                    if (!remaining.isEmpty() && !run.budget.isExhausted()) {
+                        submit(remaining);
+                    }
+                    task.completion.complete(listener.result);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Checkstyle watchdog failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Thrown from the listener to abort a Checker once the audit budget is exhausted
+     * or the watchdog abandoned its shard.
+     */
+    private static final class AuditAbortedException extends RuntimeException {
+        private AuditAbortedException() {
+            super("Audit aborted", null, false, false);
         }
     }
 }
@@ -0,0 +1,149 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.dto.CloneProgressDto;
+import org.eclipse.jgit.lib.ProgressMonitor;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * JGit progress monitor of the clones and fetches of one analysis. Passes the progress of every task to a
+ * listener at most once per interval, and always at the end of a task. The received bytes are the growth
+ * of the pack files of the tracked repository, as JGit reports objects only.
+ * Cancelling the monitor makes JGit abort the running clone or fetch.
+ */
+public final class CloneProgress implements ProgressMonitor {
+
+    private static final double MEGABYTE = 1024 * 1024;
+
+    private final Consumer<CloneProgressDto> listener;
+    private final long intervalNanos;
+    private volatile boolean cancelled;
+    private Path objectDirectory;
+    private long baselineBytes;
+    private String task;
+    private int totalWork;
+    private int completed;
+    private long lastSentNanos;
+
+    /**
+     * @param listener receives the progress messages
+     * @param interval minimal time between two messages of a task
+     */
+    public CloneProgress(Consumer<CloneProgressDto> listener, Duration interval) {
+        this.listener = listener;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * Monitor that reports nothing; it can still be cancelled.
+     */
+    public static CloneProgress none() {
+        return new CloneProgress(progress -> { }, Duration.ZERO);
+    }
+
+    /**
+     * Counts the bytes received from now on into a repository.
+     *
+     * @param gitDirectory the .git directory of a repository, or a bare repository
+     */
+    public synchronized void track(Path gitDirectory) {
+        objectDirectory = gitDirectory.resolve("objects");
+        baselineBytes = packBytes();
+    }
+
+    /**
+     * Makes JGit abort the running and any later clone or fetch with this monitor.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void start(int totalTasks) {
+        // Tasks are reported one by one.
+    }
+
+    @Override
+    public synchronized void beginTask(String title, int totalWork) {
+        this.task = title;
+        this.totalWork = totalWork;
+        this.completed = 0;
+        this.lastSentNanos = System.nanoTime();
+    }
+
+    @Override
+    public synchronized void update(int completed) {
+        this.completed += completed;
+        long now = System.nanoTime();
+        if (task != null && now - lastSentNanos >= intervalNanos) {
+            lastSentNanos = now;
+            send(false);
+        }
+    }
+
+    @Override
+    public synchronized void endTask() {
+        if (task != null) {
+            send(true);
+        }
+        task = null;
+    }
+
+    @Override
+    public void showDuration(boolean enabled) {
+        // Durations are not reported.
+    }
+
+    private void send(boolean done) {
+        Integer percent = totalWork != UNKNOWN && totalWork > 0
+                ? (int) Math.min(100, completed * 100L / totalWork) : null;
+        long bytes = objectDirectory != null ? Math.max(0, packBytes() - baselineBytes) : 0;
+        StringBuilder message = new StringBuilder(task).append(": ");
+        if (percent != null) {
+            message.append(percent).append("% (").append(completed).append('/').append(totalWork).append(')');
+        } else {
+            message.append(completed);
+        }
+        if (bytes > 0) {
+            message.append(String.format(Locale.ROOT, ", %.1f MB", bytes / MEGABYTE));
+        }
+        if (done) {
+            message.append(", done");
+        }
+        listener.accept(new CloneProgressDto(message.toString(), task, completed,
+                totalWork != UNKNOWN ? totalWork : 0, percent, bytes));
+    }
+
+    /**
+     * Size of the pack files and of the incoming pack JGit writes next to them.
+     */
+    private long packBytes() {
+        return fileBytes(objectDirectory) + fileBytes(objectDirectory.resolve("pack"));
+    }
+
+    private static long fileBytes(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        long bytes = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                bytes += Files.isRegularFile(file) ? Files.size(file) : 0;
+            }
+        } catch (IOException e) {
+            // A file was replaced while listing; the next message counts it.
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,119 @@
+package com.checkstylehub.analyzer.service;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compiled include and exclude globs of the file discovery, matched against paths relative to the
+ * repository root. A pattern starting with {@code **}{@code /} also matches at the root, and an exclude
+ * ending in {@code /**} also matches the directory itself, so that the whole subtree can be pruned.
+ */
+public final class DiscoveryFilter {
+
+    private final List<PathMatcher> includes;
+    private final List<PathMatcher> fileExcludes;
+    private final List<PathMatcher> directoryExcludes;
+    private final String key;
+
+    private DiscoveryFilter(List<PathMatcher> includes, List<PathMatcher> fileExcludes,
+                            List<PathMatcher> directoryExcludes, String key) {
+        this.includes = includes;
+        this.fileExcludes = fileExcludes;
+        this.directoryExcludes = directoryExcludes;
+        this.key = key;
+    }
+
+    /**
+     * Compiles the given globs.
+     *
+     * @param includes globs of files to analyze
+     * @param excludes globs of files and directories to leave out
+     * @return the compiled filter
+     * @throws IllegalArgumentException if a glob is invalid
+     */
+    public static DiscoveryFilter compile(Collection<String> includes, Collection<String> excludes) {
+        List<PathMatcher> includeMatchers = new ArrayList<>();
+        List<PathMatcher> fileExcludeMatchers = new ArrayList<>();
+        List<PathMatcher> directoryExcludeMatchers = new ArrayList<>();
+        for (String include : includes) {
+            addMatchers(includeMatchers, include);
+        }
+        for (String exclude : excludes) {
+            addMatchers(fileExcludeMatchers, exclude);
+            if (exclude.endsWith("/**")) {
+                addMatchers(directoryExcludeMatchers, exclude.substring(0, exclude.length() - 3));
+            }
+        }
+        return new DiscoveryFilter(includeMatchers, fileExcludeMatchers, directoryExcludeMatchers,
+                String.join("\n", includes) + "\0" + String.join("\n", excludes));
+    }
+
+    /**
+     * Identifies the globs of the filter: filters compiled from the same globs have the same key.
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Checks whether a directory is excluded together with everything below it.
+     *
+     * @param relativeDirectory directory path relative to the repository root
+     * @return true if the directory should not be walked
+     */
+    public boolean isExcludedDirectory(Path relativeDirectory) {
+        return matchesAny(directoryExcludes, relativeDirectory);
+    }
+
+    /**
+     * Checks whether a file should be analyzed.
+     *
+     * @param relativeFile file path relative to the repository root
+     * @return true if an include matches and no exclude does
+     */
+    public boolean accepts(Path relativeFile) {
+        return matchesAny(includes, relativeFile) && !matchesAny(fileExcludes, relativeFile);
+    }
+
+    /**
+     * Checks whether a file found without walking the tree, e.g. in a commit diff, should be analyzed:
+     * the file must be accepted and none of its directories excluded.
+     *
+     * @param relativeFile file path relative to the repository root
+     * @return true if a walk would have found and accepted the file
+     */
+    public boolean acceptsPath(Path relativeFile) {
+        for (Path directory = relativeFile.getParent(); directory != null; directory = directory.getParent()) {
+            if (isExcludedDirectory(directory)) {
+                return false;
+            }
+        }
+        return accepts(relativeFile);
+    }
+
+    private static void addMatchers(List<PathMatcher> matchers, String glob) {
+        String pattern = glob.trim();
+        if (pattern.isEmpty()) {
+            return;
+        }
+        matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern));
+        if (pattern.startsWith("**/")) {
+            matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern.substring(3)));
+        }
+    }
+
+    private static boolean matchesAny(List<PathMatcher> matchers, Path path) {
+        for (PathMatcher matcher : matchers) {
+            if (matcher.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,130 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.dto.DiscoveryResultDto;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Files of a running discovery, handed out in batches while the walk continues.
+ * The walk blocks while the bounded queue is full, so it never runs far ahead of the audit.
+ * A batch is returned once it is full, once the walk is finished, or once the linger time has passed
+ * since its first file, so small trees still arrive in a single batch.
+ * Closing the stream stops the walk.
+ */
+public class DiscoveryStream implements FileBatchSource, AutoCloseable {
+
+    private static final long POLL_MILLIS = 10;
+
+    private final BlockingQueue<Path> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final AtomicInteger skippedFiles = new AtomicInteger();
+    private final AtomicLong skippedBytes = new AtomicLong();
+    private final AtomicInteger prunedDirectories = new AtomicInteger();
+    private final AtomicInteger discoveredFiles = new AtomicInteger();
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+    private volatile boolean closed;
+    private volatile Future<?> walk;
+
+    DiscoveryStream(int queueCapacity, int batchSize, Duration batchLinger) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerNanos = batchLinger != null ? batchLinger.toNanos() : 0;
+    }
+
+    void start(Future<?> walk) {
+        this.walk = walk;
+    }
+
+    @Override
+    public List<Path> nextBatch() throws IOException, InterruptedException {
+        List<Path> batch = new ArrayList<>();
+        long deadline = 0;
+        while (batch.size() < batchSize) {
+            Path file = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (file != null) {
+                if (batch.isEmpty()) {
+                    deadline = System.nanoTime() + lingerNanos;
+                }
+                batch.add(file);
+                queue.drainTo(batch, batchSize - batch.size());
+            } else if (walk.isDone()) {
+                // Nothing is added after the walk finished, so whatever is left belongs to this batch.
+                queue.drainTo(batch, batchSize - batch.size());
+                if (batch.isEmpty() && failure.get() != null) {
+                    throw failure.get();
+                }
+                break;
+            }
+            if (!batch.isEmpty() && System.nanoTime() - deadline >= 0) {
+                break;
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Returns the statistics of the walk; complete once {@link #nextBatch()} returned an empty batch.
+     */
+    public DiscoveryResultDto getResult() {
+        return new DiscoveryResultDto(new ArrayList<>(), skippedFiles.get(), skippedBytes.get(),
+                prunedDirectories.get());
+    }
+
+    /**
+     * Number of files accepted so far.
+     */
+    public int getDiscoveredFiles() {
+        return discoveredFiles.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        queue.clear();
+        Future<?> running = walk;
+        if (running != null) {
+            running.cancel(true);
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Hands a file to the consumer, waiting while the queue is full.
+     */
+    void accept(Path file) throws InterruptedException {
+        while (!closed) {
+            if (queue.offer(file, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                discoveredFiles.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    void skip(long size) {
+        skippedFiles.incrementAndGet();
+        skippedBytes.addAndGet(size);
+    }
+
+    void prune() {
+        prunedDirectories.incrementAndGet();
+    }
+
+    void fail(IOException e) {
+        failure.compareAndSet(null, e);
+    }
+}
@@ -0,0 +1,42 @@
+package com.checkstylehub.analyzer.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Source of the files of an audit, consumed in batches so that auditing can start before all files
+ * are known. Used by one consumer at a time.
+ */
+public interface FileBatchSource {
+
+    /**
+     * Returns the next files, blocking until some are available.
+     *
+     * @return the next batch; empty when there are no more files
+     * @throws IOException          if the files could not be listed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    List<Path> nextBatch() throws IOException, InterruptedException;
+
+    /**
+     * Wraps a known list of files as a single batch.
+     *
+     * @param files the files
+     * @return source returning all files at once
+     */
+    static FileBatchSource of(List<Path> files) {
+        return new FileBatchSource() {
+            private boolean consumed;
+
+            @Override
+            public List<Path> nextBatch() {
+                if (consumed) {
+                    return List.of();
+                }
+                consumed = true;
+                return files;
+            }
+        };
+    }
+}
@@ -0,0 +1,174 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.DiscoveryResultDto;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Finds the files to analyze in a checked-out repository.
+ * The walk prunes excluded directories such as {@code .git}, build output and vendored code instead of
+ * filtering their files afterwards, so large ignored trees cost a single directory visit.
+ * Directories are listed in parallel, and the accepted files are streamed to the audit through a
+ * {@link DiscoveryStream} while the walk is still running. Symbolic links are not followed.
+ */
+@Service
+public class FileDiscoveryService {
+
+    private final AnalyzerProperties.Discovery settings;
+    private final DiscoveryFilter defaultFilter;
+    private final ForkJoinPool walkPool;
+
+    public FileDiscoveryService(AnalyzerProperties properties) {
+        this.settings = properties.getDiscovery();
+        this.defaultFilter = DiscoveryFilter.compile(settings.getIncludes(), settings.getExcludes());
+        int parallelism = settings.getParallelism() > 0
+                ? settings.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.walkPool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("DiscoveryWorker-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Builds the filter of a request: its includes replace the default includes, its excludes are added
+     * to the default excludes.
+     *
+     * @param includes request includes, or null/empty for the defaults
+     * @param excludes additional request excludes, or null/empty for none
+     * @return the compiled filter
+     * @throws IllegalArgumentException if a glob is invalid
+     */
+    public DiscoveryFilter filterFor(List<String> includes, List<String> excludes) {
+        if ((includes == null || includes.isEmpty()) && (excludes == null || excludes.isEmpty())) {
+            return defaultFilter;
+        }
+        List<String> allExcludes = new ArrayList<>(settings.getExcludes());
+        if (excludes != null) {
+            allExcludes.addAll(excludes);
+        }
+        return DiscoveryFilter.compile(includes != null && !includes.isEmpty() ? includes : settings.getIncludes(),
+                allExcludes);
+    }
+
+    /**
+     * Discovers the files of a repository with the default globs.
+     *
+     * @param root the repository root
+     * @return accepted files and skip statistics
+     * @throws IOException if the directory walk fails
+     */
+    public DiscoveryResultDto discover(Path root) throws IOException {
+        return discover(root, defaultFilter);
+    }
+
+    /**
+     * Discovers all files of a repository before returning them.
+     *
+     * @param root   the repository root
+     * @param filter compiled globs
+     * @return accepted files, in no particular order, and skip statistics
+     * @throws IOException if the directory walk fails
+     */
+    public DiscoveryResultDto discover(Path root, DiscoveryFilter filter) throws IOException {
+        try (DiscoveryStream stream = stream(root, filter)) {
+            List<Path> files = new ArrayList<>();
+            List<Path> batch;
+            while (!(batch = stream.nextBatch()).isEmpty()) {
+                files.addAll(batch);
+            }
+            DiscoveryResultDto result = stream.getResult();
+            result.setFiles(files);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("File discovery interrupted", e);
+        }
+    }
+
+    /**
+     * Starts discovering the files of a repository in the background.
+     *
+     * @param root   the repository root
+     * @param filter compiled globs
+     * @return stream of the accepted files; the caller must close it
+     */
+    public DiscoveryStream stream(Path root, DiscoveryFilter filter) {
+        DiscoveryStream stream = new DiscoveryStream(settings.getQueueCapacity(), settings.getBatchSize(),
+                settings.getBatchLinger());
+        stream.start(walkPool.submit(new DirectoryWalk(root, root, filter, stream)));
+        return stream;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        walkPool.shutdownNow();
+    }
+
+    /**
+     * Lists one directory, hands its accepted files to the stream and walks its subdirectories in parallel.
+     */
+    private static final class DirectoryWalk extends RecursiveAction {
+
+        private final Path root;
+        private final Path directory;
+        private final DiscoveryFilter filter;
+        private final DiscoveryStream stream;
+
+        private DirectoryWalk(Path root, Path directory, DiscoveryFilter filter, DiscoveryStream stream) {
+            this.root = root;
+            this.directory = directory;
+            this.filter = filter;
+            this.stream = stream;
+        }
+
+        @Override
+        protected void compute() {
+            List<DirectoryWalk> subdirectories = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    if (stream.isClosed()) {
+                        return;
+                    }
+                    BasicFileAttributes attrs = Files.readAttributes(entry, BasicFileAttributes.class,
+                            LinkOption.NOFOLLOW_LINKS);
+                    Path relative = root.relativize(entry);
+                    if (attrs.isDirectory()) {
+                        if (filter.isExcludedDirectory(relative)) {
+                            stream.prune();
+                        } else {
+                            subdirectories.add(new DirectoryWalk(root, entry, filter, stream));
+                        }
+                    } else if (attrs.isRegularFile()) {
+                        if (filter.accepts(relative)) {
+                            stream.accept(entry);
+                        } else {
+                            stream.skip(attrs.size());
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                stream.fail(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            invokeAll(subdirectories);
+        }
+    }
+}
@@ -1,24 +1,86 @@
 package com.checkstylehub.analyzer.service;
 
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.CommitDiffDto;
+import com.checkstylehub.analyzer.dto.DiscoveryResultDto;
+import com.checkstylehub.analyzer.dto.SkippedFileDto;
 import com.checkstylehub.analyzer.exception.RepositoryAccessException;
+import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.api.errors.TransportException;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.errors.PackProtocolException;
+import org.eclipse.jgit.errors.RevisionSyntaxException;
+import org.eclipse.jgit.internal.JGitText;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.FilterSpec;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.util.io.DisabledOutputStream;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
 
 /**
  * Service for Git repository operations.
  * Handles cloning repositories and cleaning up temporary directories.
+ * Working trees are created in the workspace root and deleted off the analysis thread by its janitor.
+ * When repository mirrors are enabled, working trees are checked out from local mirrors instead of cloned.
+ * An analysis gets just its source files, read from the object database of the mirror or of a sparse clone.
+ * Concurrent analyses of the same repository revision with the same filter share one read-only checkout:
+ * the first one creates it, the others wait for it, and it is deleted when the last one releases it.
  */
 @Service
 public class GitService {
 
     /**
-     * Clones a Git repository to a temporary directory using shallow clone (depth=1).
+     * Git LFS pointer files start with the spec version and are at most 1024 bytes long.
+     */
+    private static final byte[] LFS_POINTER_PREFIX =
+            "version https://git-lfs.github.com/spec/v1".getBytes(StandardCharsets.US_ASCII);
+    private static final int LFS_POINTER_MAX_SIZE = 1024;
+
+    private final RepositoryMirrorService mirrorService;
+    private final WorkspaceService workspaceService;
+    private final AnalyzerProperties.Clones clones;
+    private final Map<String, SharedCheckout> sharedCheckouts = new HashMap<>();
+    private final Map<Path, SharedCheckout> checkoutsByDirectory = new HashMap<>();
+
+    public GitService(RepositoryMirrorService mirrorService,
+                      WorkspaceService workspaceService,
+                      AnalyzerProperties properties) {
+        this.mirrorService = mirrorService;
+        this.workspaceService = workspaceService;
+        this.clones = properties.getClones();
+    }
+
+    /**
+     * Clones a Git repository to a temporary directory using shallow clone (depth=1),
+     * or checks out its default branch from the local mirror.
      *
      * @param repoUrl the repository URL
      * @return path to the cloned repository
@@ -26,40 +88,573 @@ public class GitService {
      * @throws InterruptedException      if the operation is interrupted
      */
     public Path cloneRepository(String repoUrl) throws InterruptedException {
-        Path tempDir;
+        return registered(cloneWorkTree(repoUrl, null, CloneProgress.none()));
+    }
+
+    /**
+     * Clones a Git repository with its full history and checks out the given commit, so that it can be
+     * compared with older commits. With mirrors enabled, the commit is checked out from the local mirror.
+     *
+     * @param repoUrl the repository URL
+     * @param commit  commit id or other revision to check out
+     * @return path to the cloned repository
+     * @throws RepositoryAccessException if the repository cannot be cloned or the commit does not exist
+     * @throws InterruptedException      if the operation is interrupted
+     */
+    public Path cloneRepository(String repoUrl, String commit) throws InterruptedException {
+        return registered(cloneWorkTree(repoUrl, commit, CloneProgress.none()));
+    }
+
+    /**
+     * Checks out the default branch with a shallow clone, or a revision with a full clone, or either from
+     * the local mirror.
+     */
+    private Path cloneWorkTree(String repoUrl, String commit, CloneProgress progress) throws InterruptedException {
+        if (mirrorService.isEnabled()) {
+            return mirrorService.checkout(repoUrl, commit, null, progress).getDirectory();
+        }
+        Path tempDir = workspaceService.create();
+
+        progress.track(tempDir.resolve(Constants.DOT_GIT));
+        CloneCommand clone = Git.cloneRepository()
+                .setURI(repoUrl)
+                .setDirectory(tempDir.toFile())
+                .setNoTags()
+                .setProgressMonitor(progress);
+        if (commit == null) {
+            clone.setDepth(1);
+        } else {
+            clone.setNoCheckout(true);
+        }
+        try (Git git = clone.call()) {
+            if (commit != null) {
+                git.checkout().setName(commit).call();
+            }
+            return tempDir;
+        } catch (GitAPIException | RuntimeException e) {
+            deleteTempDirectory(tempDir);
+            if (progress.isCancelled()) {
+                throw cancelled(e);
+            }
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new RepositoryAccessException("Repository access error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Provides the working tree of an analysis. With mirrors enabled, only the files the filter accepts are
+     * written from the object database of the mirror, unless sources-only checkouts are disabled.
+     * Otherwise the repository is cloned like by {@link #cloneRepository(String)} or
+     * {@link #cloneRepository(String, String)}, but a sparse clone is not checked out: only the accepted
+     * files are written, and the shallow clone of the default branch leaves blobs above the blob limit on
+     * the server if it supports partial clone filters.
+     * Jobs asking for the same normalized URL, revision and filter while the checkout is created get the
+     * same checkout, which they must not modify and must release with {@link #deleteTempDirectory(Path)}.
+     *
+     * @param repoUrl the repository URL
+     * @param commit  commit id or other revision to check out, or null for the default branch
+     * @param filter  discovery filter of the analysis
+     * @return the working tree and the files left out of it
+     * @throws RepositoryAccessException if the repository cannot be cloned or the commit does not exist
+     * @throws InterruptedException      if the operation is interrupted
+     */
+    public SourceCheckout checkoutSources(String repoUrl, String commit, DiscoveryFilter filter)
+            throws InterruptedException {
+        return checkoutSources(repoUrl, commit, filter, CloneProgress.none());
+    }
+
+    /**
+     * Provides the working tree of an analysis like {@link #checkoutSources(String, String, DiscoveryFilter)},
+     * reporting the progress of the clone or fetch to a monitor. A job that joins a checkout created by
+     * another job reports no progress. Cancelling the monitor aborts the clone or fetch of this job; jobs
+     * waiting for the aborted checkout then check out again.
+     *
+     * @param repoUrl  the repository URL
+     * @param commit   commit id or other revision to check out, or null for the default branch
+     * @param filter   discovery filter of the analysis
+     * @param progress progress monitor of the analysis
+     * @return the working tree and the files left out of it
+     * @throws RepositoryAccessException if the repository cannot be cloned or the commit does not exist
+     * @throws InterruptedException      if the operation is interrupted or the monitor is cancelled
+     */
+    public SourceCheckout checkoutSources(String repoUrl, String commit, DiscoveryFilter filter,
+                                          CloneProgress progress) throws InterruptedException {
+        String key = normalizeRepositoryUrl(repoUrl) + "\0" + (commit != null ? commit : "") + "\0" + filter.getKey();
+        while (true) {
+            SharedCheckout shared;
+            boolean owner = false;
+            synchronized (sharedCheckouts) {
+                shared = sharedCheckouts.get(key);
+                if (shared == null) {
+                    shared = new SharedCheckout(key, commit != null && ObjectId.isId(commit));
+                    sharedCheckouts.put(key, shared);
+                    owner = true;
+                }
+                shared.references++;
+            }
+            if (owner) {
+                return createShared(shared, repoUrl, commit, filter, progress);
+            }
+            try {
+                return shared.result.get();
+            } catch (ExecutionException e) {
+                release(shared);
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                // The job that checked out was interrupted; this job checks out again.
+            } catch (InterruptedException e) {
+                release(shared);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Creates the checkout of a shared entry and hands it to the jobs waiting for it. A checkout of a
+     * mutable revision, such as a branch, is shared only by the jobs that asked for it while it was being
+     * created; a checkout of a commit id is shared until the last job releases it.
+     */
+    private SourceCheckout createShared(SharedCheckout shared, String repoUrl, String commit, DiscoveryFilter filter,
+                                        CloneProgress progress) throws InterruptedException {
+        SourceCheckout checkout;
         try {
-            tempDir = Files.createTempDirectory("repo_clone_");
-        } catch (IOException e) {
-            throw new RepositoryAccessException("Failed to create temporary directory", e);
+            checkout = createCheckout(repoUrl, commit, filter, progress);
+        } catch (RuntimeException | InterruptedException e) {
+            synchronized (sharedCheckouts) {
+                sharedCheckouts.remove(shared.key, shared);
+            }
+            shared.result.completeExceptionally(e);
+            throw e;
+        }
+        workspaceService.register(checkout.getDirectory());
+        synchronized (sharedCheckouts) {
+            shared.directory = checkout.getDirectory();
+            checkoutsByDirectory.put(shared.directory, shared);
+            if (!shared.immutable) {
+                sharedCheckouts.remove(shared.key, shared);
+            }
         }
+        shared.result.complete(checkout);
+        return checkout;
+    }
 
+    private SourceCheckout createCheckout(String repoUrl, String commit, DiscoveryFilter filter,
+                                          CloneProgress progress) throws InterruptedException {
+        if (mirrorService.isEnabled()) {
+            return mirrorService.checkout(repoUrl, commit, filter, progress);
+        }
+        if (!clones.isSparse()) {
+            return new SourceCheckout(cloneWorkTree(repoUrl, commit, progress), null, List.of());
+        }
+        Path tempDir = workspaceService.create();
+
+        try (Git git = cloneWithoutCheckout(repoUrl, tempDir, commit == null, progress)) {
+            Repository repository = git.getRepository();
+            ObjectId commitId = repository.resolve((commit != null ? commit : Constants.HEAD) + "^{commit}");
+            if (commitId == null) {
+                if (commit != null) {
+                    throw new RepositoryAccessException("Commit not found: " + commit);
+                }
+                // An empty repository has no files to write.
+                return new SourceCheckout(tempDir, new DiscoveryResultDto(), List.of());
+            }
+            return writeSources(repository, commitId, tempDir, filter);
+        } catch (GitAPIException | IOException | RuntimeException e) {
+            deleteTempDirectory(tempDir);
+            if (progress.isCancelled()) {
+                throw cancelled(e);
+            }
+            if (e instanceof RepositoryAccessException) {
+                throw (RepositoryAccessException) e;
+            }
+            throw new RepositoryAccessException("Repository access error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Clones without checking out. A shallow clone asks for blobs up to the blob limit only and is repeated
+     * without the filter if the server does not support it; a full clone keeps all blobs, because the
+     * rename detection of commit diffs reads them.
+     */
+    private Git cloneWithoutCheckout(String repoUrl, Path directory, boolean shallow, CloneProgress progress)
+            throws GitAPIException {
+        long blobLimit = clones.getBlobLimit() != null ? clones.getBlobLimit().toBytes() : 0;
+        progress.track(directory.resolve(Constants.DOT_GIT));
+        if (!shallow) {
+            return newClone(repoUrl, directory, progress).call();
+        }
+        if (blobLimit <= 0) {
+            return newClone(repoUrl, directory, progress).setDepth(1).call();
+        }
+        FilterSpec blobFilter;
+        try {
+            blobFilter = FilterSpec.fromFilterLine("blob:limit=" + blobLimit);
+        } catch (PackProtocolException e) {
+            throw new IllegalStateException("Invalid blob limit: " + blobLimit, e);
+        }
         try {
-            Git.cloneRepository()
-                    .setURI(repoUrl)
-                    .setDirectory(tempDir.toFile())
-                    .setDepth(1)
-                    .setNoTags()
+            return newClone(repoUrl, directory, progress).setDepth(1)
+                    .setTransportConfigCallback(transport -> transport.setFilterSpec(blobFilter))
                     .call();
-            return tempDir;
+        } catch (TransportException e) {
+            String message = e.getMessage();
+            if (message == null || !message.endsWith(JGitText.get().filterRequiresCapability)) {
+                throw e;
+            }
+            clearDirectory(directory);
+            return newClone(repoUrl, directory, progress).setDepth(1).call();
+        }
+    }
+
+    private static CloneCommand newClone(String repoUrl, Path directory, CloneProgress progress) {
+        return Git.cloneRepository()
+                .setURI(repoUrl)
+                .setDirectory(directory.toFile())
+                .setNoCheckout(true)
+                .setNoTags()
+                .setProgressMonitor(progress);
+    }
+
+    /**
+     * Signals a clone aborted through its progress monitor like an interrupt, so that jobs waiting for a
+     * shared checkout check out again instead of failing.
+     */
+    static InterruptedException cancelled(Exception cause) {
+        InterruptedException cancelled = new InterruptedException("Clone cancelled");
+        cancelled.initCause(cause);
+        return cancelled;
+    }
+
+    /**
+     * Detaches HEAD at a commit and walks its tree like the file discovery walks a checkout: excluded
+     * directories are not entered, accepted files are streamed from the object database into the working
+     * tree and the other files are only counted, with their size read from the object header. No index is
+     * written. Symbolic links and submodules are left out, as the discovery does not follow them either.
+     * Accepted files that are Git LFS pointers, or whose blobs were not downloaded because of a partial
+     * clone filter, are reported as skipped files; other blobs that were not downloaded add no bytes to
+     * the statistics.
+     *
+     * @param repository repository holding the objects of the commit
+     * @param commitId   the commit to write
+     * @param workTree   working tree of the repository
+     * @param filter     discovery filter of the analysis
+     * @return the working tree and the files left out of it
+     * @throws IOException if an object cannot be read or a file cannot be written
+     */
+    static SourceCheckout writeSources(Repository repository, ObjectId commitId, Path workTree,
+                                       DiscoveryFilter filter) throws IOException {
+        RefUpdate headUpdate = repository.updateRef(Constants.HEAD, true);
+        headUpdate.setNewObjectId(commitId);
+        headUpdate.forceUpdate();
+
+        int skippedFiles = 0;
+        long skippedBytes = 0;
+        int prunedDirectories = 0;
+        List<SkippedFileDto> skipped = new ArrayList<>();
+        Path root = workTree.toAbsolutePath().normalize();
+        try (RevWalk revWalk = new RevWalk(repository);
+             TreeWalk treeWalk = new TreeWalk(repository)) {
+            ObjectReader reader = treeWalk.getObjectReader();
+            treeWalk.addTree(revWalk.parseCommit(commitId).getTree());
+            treeWalk.setRecursive(false);
+            while (treeWalk.next()) {
+                Path relative = Path.of(treeWalk.getPathString());
+                if (treeWalk.isSubtree()) {
+                    if (filter.isExcludedDirectory(relative)) {
+                        prunedDirectories++;
+                    } else {
+                        treeWalk.enterSubtree();
+                    }
+                    continue;
+                }
+                FileMode mode = treeWalk.getFileMode(0);
+                if (mode != FileMode.REGULAR_FILE && mode != FileMode.EXECUTABLE_FILE) {
+                    continue;
+                }
+                ObjectId blobId = treeWalk.getObjectId(0);
+                if (!filter.accepts(relative)) {
+                    skippedFiles++;
+                    if (reader.has(blobId)) {
+                        skippedBytes += reader.getObjectSize(blobId, Constants.OBJ_BLOB);
+                    }
+                    continue;
+                }
+                Path file = root.resolve(relative).normalize();
+                if (!file.startsWith(root) || file.startsWith(root.resolve(Constants.DOT_GIT))) {
+                    throw new IOException("Invalid path in commit tree: " + relative);
+                }
+                if (!reader.has(blobId)) {
+                    skipped.add(new SkippedFileDto(file.toString(), SkippedFileDto.REASON_TOO_LARGE,
+                            "Вміст не завантажено: розмір перевищує ліміт клонування"));
+                    continue;
+                }
+                ObjectLoader loader = reader.open(blobId, Constants.OBJ_BLOB);
+                if (isLfsPointer(loader)) {
+                    skipped.add(new SkippedFileDto(file.toString(), SkippedFileDto.REASON_LFS_POINTER,
+                            "Вміст зберігається в Git LFS"));
+                    continue;
+                }
+                Files.createDirectories(file.getParent());
+                try (OutputStream out = Files.newOutputStream(file)) {
+                    loader.copyTo(out);
+                }
+            }
+        }
+        return new SourceCheckout(workTree,
+                new DiscoveryResultDto(new ArrayList<>(), skippedFiles, skippedBytes, prunedDirectories), skipped);
+    }
+
+    private static boolean isLfsPointer(ObjectLoader loader) throws IOException {
+        if (loader.getSize() > LFS_POINTER_MAX_SIZE || loader.isLarge()) {
+            return false;
+        }
+        byte[] content = loader.getCachedBytes();
+        return content.length >= LFS_POINTER_PREFIX.length
+                && Arrays.equals(content, 0, LFS_POINTER_PREFIX.length, LFS_POINTER_PREFIX, 0, LFS_POINTER_PREFIX.length);
+    }
+
+    /**
+     * Looks up the commit the default branch of a remote repository points to, without fetching any objects.
+     *
+     * @param repoUrl the repository URL
+     * @return commit id, or null if the repository is empty
+     * @throws RepositoryAccessException if the references cannot be listed
+     */
+    public String resolveRemoteHead(String repoUrl) {
+        try {
+            Ref head = Git.lsRemoteRepository().setRemote(repoUrl).callAsMap().get(Constants.HEAD);
+            return head != null && head.getObjectId() != null ? head.getObjectId().name() : null;
         } catch (GitAPIException e) {
-            deleteTempDirectory(tempDir);
             throw new RepositoryAccessException("Repository access error: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Recursively deletes a temporary directory and all its contents.
+     * Resolves the commit checked out in a working tree.
+     *
+     * @param repoDir the working tree
+     * @return commit id, or null if nothing is checked out
+     * @throws RepositoryAccessException if the repository cannot be read
+     */
+    public String resolveHead(Path repoDir) {
+        return resolveCommit(repoDir, Constants.HEAD);
+    }
+
+    /**
+     * Resolves a revision of a cloned repository to its commit id.
+     *
+     * @param repoDir  the cloned repository
+     * @param revision commit id or other revision
+     * @return commit id, or null if the revision does not exist
+     * @throws RepositoryAccessException if the repository cannot be read
+     */
+    public String resolveCommit(Path repoDir, String revision) {
+        try (Git git = Git.open(repoDir.toFile())) {
+            ObjectId commit = git.getRepository().resolve(revision + "^{commit}");
+            return commit != null ? commit.name() : null;
+        } catch (IOException | RevisionSyntaxException e) {
+            throw new RepositoryAccessException("Failed to resolve commit " + revision + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lists the files that differ between two commits of a cloned repository, with rename detection.
+     *
+     * @param repoDir    the cloned repository
+     * @param baseCommit commit id or other revision the changes are computed from
+     * @param headCommit commit id or other revision the changes lead to
+     * @return changed and removed paths relative to the repository root
+     * @throws RepositoryAccessException if the repository cannot be read or a commit does not exist
+     */
+    public CommitDiffDto diffCommits(Path repoDir, String baseCommit, String headCommit) {
+        List<String> changedPaths = new ArrayList<>();
+        List<String> removedPaths = new ArrayList<>();
+        scanDiff(repoDir, baseCommit, headCommit, (entry, formatter) -> {
+            switch (entry.getChangeType()) {
+                case DELETE:
+                    removedPaths.add(entry.getOldPath());
+                    break;
+                case RENAME:
+                    removedPaths.add(entry.getOldPath());
+                    changedPaths.add(entry.getNewPath());
+                    break;
+                default:
+                    changedPaths.add(entry.getNewPath());
+            }
+        });
+        return new CommitDiffDto(changedPaths, removedPaths);
+    }
+
+    /**
+     * Computes the lines added or modified in the head commit from the diff hunks of two commits of a
+     * cloned repository. Deleted files and pure renames have no changed lines.
+     *
+     * @param repoDir    the cloned repository
+     * @param baseCommit commit id or other revision the changes are computed from
+     * @param headCommit commit id or other revision the changes lead to
+     * @return changed line ranges per path relative to the repository root
+     * @throws RepositoryAccessException if the repository cannot be read or a commit does not exist
+     */
+    public ChangedLines changedLines(Path repoDir, String baseCommit, String headCommit) {
+        Map<String, List<int[]>> ranges = new HashMap<>();
+        scanDiff(repoDir, baseCommit, headCommit, (entry, formatter) -> {
+            if (entry.getChangeType() == DiffEntry.ChangeType.DELETE) {
+                return;
+            }
+            List<int[]> fileRanges = new ArrayList<>();
+            for (Edit edit : formatter.toFileHeader(entry).toEditList()) {
+                if (edit.getEndB() > edit.getBeginB()) {
+                    fileRanges.add(new int[]{edit.getBeginB() + 1, edit.getEndB()});
+                }
+            }
+            ranges.put(entry.getNewPath(), fileRanges);
+        });
+        return ChangedLines.of(ranges);
+    }
+
+    /**
+     * Passes every entry of the diff between two commits, with rename detection, to the visitor.
+     */
+    private void scanDiff(Path repoDir, String baseCommit, String headCommit, DiffVisitor visitor) {
+        try (Git git = Git.open(repoDir.toFile());
+             DiffFormatter formatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
+            Repository repository = git.getRepository();
+            ObjectId baseTree = resolveTree(repository, baseCommit);
+            ObjectId headTree = resolveTree(repository, headCommit);
+            formatter.setRepository(repository);
+            formatter.setDetectRenames(true);
+            for (DiffEntry entry : formatter.scan(baseTree, headTree)) {
+                visitor.visit(entry, formatter);
+            }
+        } catch (IOException e) {
+            throw new RepositoryAccessException("Failed to compare commits: " + e.getMessage(), e);
+        }
+    }
+
+    private static ObjectId resolveTree(Repository repository, String commit) throws IOException {
+        ObjectId tree = repository.resolve(commit + "^{tree}");
+        if (tree == null) {
+            throw new RepositoryAccessException("Commit not found: " + commit);
+        }
+        return tree;
+    }
+
+    /**
+     * Normalizes a repository URL so that different spellings of the same repository share cached data:
+     * surrounding whitespace, trailing slashes and the ".git" suffix are removed and the scheme and host
+     * are lowercased.
+     *
+     * @param repoUrl the repository URL as submitted
+     * @return normalized URL
+     */
+    public static String normalizeRepositoryUrl(String repoUrl) {
+        String url = repoUrl.strip();
+        while (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        if (url.endsWith(".git")) {
+            url = url.substring(0, url.length() - 4);
+        }
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd < 0) {
+            return url;
+        }
+        int hostEnd = url.indexOf('/', schemeEnd + 3);
+        if (hostEnd < 0) {
+            return url.toLowerCase(Locale.ROOT);
+        }
+        return url.substring(0, hostEnd).toLowerCase(Locale.ROOT) + url.substring(hostEnd);
+    }
+
+    /**
+     * Releases a temporary directory and hands it to the workspace janitor, which deletes it in the
+     * background, releasing its mirror if it was checked out from one. A checkout shared by several
+     * jobs is deleted when the last job deletes it.
      *
      * @param directory the directory path to delete
      */
     public void deleteTempDirectory(Path directory) {
-        try {
-            Files.walk(directory)
+        SharedCheckout shared;
+        synchronized (sharedCheckouts) {
+            shared = checkoutsByDirectory.get(directory);
+        }
+        if (shared != null) {
+            release(shared);
+            return;
+        }
+        deleteDirectory(directory);
+    }
+
+    /**
+     * Drops one reference to a shared checkout and deletes its directory with the last one.
+     */
+    private void release(SharedCheckout shared) {
+        synchronized (sharedCheckouts) {
+            if (--shared.references > 0) {
+                return;
+            }
+            sharedCheckouts.remove(shared.key, shared);
+            if (shared.directory != null) {
+                checkoutsByDirectory.remove(shared.directory);
+            }
+        }
+        if (shared.directory != null) {
+            deleteDirectory(shared.directory);
+        }
+    }
+
+    private void deleteDirectory(Path directory) {
+        mirrorService.release(directory);
+        workspaceService.delete(directory);
+    }
+
+    /**
+     * Accounts a complete working tree against the workspace disk quota.
+     */
+    private Path registered(Path directory) {
+        workspaceService.register(directory);
+        return directory;
+    }
+
+    /**
+     * Deletes the contents of a directory but keeps the directory.
+     */
+    private static void clearDirectory(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.filter(path -> !path.equals(directory))
                     .sorted(Comparator.reverseOrder())
                     .map(Path::toFile)
                     .forEach(java.io.File::delete);
         } catch (IOException e) {
-            System.err.println("Failed to delete temporary directory: " + directory);
+            System.err.println("Failed to clear directory: " + directory);
         }
     }
+
+    /**
+     * Checkout of one repository revision and filter, shared by the jobs that hold a reference to it.
+     * Guarded by the lock of the shared checkout map.
+     */
+    private static final class SharedCheckout {
+        private final String key;
+        private final boolean immutable;
+        private final CompletableFuture<SourceCheckout> result = new CompletableFuture<>();
+        private int references;
+        private Path directory;
+
+        private SharedCheckout(String key, boolean immutable) {
+            this.key = key;
+            this.immutable = immutable;
+        }
+    }
+
+    /**
+     * Receives the entries of a commit diff together with the formatter that can compute their hunks.
+     */
+    @FunctionalInterface
+    private interface DiffVisitor {
+        void visit(DiffEntry entry, DiffFormatter formatter) throws IOException;
+    }
 }
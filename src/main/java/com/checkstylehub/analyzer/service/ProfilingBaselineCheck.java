@@ -0,0 +1,26 @@
+package com.checkstylehub.analyzer.service;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+
+/**
+ * Check that subscribes to no tokens. A TreeWalker holding only this check parses every file
+ * without running any check, which gives the parsing baseline of a profiled audit.
+ * Must be public because Checkstyle instantiates it by its class name.
+ */
+public class ProfilingBaselineCheck extends AbstractCheck {
+
+    @Override
+    public int[] getDefaultTokens() {
+        return new int[0];
+    }
+
+    @Override
+    public int[] getAcceptableTokens() {
+        return new int[0];
+    }
+
+    @Override
+    public int[] getRequiredTokens() {
+        return new int[0];
+    }
+}
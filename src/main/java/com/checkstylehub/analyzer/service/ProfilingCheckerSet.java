@@ -0,0 +1,217 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.dto.AuditProfileDto;
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.ModuleFactory;
+import com.puppycrawl.tools.checkstyle.PackageNamesLoader;
+import com.puppycrawl.tools.checkstyle.PackageObjectFactory;
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+import com.puppycrawl.tools.checkstyle.TreeWalkerFilter;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
+import com.puppycrawl.tools.checkstyle.checks.SuppressWarningsHolder;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Set of Checkers that together run one configuration, each holding a single module, so that the time
+ * of every module can be measured file by file. Checkstyle offers no per-check hooks, so this is the
+ * only way to attribute time to checks inside a TreeWalker.
+ * <p>
+ * The first Checker has no modules and measures reading a file; every TreeWalker is preceded by a copy
+ * holding only {@link ProfilingBaselineCheck}, which measures parsing. Module times are reported net of
+ * these baselines, and file times add the baselines back once, so they approximate a regular audit.
+ * Filters are copied into every Checker, so the reported violations are the same as in a regular audit.
+ * Used by one shard at a time.
+ */
+final class ProfilingCheckerSet {
+
+    static final String READING_LABEL = "Checker (reading files)";
+    static final String PARSING_LABEL = "TreeWalker (parsing)";
+
+    private final List<ProfiledChecker> checkers;
+
+    private ProfilingCheckerSet(List<ProfiledChecker> checkers) {
+        this.checkers = checkers;
+    }
+
+    /**
+     * Splits the configuration into single-module Checkers reporting to the given listener.
+     *
+     * @param root     parsed root configuration of the audit
+     * @param baseDir  base directory the Checkers report file names against
+     * @param listener listener attached to every Checker
+     * @return configured Checkers; the caller must {@link #destroy()} them
+     * @throws CheckstyleException if a module cannot be instantiated or configured
+     */
+    static ProfilingCheckerSet create(Configuration root, Path baseDir, AuditListener listener)
+            throws CheckstyleException {
+        ClassLoader classLoader = Checker.class.getClassLoader();
+        ModuleFactory moduleFactory = new PackageObjectFactory(PackageNamesLoader.getPackageNames(classLoader),
+                classLoader);
+
+        List<Configuration> sharedChildren = new ArrayList<>();
+        List<Configuration> fileSetChecks = new ArrayList<>();
+        for (Configuration child : root.getChildren()) {
+            if (moduleFactory.createModule(child.getName()) instanceof FileSetCheck) {
+                fileSetChecks.add(child);
+            } else {
+                sharedChildren.add(child);
+            }
+        }
+
+        List<ProfiledChecker> checkers = new ArrayList<>();
+        ProfilingCheckerSet set = new ProfilingCheckerSet(checkers);
+        try {
+            checkers.add(set.newChecker(READING_LABEL, -1,
+                    copyOf(root, sharedChildren), classLoader, baseDir, listener));
+
+            for (Configuration fileSetCheck : fileSetChecks) {
+                if (!(moduleFactory.createModule(fileSetCheck.getName()) instanceof TreeWalker)) {
+                    List<Configuration> children = new ArrayList<>(sharedChildren);
+                    children.add(fileSetCheck);
+                    checkers.add(set.newChecker(labelOf(fileSetCheck), 0,
+                            copyOf(root, children), classLoader, baseDir, listener));
+                    continue;
+                }
+                addTreeWalker(set, root, sharedChildren, fileSetCheck, moduleFactory, classLoader, baseDir, listener);
+            }
+            return set;
+        } catch (CheckstyleException | RuntimeException e) {
+            set.destroy();
+            throw e;
+        }
+    }
+
+    /**
+     * Audits one file with every Checker and adds the measured times to the profile.
+     *
+     * @param file     the file to audit
+     * @param fileName name the file time is reported under
+     * @param profile  profile of the current shard
+     * @throws CheckstyleException if a Checker fails
+     */
+    void process(File file, String fileName, AuditProfileDto profile) throws CheckstyleException {
+        List<File> files = List.of(file);
+        long[] elapsed = new long[checkers.size()];
+        for (int i = 0; i < checkers.size(); i++) {
+            long start = System.nanoTime();
+            checkers.get(i).checker.process(files);
+            elapsed[i] = System.nanoTime() - start;
+        }
+
+        long fileTotal = 0;
+        for (int i = 0; i < checkers.size(); i++) {
+            ProfiledChecker profiled = checkers.get(i);
+            long own = profiled.baselineIndex >= 0
+                    ? Math.max(0, elapsed[i] - elapsed[profiled.baselineIndex])
+                    : elapsed[i];
+            profile.addCheckTime(profiled.label, own);
+            fileTotal += own;
+        }
+        profile.addFileTime(fileName, fileTotal);
+    }
+
+    void destroy() {
+        checkers.forEach(profiled -> profiled.checker.destroy());
+        checkers.clear();
+    }
+
+    private static void addTreeWalker(ProfilingCheckerSet set, Configuration root, List<Configuration> sharedChildren,
+                                      Configuration treeWalker, ModuleFactory moduleFactory, ClassLoader classLoader,
+                                      Path baseDir, AuditListener listener) throws CheckstyleException {
+        // Filters and the suppression holder must see every file in every copy of the TreeWalker.
+        List<Configuration> sharedTreeChildren = new ArrayList<>();
+        List<Configuration> checks = new ArrayList<>();
+        for (Configuration child : treeWalker.getChildren()) {
+            Object module = moduleFactory.createModule(child.getName());
+            if (module instanceof TreeWalkerFilter || module instanceof SuppressWarningsHolder) {
+                sharedTreeChildren.add(child);
+            } else {
+                checks.add(child);
+            }
+        }
+        if (checks.isEmpty()) {
+            return;
+        }
+
+        List<Configuration> baselineChildren = new ArrayList<>(sharedTreeChildren);
+        baselineChildren.add(new DefaultConfiguration(ProfilingBaselineCheck.class.getName()));
+        int baselineIndex = set.checkers.size();
+        set.checkers.add(set.newChecker(PARSING_LABEL, 0,
+                copyWithTreeWalker(root, sharedChildren, treeWalker, baselineChildren),
+                classLoader, baseDir, listener));
+
+        for (Configuration check : checks) {
+            List<Configuration> treeChildren = new ArrayList<>(sharedTreeChildren);
+            treeChildren.add(check);
+            set.checkers.add(set.newChecker(labelOf(check), baselineIndex,
+                    copyWithTreeWalker(root, sharedChildren, treeWalker, treeChildren),
+                    classLoader, baseDir, listener));
+        }
+    }
+
+    private ProfiledChecker newChecker(String label, int baselineIndex, Configuration config,
+                                       ClassLoader classLoader, Path baseDir, AuditListener listener)
+            throws CheckstyleException {
+        Checker checker = new Checker();
+        try {
+            checker.setModuleClassLoader(classLoader);
+            checker.configure(config);
+            checker.setBasedir(baseDir.toString());
+            checker.addListener(listener);
+        } catch (CheckstyleException | RuntimeException e) {
+            checker.destroy();
+            throw e;
+        }
+        return new ProfiledChecker(label, baselineIndex, checker);
+    }
+
+    private static Configuration copyWithTreeWalker(Configuration root, List<Configuration> sharedChildren,
+                                                    Configuration treeWalker, List<Configuration> treeChildren)
+            throws CheckstyleException {
+        List<Configuration> children = new ArrayList<>(sharedChildren);
+        children.add(copyOf(treeWalker, treeChildren));
+        return copyOf(root, children);
+    }
+
+    private static DefaultConfiguration copyOf(Configuration config, List<Configuration> children)
+            throws CheckstyleException {
+        DefaultConfiguration copy = new DefaultConfiguration(config.getName());
+        for (String name : config.getPropertyNames()) {
+            copy.addProperty(name, config.getProperty(name));
+        }
+        config.getMessages().forEach(copy::addMessage);
+        children.forEach(copy::addChild);
+        return copy;
+    }
+
+    /**
+     * Names a module by its id when it has one, so that differently configured instances are told apart.
+     */
+    private static String labelOf(Configuration config) throws CheckstyleException {
+        if (Arrays.asList(config.getPropertyNames()).contains("id")) {
+            return config.getName() + "[" + config.getProperty("id") + "]";
+        }
+        return config.getName();
+    }
+
+    private static final class ProfiledChecker {
+        private final String label;
+        private final int baselineIndex;
+        private final Checker checker;
+
+        private ProfiledChecker(String label, int baselineIndex, Checker checker) {
+            this.label = label;
+            this.baselineIndex = baselineIndex;
+            this.checker = checker;
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.DiscoveryResultDto;
+import com.checkstylehub.analyzer.exception.RepositoryAccessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.BatchRefUpdate;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.ReceiveCommand;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.TagOpt;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps one bare mirror per repository URL on local disk, so that repeated analyses of a repository
+ * only fetch the commits pushed since the last one. Every analysis gets its own working tree whose
+ * object database borrows the objects of the mirror through Git alternates, like {@code git clone --shared},
+ * so a checkout writes the working tree but copies no objects. A sources-only checkout does not even check
+ * out: it walks the commit tree in the object database and writes only the blobs the discovery filter
+ * accepts, without an index, so files Checkstyle never reads cost no disk writes.
+ * A lock per mirror serializes cloning, fetching and eviction of that mirror; a checkout holds a lease
+ * on its mirror until it is released, so a mirror is never evicted while a checkout still reads from it.
+ * The directory is bounded by a disk quota; least recently used mirrors are deleted first. The size of every
+ * mirror is kept in memory and measured again only after it is cloned or fetched, so enforcing the quota does
+ * not walk the mirrors.
+ */
+@Service
+public class RepositoryMirrorService {
+
+    private static final String MIRROR_SUFFIX = ".git";
+
+    private final AnalyzerProperties.Mirrors settings;
+    private final WorkspaceService workspaceService;
+    private final ConcurrentMap<Path, Mirror> mirrors = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Path, Mirror> checkouts = new ConcurrentHashMap<>();
+    private final AtomicLong diskUsage = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bytesFetched;
+    private final Counter bytesSaved;
+
+    public RepositoryMirrorService(AnalyzerProperties properties, MeterRegistry meterRegistry,
+                                   WorkspaceService workspaceService) {
+        this.settings = properties.getMirrors();
+        this.workspaceService = workspaceService;
+        this.hits = Counter.builder("analyzer.git.mirror.requests")
+                .tag("result", "hit")
+                .description("Checkouts served from an existing mirror")
+                .register(meterRegistry);
+        this.misses = Counter.builder("analyzer.git.mirror.requests")
+                .tag("result", "miss")
+                .description("Checkouts served from an existing mirror")
+                .register(meterRegistry);
+        this.bytesFetched = Counter.builder("analyzer.git.mirror.bytes")
+                .tag("result", "fetched")
+                .description("Bytes added to mirrors by clones and fetches")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.bytesSaved = Counter.builder("analyzer.git.mirror.bytes")
+                .tag("result", "saved")
+                .description("Mirror bytes reused instead of cloning again")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        meterRegistry.gauge("analyzer.git.mirror.disk", Tags.empty(), diskUsage);
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * Measures the mirrors left by a previous process once, before any checkout can update them.
+     */
+    @PostConstruct
+    public void loadMirrors() {
+        Path directory = settings.getDirectory();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + MIRROR_SUFFIX)) {
+            for (Path path : stream) {
+                Mirror mirror = mirrors.computeIfAbsent(path.toAbsolutePath(), Mirror::new);
+                mirror.lock.lock();
+                try {
+                    mirror.lastUsed = Files.getLastModifiedTime(path).toMillis();
+                    setSize(mirror, directorySize(path));
+                } catch (IOException e) {
+                    // Deleted concurrently; nothing to account for.
+                } finally {
+                    mirror.lock.unlock();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to list repository mirrors in " + directory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Updates the mirror of a repository, cloning it on first use, and checks out a revision into a new
+     * temporary directory. The checkout must be passed to {@link #release(Path)} before it is deleted.
+     *
+     * @param repoUrl the repository URL
+     * @param commit  commit id or other revision to check out, or null for the default branch
+     * @return path to the working tree
+     * @throws RepositoryAccessException if the repository cannot be fetched or the revision does not exist
+     * @throws InterruptedException      if interrupted while waiting for another job to update the mirror
+     */
+    public Path checkout(String repoUrl, String commit) throws InterruptedException {
+        return checkout(repoUrl, commit, null).getDirectory();
+    }
+
+    /**
+     * Updates the mirror of a repository like {@link #checkout(String, String)}. With a filter and
+     * sources-only checkouts enabled, only the files the filter accepts are written to the working tree.
+     *
+     * @param repoUrl the repository URL
+     * @param commit  commit id or other revision to check out, or null for the default branch
+     * @param filter  discovery filter of the analysis, or null for a full checkout
+     * @return the working tree and the files left out of it
+     * @throws RepositoryAccessException if the repository cannot be fetched or the revision does not exist
+     * @throws InterruptedException      if interrupted while waiting for another job to update the mirror
+     */
+    public SourceCheckout checkout(String repoUrl, String commit, DiscoveryFilter filter)
+            throws InterruptedException {
+        return checkout(repoUrl, commit, filter, CloneProgress.none());
+    }
+
+    /**
+     * Updates the mirror of a repository like {@link #checkout(String, String, DiscoveryFilter)}, reporting
+     * the progress of the clone or fetch of the mirror to a monitor.
+     *
+     * @param repoUrl  the repository URL
+     * @param commit   commit id or other revision to check out, or null for the default branch
+     * @param filter   discovery filter of the analysis, or null for a full checkout
+     * @param progress progress monitor of the analysis
+     * @return the working tree and the files left out of it
+     * @throws RepositoryAccessException if the repository cannot be fetched or the revision does not exist
+     * @throws InterruptedException      if interrupted while waiting for another job to update the mirror,
+     *                                   or if the monitor is cancelled
+     */
+    public SourceCheckout checkout(String repoUrl, String commit, DiscoveryFilter filter, CloneProgress progress)
+            throws InterruptedException {
+        Mirror mirror = mirrors.computeIfAbsent(mirrorDirectory(repoUrl), Mirror::new);
+        mirror.lock.lockInterruptibly();
+        try {
+            update(mirror, repoUrl, progress);
+            mirror.leases.incrementAndGet();
+        } finally {
+            mirror.lock.unlock();
+        }
+
+        Path workTree = null;
+        SourceCheckout sourceCheckout;
+        try {
+            workTree = workspaceService.create();
+            sourceCheckout = checkoutFrom(mirror, workTree, commit, settings.isSourcesOnly() ? filter : null);
+            checkouts.put(workTree, mirror);
+        } catch (IOException | GitAPIException | RuntimeException | InterruptedException e) {
+            mirror.leases.decrementAndGet();
+            if (workTree != null) {
+                workspaceService.delete(workTree);
+            }
+            if (e instanceof InterruptedException) {
+                throw (InterruptedException) e;
+            }
+            if (e instanceof RepositoryAccessException) {
+                throw (RepositoryAccessException) e;
+            }
+            throw new RepositoryAccessException("Repository access error: " + e.getMessage(), e);
+        }
+        enforceQuota();
+        return sourceCheckout;
+    }
+
+    /**
+     * Releases the lease of a checkout on its mirror. Does nothing for directories that are not checkouts.
+     *
+     * @param workTree path returned by {@link #checkout(String, String)}
+     */
+    public void release(Path workTree) {
+        Mirror mirror = checkouts.remove(workTree);
+        if (mirror != null) {
+            mirror.leases.decrementAndGet();
+        }
+    }
+
+    /**
+     * Deletes least recently used mirrors without checkouts until the directory fits into the disk quota.
+     */
+    public void enforceQuota() {
+        long quota = settings.getMaxDiskSize().toBytes();
+        if (diskUsage.get() <= quota) {
+            return;
+        }
+        List<Mirror> candidates = new ArrayList<>(mirrors.values());
+        candidates.sort(Comparator.comparingLong((Mirror mirror) -> mirror.lastUsed));
+        for (Mirror mirror : candidates) {
+            if (diskUsage.get() <= quota) {
+                break;
+            }
+            if (!mirror.lock.tryLock()) {
+                continue;
+            }
+            try {
+                if (mirror.leases.get() == 0 && mirror.size > 0) {
+                    deleteDirectory(mirror.directory);
+                    setSize(mirror, 0);
+                }
+            } finally {
+                mirror.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Disk space used by mirrors, as measured after their last clone or fetch.
+     *
+     * @return total size in bytes
+     */
+    public long diskUsage() {
+        return diskUsage.get();
+    }
+
+    /**
+     * Fetches the branches of an existing mirror, or clones the mirror into a staging directory that is
+     * moved into place once complete. Must be called with the mirror lock held. A cancelled clone leaves
+     * no mirror; a cancelled fetch leaves the mirror as it was.
+     */
+    private void update(Mirror mirror, String repoUrl, CloneProgress progress) throws InterruptedException {
+        if (Files.isDirectory(mirror.directory)) {
+            long sizeBefore = mirror.size;
+            progress.track(mirror.directory);
+            try (Git git = Git.open(mirror.directory.toFile())) {
+                git.fetch()
+                        .setRemote(Constants.DEFAULT_REMOTE_NAME)
+                        .setRefSpecs(new RefSpec("+" + Constants.R_HEADS + "*:" + Constants.R_HEADS + "*"))
+                        .setRemoveDeletedRefs(true)
+                        .setTagOpt(TagOpt.NO_TAGS)
+                        .setProgressMonitor(progress)
+                        .call();
+            } catch (IOException | GitAPIException | RuntimeException e) {
+                if (progress.isCancelled()) {
+                    throw GitService.cancelled(e);
+                }
+                if (e instanceof RuntimeException) {
+                    throw (RuntimeException) e;
+                }
+                throw new RepositoryAccessException("Repository access error: " + e.getMessage(), e);
+            }
+            hits.increment();
+            long size = directorySize(mirror.directory);
+            bytesSaved.increment(sizeBefore);
+            bytesFetched.increment(Math.max(0, size - sizeBefore));
+            setSize(mirror, size);
+        } else {
+            Path staging = null;
+            try {
+                Files.createDirectories(settings.getDirectory());
+                staging = Files.createTempDirectory(settings.getDirectory(), WorkspaceService.MIRROR_STAGING_PREFIX);
+                progress.track(staging);
+                Git.cloneRepository()
+                        .setURI(repoUrl)
+                        .setDirectory(staging.toFile())
+                        .setBare(true)
+                        .setCloneAllBranches(true)
+                        .setNoTags()
+                        .setProgressMonitor(progress)
+                        .call()
+                        .close();
+                moveIntoPlace(staging, mirror.directory);
+            } catch (IOException | GitAPIException | RuntimeException e) {
+                if (staging != null) {
+                    deleteDirectory(staging);
+                }
+                if (progress.isCancelled()) {
+                    throw GitService.cancelled(e);
+                }
+                if (e instanceof RuntimeException) {
+                    throw (RuntimeException) e;
+                }
+                throw new RepositoryAccessException("Repository access error: " + e.getMessage(), e);
+            }
+            misses.increment();
+            long size = directorySize(mirror.directory);
+            bytesFetched.increment(size);
+            setSize(mirror, size);
+        }
+        mirror.lastUsed = System.currentTimeMillis();
+        try {
+            Files.setLastModifiedTime(mirror.directory, FileTime.fromMillis(mirror.lastUsed));
+        } catch (IOException e) {
+            // Only affects the eviction order after a restart.
+        }
+    }
+
+    /**
+     * Creates a repository that borrows the objects of the mirror, copies the branches of the mirror both
+     * as local and as remote-tracking branches so that revisions resolve as in a clone, and checks out
+     * the revision, or only writes its accepted files if a filter is given.
+     */
+    private static SourceCheckout checkoutFrom(Mirror mirror, Path workTree, String commit,
+                                                   DiscoveryFilter filter) throws IOException, GitAPIException {
+        Git.init().setDirectory(workTree.toFile()).call().close();
+        Path alternates = workTree.resolve(Constants.DOT_GIT).resolve("objects").resolve("info").resolve("alternates");
+        Files.createDirectories(alternates.getParent());
+        Files.writeString(alternates, mirror.directory.resolve("objects").toAbsolutePath() + "\n");
+
+        try (Git source = Git.open(mirror.directory.toFile());
+             Git git = Git.open(workTree.toFile());
+             RevWalk revWalk = new RevWalk(git.getRepository())) {
+            Repository repository = git.getRepository();
+            BatchRefUpdate refUpdate = repository.getRefDatabase().newBatchUpdate();
+            for (Ref branch : source.getRepository().getRefDatabase().getRefsByPrefix(Constants.R_HEADS)) {
+                ObjectId id = branch.getObjectId();
+                String name = branch.getName().substring(Constants.R_HEADS.length());
+                refUpdate.addCommand(new ReceiveCommand(ObjectId.zeroId(), id, branch.getName()));
+                refUpdate.addCommand(new ReceiveCommand(ObjectId.zeroId(), id,
+                        Constants.R_REMOTES + Constants.DEFAULT_REMOTE_NAME + "/" + name));
+            }
+            refUpdate.execute(revWalk, NullProgressMonitor.INSTANCE);
+
+            String revision = commit;
+            if (revision == null) {
+                Ref head = source.getRepository().exactRef(Constants.HEAD);
+                if (head == null || head.getObjectId() == null) {
+                    return new SourceCheckout(workTree, filter != null ? new DiscoveryResultDto() : null, List.of());
+                }
+                revision = head.isSymbolic() ? Repository.shortenRefName(head.getTarget().getName())
+                        : head.getObjectId().name();
+            }
+            if (filter == null) {
+                git.checkout().setName(revision).call();
+                return new SourceCheckout(workTree, null, List.of());
+            }
+            ObjectId commitId = repository.resolve(revision + "^{commit}");
+            if (commitId == null) {
+                throw new RepositoryAccessException("Repository access error: Ref " + revision + " cannot be resolved");
+            }
+            return GitService.writeSources(repository, commitId, workTree, filter);
+        }
+    }
+
+    private Path mirrorDirectory(String repoUrl) {
+        String repositoryHash = CheckstyleConfigurationCache.hash(GitService.normalizeRepositoryUrl(repoUrl));
+        return settings.getDirectory().resolve(repositoryHash.substring(0, 32) + MIRROR_SUFFIX).toAbsolutePath();
+    }
+
+    /**
+     * Replaces the size of a mirror in the total disk usage. Must be called with the mirror lock held.
+     */
+    private void setSize(Mirror mirror, long size) {
+        diskUsage.addAndGet(size - mirror.size);
+        mirror.size = size;
+    }
+
+    private static long directorySize(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        } catch (IOException | UncheckedIOException e) {
+            return 0;
+        }
+    }
+
+    private static void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target);
+        }
+    }
+
+    private static void deleteDirectory(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(java.io.File::delete);
+        } catch (IOException e) {
+            System.err.println("Failed to delete directory: " + directory);
+        }
+    }
+
+    private static final class Mirror {
+        private final Path directory;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicInteger leases = new AtomicInteger();
+        private volatile long size;
+        private volatile long lastUsed;
+
+        private Mirror(Path directory) {
+            this.directory = directory;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.ViolationDto;
+import com.checkstylehub.analyzer.entity.AnalysisRequest;
+import com.checkstylehub.analyzer.entity.AnalysisResult;
+import com.checkstylehub.analyzer.repository.AnalysisRequestRepository;
+import com.checkstylehub.analyzer.repository.AnalysisResultRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Service for persisting analysis results while the audit is still running.
+ * Violations are passed through a bounded queue to a writer thread that saves them in batches,
+ * each batch in its own transaction, so memory stays flat regardless of the number of violations.
+ */
+@Service
+public class ResultWriterService {
+
+    private final AnalysisRequestRepository requestRepository;
+    private final AnalysisResultRepository resultRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService resultWriterExecutor;
+    private final AnalyzerProperties.Results settings;
+
+    public ResultWriterService(AnalysisRequestRepository requestRepository,
+                               AnalysisResultRepository resultRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Qualifier("resultWriterExecutor") ExecutorService resultWriterExecutor,
+                               AnalyzerProperties properties) {
+        this.requestRepository = requestRepository;
+        this.resultRepository = resultRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.resultWriterExecutor = resultWriterExecutor;
+        this.settings = properties.getResults();
+    }
+
+    /**
+     * Opens a result stream for the given analysis request and starts its writer thread.
+     *
+     * @param requestId  the analysis request the results belong to
+     * @param pathMapper converts the absolute file name of a violation to the stored file path
+     * @return open stream; it must be finished or closed by the caller
+     */
+    public ResultStream open(Long requestId, Function<String, String> pathMapper) {
+        return open(requestId, pathMapper, null);
+    }
+
+    /**
+     * Opens a result stream whose results are tagged with the configuration that reported them.
+     *
+     * @param requestId  the analysis request the results belong to
+     * @param pathMapper converts the absolute file name of a violation to the stored file path
+     * @param configName configuration name stored with every result, or null
+     * @return open stream; it must be finished or closed by the caller
+     */
+    public ResultStream open(Long requestId, Function<String, String> pathMapper, String configName) {
+        ResultStream stream = new ResultStream(requestId, pathMapper, configName,
+                Math.max(1, settings.getQueueCapacity()), Math.max(1, settings.getBatchSize()));
+        stream.writer = resultWriterExecutor.submit(stream::drain);
+        return stream;
+    }
+
+    /**
+     * Bounded, thread-safe stream of violations of one analysis.
+     * Producers block while the queue is full, which throttles the audit to the speed of the database.
+     */
+    public final class ResultStream implements Consumer<ViolationDto>, AutoCloseable {
+
+        private static final long OFFER_TIMEOUT_MS = 200;
+
+        private final ViolationDto endOfStream = new ViolationDto();
+        private final Long requestId;
+        private final Function<String, String> pathMapper;
+        private final String configName;
+        private final BlockingQueue<ViolationDto> queue;
+        private final int batchSize;
+        private volatile Future<Long> writer;
+        private volatile boolean closed;
+
+        private ResultStream(Long requestId, Function<String, String> pathMapper, String configName,
+                             int queueCapacity, int batchSize) {
+            this.requestId = requestId;
+            this.pathMapper = pathMapper;
+            this.configName = configName;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * Enqueues a violation, waiting while the queue is full.
+         *
+         * @throws IllegalStateException if the stream is closed or the writer has failed
+         */
+        @Override
+        public void accept(ViolationDto violation) {
+            try {
+                while (!queue.offer(violation, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    if (closed || writer.isDone()) {
+                        throw new IllegalStateException("Потік збереження результатів зупинено.");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Збереження результатів перервано.", e);
+            }
+        }
+
+        /**
+         * Signals the end of the stream and waits until all queued violations are persisted.
+         *
+         * @return number of persisted results
+         * @throws IllegalStateException if persisting failed
+         * @throws InterruptedException  if interrupted while waiting for the writer
+         */
+        public long finish() throws InterruptedException {
+            accept(endOfStream);
+            try {
+                return writer.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                throw new IllegalStateException("Не вдалося зберегти результати: " + cause.getMessage(), cause);
+            } finally {
+                closed = true;
+            }
+        }
+
+        /**
+         * Stops the writer without waiting for queued violations. Does nothing after {@link #finish()}.
+         */
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                writer.cancel(true);
+                queue.clear();
+            }
+        }
+
+        private long drain() throws InterruptedException {
+            long written = 0;
+            List<ViolationDto> batch = new ArrayList<>(batchSize);
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                boolean last = batch.remove(endOfStream);
+                if (!batch.isEmpty()) {
+                    persist(batch);
+                    written += batch.size();
+                    batch.clear();
+                }
+                if (last) {
+                    return written;
+                }
+            }
+        }
+
+        private void persist(List<ViolationDto> batch) {
+            transactionTemplate.executeWithoutResult(status -> {
+                AnalysisRequest request = requestRepository.getReferenceById(requestId);
+                List<AnalysisResult> results = new ArrayList<>(batch.size());
+                for (ViolationDto violation : batch) {
+                    AnalysisResult result = new AnalysisResult();
+                    result.setRequest(request);
+                    result.setFilePath(pathMapper.apply(violation.getFilePath()));
+                    result.setLineNumber(violation.getLineNumber());
+                    result.setSeverity(violation.getSeverity());
+                    result.setMessage(violation.getMessage());
+                    result.setConfigName(configName);
+                    results.add(result);
+                }
+                resultRepository.saveAll(results);
+            });
+        }
+    }
+}
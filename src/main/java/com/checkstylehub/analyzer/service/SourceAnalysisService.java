@@ -0,0 +1,170 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.AuditReportDto;
+import com.checkstylehub.analyzer.dto.SkippedFileDto;
+import com.checkstylehub.analyzer.dto.SourceAnalysisResultDto;
+import com.checkstylehub.analyzer.dto.SourceFileDto;
+import com.checkstylehub.analyzer.dto.ViolationDto;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service for the synchronous analysis of sources posted in the request body, e.g. by an editor plugin.
+ * The files are audited by the pooled Checkers of the configuration and the violations are returned
+ * directly; neither the sources nor the results are persisted.
+ */
+@Service
+public class SourceAnalysisService {
+
+    private final CheckstyleService checkstyleService;
+    private final CheckstyleConfigurationService configurationService;
+    private final AnalyzerProperties.Sources settings;
+
+    public SourceAnalysisService(CheckstyleService checkstyleService,
+                                 CheckstyleConfigurationService configurationService,
+                                 AnalyzerProperties properties) {
+        this.checkstyleService = checkstyleService;
+        this.configurationService = configurationService;
+        this.settings = properties.getSources();
+    }
+
+    /**
+     * Audits the given sources with the active or the named configuration.
+     * Checker reads files from disk, so the sources are staged in a private temporary directory
+     * that is deleted before returning.
+     *
+     * @param files      paths and contents of the files
+     * @param configName name of a stored configuration, or null for the active one
+     * @return violations and skipped files, reported against the given paths
+     * @throws IllegalArgumentException if a path is invalid or the files exceed the limits
+     * @throws NoSuchElementException   if no configuration has the given name
+     * @throws CheckstyleException      if the configuration is invalid or a file cannot be audited
+     */
+    public SourceAnalysisResultDto analyze(List<SourceFileDto> files, String configName)
+            throws CheckstyleException {
+        long startNanos = System.nanoTime();
+        Map<String, String> sources = validate(files);
+        String configXml = configName == null || configName.isBlank()
+                ? configurationService.getActiveConfigurationXml()
+                : configurationService.getConfigurationXml(configName)
+                        .orElseThrow(() -> new NoSuchElementException("Configuration not found: " + configName));
+
+        Path stagingDir = null;
+        try {
+            stagingDir = Files.createTempDirectory("checkstyle_sources_");
+            Map<String, String> requestedPaths = new HashMap<>();
+            List<Path> javaFiles = new ArrayList<>(sources.size());
+            for (Map.Entry<String, String> source : sources.entrySet()) {
+                Path file = stagingDir.resolve(source.getKey());
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, source.getValue(), StandardCharsets.UTF_8);
+                requestedPaths.put(file.toAbsolutePath().normalize().toString(), source.getKey());
+                javaFiles.add(file);
+            }
+
+            AuditOptions options = new AuditOptions();
+            options.setCacheable(false);
+            AuditReportDto report = checkstyleService.audit(stagingDir, javaFiles, configXml, null, options);
+
+            List<ViolationDto> violations = report.getViolations().stream()
+                    .map(v -> v.withFilePath(requestedPaths.getOrDefault(v.getFilePath(), v.getFilePath())))
+                    .collect(Collectors.toList());
+            List<SkippedFileDto> skippedFiles = report.getSkippedFiles().stream()
+                    .map(s -> new SkippedFileDto(requestedPaths.getOrDefault(s.getFilePath(), s.getFilePath()),
+                            s.getReason(), s.getDetail()))
+                    .collect(Collectors.toList());
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            return new SourceAnalysisResultDto(violations, skippedFiles, durationMillis);
+
+        } catch (IOException e) {
+            throw new CheckstyleException("Failed to stage sources: " + e.getMessage(), e);
+        } finally {
+            if (stagingDir != null) {
+                deleteStagingDirectory(stagingDir);
+            }
+        }
+    }
+
+    /**
+     * Checks the limits and normalizes the paths of the posted files.
+     *
+     * @return contents by normalized relative path, in request order
+     */
+    private Map<String, String> validate(List<SourceFileDto> files) {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("No files given");
+        }
+        if (files.size() > settings.getMaxFiles()) {
+            throw new IllegalArgumentException("Too many files: " + files.size()
+                    + " (limit " + settings.getMaxFiles() + ")");
+        }
+        long maxTotalBytes = settings.getMaxTotalSize().toBytes();
+        long totalBytes = 0;
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (SourceFileDto file : files) {
+            String path = normalizePath(file.getPath());
+            String content = file.getContent() != null ? file.getContent() : "";
+            totalBytes += content.getBytes(StandardCharsets.UTF_8).length;
+            if (totalBytes > maxTotalBytes) {
+                throw new IllegalArgumentException("Sources exceed the size limit of " + maxTotalBytes + " bytes");
+            }
+            if (sources.put(path, content) != null) {
+                throw new IllegalArgumentException("Duplicate file path: " + path);
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Normalizes a posted path to a relative path with forward slashes, rejecting paths that would
+     * escape the staging directory.
+     */
+    static String normalizePath(String path) {
+        if (path == null || path.isBlank()) {
+            throw new IllegalArgumentException("File path is missing");
+        }
+        String normalized = path.replace('\\', '/');
+        if (normalized.startsWith("/") || normalized.contains(":") || normalized.indexOf('\0') >= 0) {
+            throw new IllegalArgumentException("File path must be relative: " + path);
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : normalized.split("/")) {
+            if (segment.equals("..")) {
+                throw new IllegalArgumentException("File path must not contain '..': " + path);
+            }
+            if (!segment.isEmpty() && !segment.equals(".")) {
+                segments.add(segment);
+            }
+        }
+        if (segments.isEmpty()) {
+            throw new IllegalArgumentException("File path is missing");
+        }
+        return String.join("/", segments);
+    }
+
+    private static void deleteStagingDirectory(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(java.io.File::delete);
+        } catch (IOException e) {
+            System.err.println("Failed to delete staging directory: " + directory);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.dto.DiscoveryResultDto;
+import com.checkstylehub.analyzer.dto.SkippedFileDto;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Working tree of an analysis. A sources-only checkout contains just the files a discovery filter
+ * accepts; the files it left out are counted while reading the commit tree, so the discovery statistics
+ * of the request stay the same as for a full checkout. Accepted files that were not written, e.g. Git LFS
+ * pointers, are reported like the files the audit skips.
+ */
+public final class SourceCheckout {
+
+    private final Path directory;
+    private final DiscoveryResultDto omitted;
+    private final List<SkippedFileDto> skippedFiles;
+
+    SourceCheckout(Path directory, DiscoveryResultDto omitted, List<SkippedFileDto> skippedFiles) {
+        this.directory = directory;
+        this.omitted = omitted;
+        this.skippedFiles = skippedFiles;
+    }
+
+    /**
+     * Root of the working tree; to be deleted with {@link GitService#deleteTempDirectory(Path)}.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Files and directories of the commit that were not written, or null for a full checkout.
+     */
+    public DiscoveryResultDto getOmitted() {
+        return omitted;
+    }
+
+    /**
+     * Accepted files that were not written, by absolute file name.
+     */
+    public List<SkippedFileDto> getSkippedFiles() {
+        return skippedFiles;
+    }
+}
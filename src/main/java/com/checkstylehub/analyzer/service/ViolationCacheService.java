@@ -0,0 +1,206 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.ViolationDto;
+import com.checkstylehub.analyzer.entity.FileViolationCacheEntry;
+import com.checkstylehub.analyzer.repository.FileViolationCacheRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent, content-addressed cache of per-file Checkstyle violations.
+ * Entries are keyed by (configuration hash, file key), where the file key combines the relative
+ * path with the Git blob id of the content. The path is part of the key because checks such as
+ * OuterTypeFilename and path-based suppression filters depend on it.
+ * The cache is bounded by the number of entries; least recently used entries are evicted first.
+ * Audits of the same files may store the same entries concurrently; the first stored entry wins.
+ */
+@Service
+public class ViolationCacheService {
+
+    private static final int QUERY_CHUNK_SIZE = 500;
+    private static final int MAX_SERIALIZED_LENGTH = 60_000;
+    private static final TypeReference<List<ViolationDto>> VIOLATION_LIST = new TypeReference<>() {
+    };
+
+    private final FileViolationCacheRepository cacheRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final AnalyzerProperties.ViolationCache settings;
+
+    public ViolationCacheService(FileViolationCacheRepository cacheRepository,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 AnalyzerProperties properties) {
+        this.cacheRepository = cacheRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.settings = properties.getViolationCache();
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * Computes the Git blob id (SHA-1 of the "blob" header and content) of a file content.
+     *
+     * @param content raw file bytes
+     * @return lowercase hex object id, identical to {@code git hash-object}
+     */
+    public static String blobId(byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(("blob " + content.length + "\0").getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest.digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+
+    /**
+     * Computes the cache key of a file from its repository-relative path and blob id.
+     *
+     * @param relativePath path relative to the repository root, with forward slashes
+     * @param blobId       Git blob id of the content
+     * @return lowercase hex SHA-256 key
+     */
+    public static String fileKey(String relativePath, String blobId) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(relativePath.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(blobId.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Looks up cached violations of the given files and marks found entries as recently used.
+     * Returned violations carry no file path; the caller assigns the path of the current file.
+     *
+     * @param configHash hash of the configuration
+     * @param fileKeys   keys of the files to look up
+     * @return violations by file key, only for keys present in the cache
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Map<String, List<ViolationDto>> lookup(String configHash, Collection<String> fileKeys) {
+        Map<String, List<ViolationDto>> found = new HashMap<>();
+        List<Long> hitIds = new ArrayList<>();
+        for (List<String> chunk : chunks(new ArrayList<>(fileKeys))) {
+            for (FileViolationCacheEntry entry : cacheRepository.findByConfigHashAndFileKeyIn(configHash, chunk)) {
+                try {
+                    found.put(entry.getFileKey(), objectMapper.readValue(entry.getViolations(), VIOLATION_LIST));
+                    hitIds.add(entry.getId());
+                } catch (JsonProcessingException e) {
+                    // A corrupt entry is treated as a miss and overwritten by the next store.
+                    cacheRepository.delete(entry);
+                }
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (List<Long> chunk : chunks(hitIds)) {
+            cacheRepository.touch(chunk, now);
+        }
+        return found;
+    }
+
+    /**
+     * Stores violations of freshly audited files and evicts the least recently used entries
+     * when the cache grows beyond its maximal size. The entries are inserted in one transaction; if
+     * another audit stored one of them meanwhile, they are inserted again one by one, skipping the
+     * entries already stored, so a duplicate does not discard the whole batch.
+     *
+     * @param configHash hash of the configuration
+     * @param entries    violations by file key; an empty list records a clean file
+     */
+    public void store(String configHash, Map<String, List<ViolationDto>> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<String, String> serialized = new LinkedHashMap<>();
+        for (Map.Entry<String, List<ViolationDto>> entry : entries.entrySet()) {
+            List<ViolationDto> withoutPaths = entry.getValue().stream()
+                    .map(violation -> violation.withFilePath(null))
+                    .toList();
+            try {
+                String violations = objectMapper.writeValueAsString(withoutPaths);
+                if (violations.length() <= MAX_SERIALIZED_LENGTH) {
+                    serialized.put(entry.getKey(), violations);
+                }
+            } catch (JsonProcessingException e) {
+                // Violations that cannot be serialized are simply not cached.
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertMissing(configHash, serialized));
+        } catch (DataIntegrityViolationException e) {
+            for (Map.Entry<String, String> entry : serialized.entrySet()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            insertMissing(configHash, Map.of(entry.getKey(), entry.getValue())));
+                } catch (DataIntegrityViolationException duplicate) {
+                    // Stored by another audit in the meantime; its entry is equivalent.
+                }
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> evictOverflow());
+    }
+
+    /**
+     * Inserts the entries whose keys are not cached yet. Must be called within a transaction.
+     */
+    private void insertMissing(String configHash, Map<String, String> serialized) {
+        Map<String, String> missing = new LinkedHashMap<>(serialized);
+        for (List<String> chunk : chunks(new ArrayList<>(serialized.keySet()))) {
+            cacheRepository.findByConfigHashAndFileKeyIn(configHash, chunk)
+                    .forEach(existing -> missing.remove(existing.getFileKey()));
+        }
+        List<FileViolationCacheEntry> toSave = new ArrayList<>(missing.size());
+        missing.forEach((fileKey, violations) ->
+                toSave.add(new FileViolationCacheEntry(configHash, fileKey, violations)));
+        cacheRepository.saveAll(toSave);
+        cacheRepository.flush();
+    }
+
+    private void evictOverflow() {
+        long overflow = cacheRepository.count() - settings.getMaxEntries();
+        if (overflow > 0) {
+            List<Long> evicted = cacheRepository.findLeastRecentlyUsedIds(
+                    PageRequest.of(0, (int) Math.min(overflow, Integer.MAX_VALUE)));
+            cacheRepository.deleteAllByIdInBatch(evicted);
+        }
+    }
+
+    private static <T> List<List<T>> chunks(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += QUERY_CHUNK_SIZE) {
+            chunks.add(items.subList(from, Math.min(items.size(), from + QUERY_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+}
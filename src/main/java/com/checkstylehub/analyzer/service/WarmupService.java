@@ -0,0 +1,139 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Optional startup warm-up. Before the application accepts traffic, a synthetic corpus bundled with the
+ * application is audited with the active configuration until the throughput of two consecutive rounds
+ * differs by less than the configured change. This loads the Checkstyle module classes, lets the JIT
+ * compile the parser and the checks, fills the Checker pool and opens the database connections.
+ * Application runners finish before Spring Boot publishes {@link ReadinessState#ACCEPTING_TRAFFIC},
+ * so the readiness probe reports the node as not ready for the whole warm-up.
+ * In a training run the application exits after the warm-up, e.g. to record a class data sharing archive.
+ */
+@Service
+public class WarmupService implements ApplicationRunner {
+
+    private static final String CORPUS_TEMPLATE = "warmup/WarmupSample.java.txt";
+    private static final String TEMPLATE_CLASS_NAME = "WarmupSample";
+
+    private final CheckstyleService checkstyleService;
+    private final CheckstyleConfigurationService configurationService;
+    private final ApplicationContext applicationContext;
+    private final AnalyzerProperties.Warmup settings;
+
+    public WarmupService(CheckstyleService checkstyleService,
+                         CheckstyleConfigurationService configurationService,
+                         ApplicationContext applicationContext,
+                         AnalyzerProperties properties) {
+        this.checkstyleService = checkstyleService;
+        this.configurationService = configurationService;
+        this.applicationContext = applicationContext;
+        this.settings = properties.getWarmup();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        AvailabilityChangeEvent.publish(applicationContext, this, ReadinessState.REFUSING_TRAFFIC);
+        boolean warmedUp = false;
+        try {
+            warmUp();
+            warmedUp = true;
+        } catch (Exception e) {
+            // A cold node still analyzes correctly, so a failed warm-up must not keep it out of service.
+            System.err.println("Warm-up failed: " + e.getMessage());
+        }
+        if (settings.isTrainingRun()) {
+            int exitCode = SpringApplication.exit(applicationContext, () -> 0);
+            System.exit(warmedUp ? exitCode : 1);
+        }
+    }
+
+    /**
+     * Audits the synthetic corpus in rounds until the throughput is stable, the maximal number of rounds
+     * is reached or the maximal duration has passed. The caches are bypassed, so every round does the
+     * full work and the warm-up leaves no cache entries behind.
+     *
+     * @return the number of audited rounds
+     * @throws IOException         if the corpus cannot be staged
+     * @throws CheckstyleException if the active configuration is invalid
+     */
+    public int warmUp() throws IOException, CheckstyleException {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + settings.getMaxDuration().toNanos();
+        String configXml = configurationService.getActiveConfigurationXml();
+        Path corpusDir = Files.createTempDirectory("checkstyle_warmup_");
+        try {
+            List<Path> files = stageCorpus(corpusDir);
+            AuditOptions options = new AuditOptions();
+            options.setCacheable(false);
+
+            int rounds = 0;
+            double previousThroughput = 0;
+            while (rounds < settings.getMaxRounds() && System.nanoTime() < deadlineNanos) {
+                long roundStartNanos = System.nanoTime();
+                checkstyleService.audit(corpusDir, files, configXml, null, options);
+                double throughput = files.size() * 1e9 / Math.max(1, System.nanoTime() - roundStartNanos);
+                rounds++;
+                boolean stable = previousThroughput > 0
+                        && Math.abs(throughput - previousThroughput) <= previousThroughput * settings.getStableChange();
+                previousThroughput = throughput;
+                if (stable && rounds >= settings.getMinRounds()) {
+                    break;
+                }
+            }
+            System.out.println(String.format("Warm-up finished after %d rounds in %d ms at %.0f files/s",
+                    rounds, (System.nanoTime() - startNanos) / 1_000_000, previousThroughput));
+            return rounds;
+        } finally {
+            deleteCorpusDirectory(corpusDir);
+        }
+    }
+
+    /**
+     * Writes the configured number of copies of the synthetic source, each with its own class name.
+     */
+    private List<Path> stageCorpus(Path corpusDir) throws IOException {
+        String template = new ClassPathResource(CORPUS_TEMPLATE).getContentAsString(StandardCharsets.UTF_8);
+        Path packageDir = Files.createDirectories(corpusDir.resolve("warmup"));
+        List<Path> files = new ArrayList<>(settings.getFiles());
+        for (int i = 0; i < settings.getFiles(); i++) {
+            String className = TEMPLATE_CLASS_NAME + i;
+            Path file = packageDir.resolve(className + ".java");
+            Files.writeString(file, template.replace(TEMPLATE_CLASS_NAME, className), StandardCharsets.UTF_8);
+            files.add(file);
+        }
+        return files;
+    }
+
+    private static void deleteCorpusDirectory(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(java.io.File::delete);
+        } catch (IOException e) {
+            System.err.println("Failed to delete warm-up corpus: " + directory);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.exception.RepositoryAccessException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Creates the working trees of analyses in one configurable root directory and deletes them in the
+ * background, so an analysis thread does not spend its time deleting files. A single janitor thread
+ * measures new working trees and deletes released ones; on startup it also deletes the working trees and
+ * mirror staging directories left behind by a previous process. The root must therefore not be shared
+ * with another running instance.
+ * The working trees are bounded by a disk quota and a minimal free space of the file system: a new
+ * working tree waits until the janitor has freed enough space and fails if that takes too long. A new
+ * working tree reserves an estimated size until the janitor has measured it, so concurrent clones do not
+ * all pass the check before any of them is measured.
+ */
+@Service
+public class WorkspaceService {
+
+    static final String WORKSPACE_PREFIX = "repo_clone_";
+    static final String MIRROR_STAGING_PREFIX = "mirror-";
+
+    private static final long SPACE_POLL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AnalyzerProperties.Workspaces settings;
+    private final Path mirrorDirectory;
+    private final ExecutorService janitorExecutor;
+    private final ConcurrentMap<Path, Long> sizes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Path, Long> reservations = new ConcurrentHashMap<>();
+    private final AtomicLong diskUsage = new AtomicLong();
+    private final AtomicLong reserved = new AtomicLong();
+    private final AtomicInteger pendingDeletions = new AtomicInteger();
+    private final ReentrantLock spaceLock = new ReentrantLock();
+    private final Condition spaceFreed = spaceLock.newCondition();
+
+    public WorkspaceService(AnalyzerProperties properties,
+                            MeterRegistry meterRegistry,
+                            @Qualifier("workspaceJanitorExecutor") ExecutorService janitorExecutor) {
+        this.settings = properties.getWorkspaces();
+        this.mirrorDirectory = properties.getMirrors().getDirectory();
+        this.janitorExecutor = janitorExecutor;
+        meterRegistry.gauge("analyzer.workspace.disk", Tags.empty(), diskUsage);
+        meterRegistry.gauge("analyzer.workspace.pending.deletions", Tags.empty(), pendingDeletions);
+    }
+
+    /**
+     * Hands the working trees and mirror staging directories of a previous process to the janitor.
+     * The directories are listed before any analysis can create a new one.
+     */
+    @PostConstruct
+    public void sweepOrphans() {
+        int orphans = sweep(settings.getDirectory(), WORKSPACE_PREFIX) + sweep(mirrorDirectory, MIRROR_STAGING_PREFIX);
+        if (orphans > 0) {
+            System.out.println("Deleting " + orphans + " orphaned working trees and staging directories");
+        }
+    }
+
+    /**
+     * Creates a new empty working tree, waiting for the janitor while the disk quota or the free space
+     * of the file system is exhausted. The working tree counts with its estimated size until it is
+     * registered.
+     *
+     * @return the new directory
+     * @throws RepositoryAccessException if no space is freed within the quota timeout or the directory
+     *                                   cannot be created
+     * @throws InterruptedException      if interrupted while waiting for space
+     */
+    public Path create() throws InterruptedException {
+        long estimate = settings.getEstimatedSize().toBytes();
+        awaitSpace(estimate);
+        Path directory;
+        try {
+            Files.createDirectories(settings.getDirectory());
+            directory = Files.createTempDirectory(settings.getDirectory(), WORKSPACE_PREFIX);
+        } catch (IOException e) {
+            diskUsage.addAndGet(-estimate);
+            reserved.addAndGet(-estimate);
+            signalSpaceFreed();
+            throw new RepositoryAccessException("Failed to create temporary directory", e);
+        }
+        reservations.put(directory, estimate);
+        sizes.put(directory, estimate);
+        return directory;
+    }
+
+    /**
+     * Accounts a filled working tree against the disk quota. The janitor measures it in the background
+     * and replaces the estimated size reserved by {@link #create()} with the measured one.
+     *
+     * @param directory a directory returned by {@link #create()}
+     */
+    public void register(Path directory) {
+        submit(() -> {
+            long size = directorySize(directory);
+            Long reservation = reservations.remove(directory);
+            if (reservation != null) {
+                reserved.addAndGet(-reservation);
+            }
+            Long previous = sizes.put(directory, size);
+            diskUsage.addAndGet(size - (previous != null ? previous : 0));
+            signalSpaceFreed();
+        });
+    }
+
+    /**
+     * Hands a working tree to the janitor for deletion and returns immediately.
+     *
+     * @param directory the directory to delete
+     */
+    public void delete(Path directory) {
+        pendingDeletions.incrementAndGet();
+        submit(() -> {
+            try {
+                deleteDirectory(directory);
+            } finally {
+                pendingDeletions.decrementAndGet();
+                Long reservation = reservations.remove(directory);
+                if (reservation != null) {
+                    reserved.addAndGet(-reservation);
+                }
+                Long size = sizes.remove(directory);
+                if (size != null) {
+                    diskUsage.addAndGet(-size);
+                }
+                signalSpaceFreed();
+            }
+        });
+    }
+
+    /**
+     * Waits until the janitor has finished the work handed to it so far.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitJanitor() throws InterruptedException {
+        try {
+            janitorExecutor.submit(() -> { }).get();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            // Nothing left to wait for.
+        }
+    }
+
+    /**
+     * Disk space used by registered working trees, as measured by the janitor, plus the estimated size
+     * of the working trees not registered yet.
+     *
+     * @return size in bytes
+     */
+    public long diskUsage() {
+        return diskUsage.get();
+    }
+
+    /**
+     * Waits for space and reserves the estimated size of a new working tree while still holding the lock,
+     * so the next waiter sees the reservation.
+     */
+    private void awaitSpace(long estimate) throws InterruptedException {
+        long deadline = System.nanoTime() + settings.getQuotaTimeout().toNanos();
+        spaceLock.lockInterruptibly();
+        try {
+            while (!hasSpace()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new RepositoryAccessException("Workspace disk quota exceeded: "
+                            + diskUsage.get() + " bytes in use, " + pendingDeletions.get() + " deletions pending");
+                }
+                // Space freed outside the janitor is noticed by polling.
+                spaceFreed.awaitNanos(Math.min(remaining, SPACE_POLL_NANOS));
+            }
+            diskUsage.addAndGet(estimate);
+            reserved.addAndGet(estimate);
+        } finally {
+            spaceLock.unlock();
+        }
+    }
+
+    private boolean hasSpace() {
+        if (diskUsage.get() >= settings.getMaxDiskSize().toBytes()) {
+            return false;
+        }
+        Path root = existingAncestor(settings.getDirectory().toAbsolutePath());
+        try {
+            // Working trees still being filled will take their reserved size from the usable space.
+            return root == null || Files.getFileStore(root).getUsableSpace() - reserved.get()
+                    >= settings.getMinFreeSpace().toBytes();
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private void signalSpaceFreed() {
+        spaceLock.lock();
+        try {
+            spaceFreed.signalAll();
+        } finally {
+            spaceLock.unlock();
+        }
+    }
+
+    private int sweep(Path directory, String prefix) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int count = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*")) {
+            for (Path orphan : stream) {
+                if (Files.isDirectory(orphan)) {
+                    delete(orphan);
+                    count++;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to list orphaned directories in " + directory + ": " + e.getMessage());
+        }
+        return count;
+    }
+
+    private void submit(Runnable task) {
+        try {
+            janitorExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the next startup sweeps what is left.
+        }
+    }
+
+    private static Path existingAncestor(Path path) {
+        Path current = path;
+        while (current != null && !Files.exists(current)) {
+            current = current.getParent();
+        }
+        return current;
+    }
+
+    private static long directorySize(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        } catch (IOException | UncheckedIOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteDirectory(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder())
+                    .map(Path::toFile)
+                    .forEach(java.io.File::delete);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Failed to delete temporary directory: " + directory);
+        }
+    }
+}
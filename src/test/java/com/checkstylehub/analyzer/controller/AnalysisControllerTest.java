@@ -1,24 +1,41 @@
 package com.checkstylehub.analyzer.controller;
 
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.AnalysisProfileDto;
 import com.checkstylehub.analyzer.dto.AnalysisRequestDto;
 import com.checkstylehub.analyzer.dto.AnalysisRequestStatusDto;
 import com.checkstylehub.analyzer.dto.AnalysisResultDto;
+import com.checkstylehub.analyzer.dto.SkippedFileDto;
+import com.checkstylehub.analyzer.dto.SourceAnalysisRequestDto;
+import com.checkstylehub.analyzer.dto.SourceAnalysisResultDto;
+import com.checkstylehub.analyzer.dto.SourceFileDto;
+import com.checkstylehub.analyzer.dto.ViolationDto;
 import com.checkstylehub.analyzer.entity.AnalysisRequest;
 import com.checkstylehub.analyzer.entity.AnalysisResult;
+import com.checkstylehub.analyzer.entity.SkippedFile;
 import com.checkstylehub.analyzer.repository.AnalysisRequestRepository;
 import com.checkstylehub.analyzer.repository.AnalysisResultRepository;
+import com.checkstylehub.analyzer.repository.SkippedFileRepository;
+import com.checkstylehub.analyzer.dto.ProfileEntryDto;
+import com.checkstylehub.analyzer.service.AnalysisProfileService;
 import com.checkstylehub.analyzer.service.AnalysisService;
+import com.checkstylehub.analyzer.service.CheckstyleConfigurationService;
+import com.checkstylehub.analyzer.service.FileDiscoveryService;
+import com.checkstylehub.analyzer.service.SourceAnalysisService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -41,6 +58,24 @@ class AnalysisControllerTest {
     @Mock
     private AnalysisResultRepository resultRepository;
 
+    @Mock
+    private SkippedFileRepository skippedFileRepository;
+
+    @Mock
+    private AnalysisProfileService profileService;
+
+    @Mock
+    private FileDiscoveryService discoveryService;
+
+    @Mock
+    private SourceAnalysisService sourceAnalysisService;
+
+    @Mock
+    private CheckstyleConfigurationService configurationService;
+
+    @Spy
+    private AnalyzerProperties properties = new AnalyzerProperties();
+
     @InjectMocks
     private AnalysisController analysisController;
 
@@ -91,6 +126,37 @@ class AnalysisControllerTest {
         System.out.println("Коректно повернуто BAD_REQUEST для порожнього URL");
     }
 
+    @Test
+    @DisplayName("Should store discovery globs and reject invalid ones")
+    void testStartAnalysis_DiscoveryGlobs() {
+        System.out.println("Тест: запуск аналізу з власними glob-шаблонами");
+
+        AnalysisRequestDto requestDto = new AnalysisRequestDto();
+        requestDto.setRepoUrl("https://github.com/test/repo");
+        requestDto.setIncludes(List.of("src/main/**/*.java"));
+        requestDto.setExcludes(List.of("**/generated/**"));
+        AnalysisRequest savedRequest = new AnalysisRequest("https://github.com/test/repo");
+        savedRequest.setId(1L);
+        when(requestRepository.save(any(AnalysisRequest.class))).thenReturn(savedRequest);
+
+        ResponseEntity<Long> response = analysisController.startAnalysis(requestDto);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(requestRepository).save(argThat(request ->
+                request.getIncludeGlobs().equals(List.of("src/main/**/*.java"))
+                        && request.getExcludeGlobs().equals(List.of("**/generated/**"))));
+
+        AnalysisRequestDto invalid = new AnalysisRequestDto();
+        invalid.setRepoUrl("https://github.com/test/repo");
+        invalid.setIncludes(List.of("src/[unclosed"));
+        when(discoveryService.filterFor(eq(invalid.getIncludes()), any()))
+                .thenThrow(new IllegalArgumentException("Unclosed character class"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, analysisController.startAnalysis(invalid).getStatusCode());
+
+        System.out.println("Glob-шаблони збережено, некоректний шаблон відхилено");
+    }
+
     @Test
     @DisplayName("Should return bad request for null repository URL")
     void testStartAnalysis_NullUrl() {
@@ -164,7 +230,7 @@ class AnalysisControllerTest {
         when(requestRepository.existsById(requestId)).thenReturn(true);
         when(resultRepository.findByRequestId(requestId)).thenReturn(List.of(result1));
 
-        ResponseEntity<List<AnalysisResultDto>> response = analysisController.getAnalysisResults(requestId);
+        ResponseEntity<List<AnalysisResultDto>> response = analysisController.getAnalysisResults(requestId, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -174,6 +240,31 @@ class AnalysisControllerTest {
         System.out.println("Результати аналізу отримано: " + response.getBody().size() + " порушень");
     }
 
+    @Test
+    @DisplayName("Should return files skipped during analysis")
+    void testGetSkippedFiles_Success() {
+        System.out.println("Тест: отримання пропущених файлів");
+
+        Long requestId = 1L;
+        AnalysisRequest request = new AnalysisRequest("https://github.com/test/repo");
+        request.setId(requestId);
+        SkippedFile skipped = new SkippedFile(request, "src/Generated.java", SkippedFileDto.REASON_TOO_LARGE,
+                "Розмір 4194304 байт перевищує ліміт 2097152 байт");
+
+        when(requestRepository.existsById(requestId)).thenReturn(true);
+        when(skippedFileRepository.findByRequestIdOrderByFilePath(requestId)).thenReturn(List.of(skipped));
+
+        ResponseEntity<List<SkippedFileDto>> response = analysisController.getSkippedFiles(requestId);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(1, response.getBody().size());
+        assertEquals("src/Generated.java", response.getBody().get(0).getFilePath());
+        assertEquals(SkippedFileDto.REASON_TOO_LARGE, response.getBody().get(0).getReason());
+
+        System.out.println("Пропущених файлів: " + response.getBody().size());
+    }
+
     @Test
     @DisplayName("Should return 404 for non-existent request results")
     void testGetAnalysisResults_NotFound() {
@@ -182,7 +273,7 @@ class AnalysisControllerTest {
         Long requestId = 999L;
         when(requestRepository.existsById(requestId)).thenReturn(false);
 
-        ResponseEntity<List<AnalysisResultDto>> response = analysisController.getAnalysisResults(requestId);
+        ResponseEntity<List<AnalysisResultDto>> response = analysisController.getAnalysisResults(requestId, null);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
 
@@ -198,7 +289,7 @@ class AnalysisControllerTest {
         when(requestRepository.existsById(requestId)).thenReturn(true);
         when(resultRepository.findByRequestId(requestId)).thenReturn(List.of());
 
-        ResponseEntity<List<AnalysisResultDto>> response = analysisController.getAnalysisResults(requestId);
+        ResponseEntity<List<AnalysisResultDto>> response = analysisController.getAnalysisResults(requestId, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -230,5 +321,260 @@ class AnalysisControllerTest {
 
         System.out.println("Аналіз з кастомною конфігурацією успішно запущено");
     }
-}
 
+    @Test
+    @DisplayName("Should start a profiled analysis when profiling is requested")
+    void testStartAnalysis_Profiled() {
+        System.out.println("Тест: запуск аналізу з профілюванням");
+
+        AnalysisRequestDto requestDto = new AnalysisRequestDto();
+        requestDto.setRepoUrl("https://github.com/test/repo");
+        requestDto.setProfile(true);
+
+        AnalysisRequest savedRequest = new AnalysisRequest("https://github.com/test/repo");
+        savedRequest.setId(1L);
+        when(requestRepository.save(any(AnalysisRequest.class))).thenReturn(savedRequest);
+
+        analysisController.startAnalysis(requestDto);
+
+        verify(requestRepository).save(argThat(AnalysisRequest::isProfiled));
+
+        System.out.println("Запит позначено для профілювання");
+    }
+
+    @Test
+    @DisplayName("Should return the profile of a profiled analysis")
+    void testGetAnalysisProfile_Success() {
+        System.out.println("Тест: отримання профілю аналізу");
+
+        AnalysisProfileDto profile = new AnalysisProfileDto(1L,
+                List.of(new ProfileEntryDto("src/Slow.java", 12.5)),
+                List.of(new ProfileEntryDto("JavadocMethod", 40.0)));
+        when(requestRepository.existsById(1L)).thenReturn(true);
+        when(profileService.getProfile(1L, 5)).thenReturn(Optional.of(profile));
+
+        ResponseEntity<AnalysisProfileDto> response = analysisController.getAnalysisProfile(1L, 5);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("JavadocMethod", response.getBody().getSlowestChecks().get(0).getName());
+
+        System.out.println("Профіль отримано");
+    }
+
+    @Test
+    @DisplayName("Should return 404 for an analysis without profile")
+    void testGetAnalysisProfile_NotProfiled() {
+        System.out.println("Тест: отримання профілю непрофільованого аналізу");
+
+        when(requestRepository.existsById(1L)).thenReturn(true);
+        when(profileService.getProfile(1L, 20)).thenReturn(Optional.empty());
+
+        assertThrows(ResponseStatusException.class, () -> analysisController.getAnalysisProfile(1L, 20));
+
+        System.out.println("Коректно повернуто 404 для аналізу без профілю");
+    }
+
+    @Test
+    @DisplayName("Should store the requested limits with the analysis request")
+    void testStartAnalysis_WithLimits() {
+        System.out.println("Тест: запуск аналізу з лімітами");
+
+        AnalysisRequestDto requestDto = new AnalysisRequestDto();
+        requestDto.setRepoUrl("https://github.com/test/repo");
+        requestDto.setMaxFiles(500);
+        requestDto.setMaxViolations(10_000L);
+        requestDto.setMaxDurationSeconds(120L);
+
+        AnalysisRequest savedRequest = new AnalysisRequest("https://github.com/test/repo");
+        savedRequest.setId(1L);
+        when(requestRepository.save(any(AnalysisRequest.class))).thenReturn(savedRequest);
+
+        analysisController.startAnalysis(requestDto);
+
+        verify(requestRepository).save(argThat(request -> request.getMaxFiles() == 500
+                && request.getMaxViolations() == 10_000L
+                && request.getMaxDurationSeconds() == 120L));
+
+        System.out.println("Ліміти збережено разом із запитом");
+    }
+
+    @Test
+    @DisplayName("Should analyze posted sources synchronously")
+    void testAnalyzeSources_Success() throws Exception {
+        System.out.println("Тест: синхронний аналіз переданих файлів");
+
+        List<SourceFileDto> files = List.of(new SourceFileDto("src/Foo.java", "class Foo {}"));
+        SourceAnalysisResultDto result = new SourceAnalysisResultDto(
+                List.of(new ViolationDto("src/Foo.java", 1, 1, "warning", "Missing javadoc", "JavadocType")),
+                List.of(), 12);
+        when(sourceAnalysisService.analyze(files, "strict")).thenReturn(result);
+
+        ResponseEntity<SourceAnalysisResultDto> response =
+                analysisController.analyzeSources(new SourceAnalysisRequestDto("strict", files));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("src/Foo.java", response.getBody().getViolations().get(0).getFilePath());
+        verifyNoInteractions(requestRepository, resultRepository, analysisService);
+
+        System.out.println("Порушення повернуто без збереження");
+    }
+
+    @Test
+    @DisplayName("Should map invalid sources to 400 and an unknown configuration to 404")
+    void testAnalyzeSources_Errors() throws Exception {
+        System.out.println("Тест: помилки синхронного аналізу");
+
+        List<SourceFileDto> files = List.of(new SourceFileDto("../Foo.java", "class Foo {}"));
+        when(sourceAnalysisService.analyze(files, null)).thenThrow(new IllegalArgumentException("bad path"));
+        when(sourceAnalysisService.analyze(files, "missing")).thenThrow(new NoSuchElementException("missing"));
+
+        ResponseStatusException badRequest = assertThrows(ResponseStatusException.class,
+                () -> analysisController.analyzeSources(new SourceAnalysisRequestDto(null, files)));
+        ResponseStatusException notFound = assertThrows(ResponseStatusException.class,
+                () -> analysisController.analyzeSources(new SourceAnalysisRequestDto("missing", files)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, badRequest.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, notFound.getStatusCode());
+
+        System.out.println("Коректно повернуто 400 і 404");
+    }
+
+    @Test
+    @DisplayName("Should accept an incremental analysis only on a completed analysis of the same repository")
+    void testStartAnalysis_Incremental() {
+        System.out.println("Тест: запуск інкрементального аналізу");
+
+        AnalysisRequest base = new AnalysisRequest("https://github.com/test/repo.git");
+        base.setId(7L);
+        base.setStatus(AnalysisRequest.RequestStatus.COMPLETED);
+        AnalysisRequest failedBase = new AnalysisRequest("https://github.com/test/repo");
+        failedBase.setId(8L);
+        failedBase.setStatus(AnalysisRequest.RequestStatus.FAILED);
+        when(requestRepository.findById(7L)).thenReturn(Optional.of(base));
+        when(requestRepository.findById(8L)).thenReturn(Optional.of(failedBase));
+        AnalysisRequest savedRequest = new AnalysisRequest("https://github.com/test/repo");
+        savedRequest.setId(9L);
+        when(requestRepository.save(any(AnalysisRequest.class))).thenReturn(savedRequest);
+
+        AnalysisRequestDto requestDto = new AnalysisRequestDto();
+        requestDto.setRepoUrl("https://github.com/test/repo");
+        requestDto.setBaseCommit("abc123");
+        requestDto.setHeadCommit("def456");
+        requestDto.setBaseRequestId(7L);
+
+        assertEquals(HttpStatus.OK, analysisController.startAnalysis(requestDto).getStatusCode());
+        verify(requestRepository).save(argThat(request -> request.isIncremental()
+                && request.getBaseRequestId() == 7L
+                && "abc123".equals(request.getBaseCommit())
+                && "def456".equals(request.getHeadCommit())));
+
+        requestDto.setBaseRequestId(8L);
+        assertEquals(HttpStatus.BAD_REQUEST, analysisController.startAnalysis(requestDto).getStatusCode());
+        requestDto.setBaseRequestId(7L);
+        requestDto.setHeadCommit(null);
+        assertEquals(HttpStatus.BAD_REQUEST, analysisController.startAnalysis(requestDto).getStatusCode());
+
+        System.out.println("Інкрементальний запит прийнято, некоректну базу відхилено");
+    }
+
+    @Test
+    @DisplayName("Should accept a changed-lines analysis without a base analysis")
+    void testStartAnalysis_ChangedLinesOnly() {
+        System.out.println("Тест: запуск аналізу змінених рядків");
+
+        AnalysisRequest savedRequest = new AnalysisRequest("https://github.com/test/repo");
+        savedRequest.setId(3L);
+        when(requestRepository.save(any(AnalysisRequest.class))).thenReturn(savedRequest);
+
+        AnalysisRequestDto requestDto = new AnalysisRequestDto();
+        requestDto.setRepoUrl("https://github.com/test/repo");
+        requestDto.setBaseCommit("abc123");
+        requestDto.setHeadCommit("def456");
+        requestDto.setChangedLinesOnly(true);
+
+        assertEquals(HttpStatus.OK, analysisController.startAnalysis(requestDto).getStatusCode());
+        verify(requestRepository).save(argThat(request -> request.isIncremental()
+                && request.isChangedLinesOnly() && request.getBaseRequestId() == null));
+
+        requestDto.setBaseRequestId(7L);
+        assertEquals(HttpStatus.BAD_REQUEST, analysisController.startAnalysis(requestDto).getStatusCode());
+
+        System.out.println("Аналіз змінених рядків прийнято без базового аналізу");
+    }
+
+    @Test
+    @DisplayName("Should start a multi-configuration analysis and reject invalid configuration names")
+    void testStartAnalysis_SeveralConfigurations() {
+        System.out.println("Тест: запуск аналізу кількома конфігураціями");
+
+        AnalysisRequest savedRequest = new AnalysisRequest("https://github.com/test/repo");
+        savedRequest.setId(4L);
+        when(requestRepository.save(any(AnalysisRequest.class))).thenReturn(savedRequest);
+        when(configurationService.getConfigurationXml(anyString())).thenReturn(Optional.of("<module/>"));
+        when(configurationService.getConfigurationXml("missing")).thenReturn(Optional.empty());
+
+        AnalysisRequestDto requestDto = new AnalysisRequestDto();
+        requestDto.setRepoUrl("https://github.com/test/repo");
+        requestDto.setConfigNames(List.of("google", "sun"));
+
+        assertEquals(HttpStatus.OK, analysisController.startAnalysis(requestDto).getStatusCode());
+        verify(requestRepository).save(argThat(request -> request.getConfigNames().equals(List.of("google", "sun"))));
+
+        requestDto.setConfigNames(List.of("google", "google"));
+        assertEquals(HttpStatus.BAD_REQUEST, analysisController.startAnalysis(requestDto).getStatusCode());
+        requestDto.setConfigNames(List.of("google", "missing"));
+        assertEquals(HttpStatus.BAD_REQUEST, analysisController.startAnalysis(requestDto).getStatusCode());
+        requestDto.setConfigNames(List.of("a", "b", "c", "d", "e", "f"));
+        assertEquals(HttpStatus.BAD_REQUEST, analysisController.startAnalysis(requestDto).getStatusCode());
+        requestDto.setConfigNames(List.of("google"));
+        requestDto.setCheckstyleConfig("<module name=\"Checker\"/>");
+        assertEquals(HttpStatus.BAD_REQUEST, analysisController.startAnalysis(requestDto).getStatusCode());
+        verify(analysisService, times(1)).startAnalysisFlow(anyLong(), any());
+
+        System.out.println("Некоректні набори конфігурацій відхилено");
+    }
+
+    @Test
+    @DisplayName("Should filter results by configuration")
+    void testGetAnalysisResults_ByConfiguration() {
+        System.out.println("Тест: результати однієї конфігурації");
+
+        AnalysisResult result = new AnalysisResult();
+        result.setId(1L);
+        result.setFilePath("Test.java");
+        result.setLineNumber(3);
+        result.setSeverity("warning");
+        result.setMessage("Empty statement.");
+        result.setConfigName("google");
+        when(requestRepository.existsById(1L)).thenReturn(true);
+        when(resultRepository.findByRequestIdAndConfigName(1L, "google")).thenReturn(List.of(result));
+
+        ResponseEntity<List<AnalysisResultDto>> response = analysisController.getAnalysisResults(1L, "google");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().size());
+        assertEquals("google", response.getBody().get(0).getConfigName());
+        verify(resultRepository, never()).findByRequestId(anyLong());
+
+        System.out.println("Результати відфільтровано за конфігурацією");
+    }
+
+    @Test
+    @DisplayName("Should cancel a queued or running analysis and reject ended or unknown ones")
+    void testCancelAnalysis() {
+        System.out.println("Тест: скасування аналізу");
+
+        when(requestRepository.existsById(1L)).thenReturn(true);
+        when(requestRepository.existsById(2L)).thenReturn(true);
+        when(analysisService.cancelAnalysis(1L)).thenReturn(true);
+        when(analysisService.cancelAnalysis(2L)).thenReturn(false);
+
+        assertEquals(HttpStatus.ACCEPTED, analysisController.cancelAnalysis(1L).getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, analysisController.cancelAnalysis(2L).getStatusCode(),
+                "Завершений аналіз не скасовується");
+        assertEquals(HttpStatus.NOT_FOUND, analysisController.cancelAnalysis(3L).getStatusCode());
+        verify(analysisService, never()).cancelAnalysis(3L);
+
+        System.out.println("Скасування оброблено коректно");
+    }
+}
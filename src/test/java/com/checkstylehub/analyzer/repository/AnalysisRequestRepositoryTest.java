@@ -148,5 +148,59 @@ class AnalysisRequestRepositoryTest {
 
         System.out.println("Запит успішно видалено");
     }
-}
 
+    @Test
+    @DisplayName("Should find the latest completed analysis of a commit and configuration hash")
+    void testFindCompletedByCommitShaAndConfigHash() {
+        System.out.println("Тест: пошук завершеного аналізу коміту з тією ж конфігурацією");
+
+        String commitSha = "0123456789abcdef0123456789abcdef01234567";
+        AnalysisRequest older = requestFor(commitSha, "config", AnalysisRequest.RequestStatus.COMPLETED);
+        AnalysisRequest newer = requestFor(commitSha, "config", AnalysisRequest.RequestStatus.COMPLETED);
+        requestFor(commitSha, "config", AnalysisRequest.RequestStatus.FAILED);
+        requestFor(commitSha, "other", AnalysisRequest.RequestStatus.COMPLETED);
+        entityManager.flush();
+
+        Optional<AnalysisRequest> found = repository.findFirstByCommitShaAndConfigHashAndStatusOrderByIdDesc(
+                commitSha, "config", AnalysisRequest.RequestStatus.COMPLETED);
+        Optional<AnalysisRequest> missing = repository.findFirstByCommitShaAndConfigHashAndStatusOrderByIdDesc(
+                "fedcba9876543210fedcba9876543210fedcba98", "config", AnalysisRequest.RequestStatus.COMPLETED);
+
+        assertTrue(found.isPresent());
+        assertEquals(newer.getId(), found.get().getId(), "Має бути знайдено найновіший аналіз");
+        assertNotEquals(older.getId(), found.get().getId());
+        assertFalse(missing.isPresent());
+
+        System.out.println("Знайдено аналіз #" + found.get().getId());
+    }
+
+    private AnalysisRequest requestFor(String commitSha, String configHash, AnalysisRequest.RequestStatus status) {
+        AnalysisRequest request = new AnalysisRequest("https://github.com/test/repo");
+        request.setCommitSha(commitSha);
+        request.setConfigHash(configHash);
+        request.setStatus(status);
+        return repository.save(request);
+    }
+
+    @Test
+    @DisplayName("Should store statuses as plain strings without a generated check constraint")
+    void testStatusColumn_AcceptsAnyStatusName() {
+        System.out.println("Тест: статус зберігається як рядок");
+
+        AnalysisRequest request = new AnalysisRequest("https://github.com/test/repo");
+        request.setStatus(AnalysisRequest.RequestStatus.CANCELLED);
+        request.setCreatedAt(LocalDateTime.now());
+        Long id = repository.save(request).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(AnalysisRequest.RequestStatus.CANCELLED, repository.findById(id).orElseThrow().getStatus());
+        int updated = entityManager.getEntityManager()
+                .createNativeQuery("UPDATE analysis_requests SET status = 'FUTURE_STATUS' WHERE id = ?1")
+                .setParameter(1, id)
+                .executeUpdate();
+        assertEquals(1, updated, "Колонка не має обмежувати набір статусів");
+
+        System.out.println("Статус збережено як рядок");
+    }
+}
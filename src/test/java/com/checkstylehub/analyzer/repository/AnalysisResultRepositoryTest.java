@@ -0,0 +1,89 @@
+package com.checkstylehub.analyzer.repository;
+
+import com.checkstylehub.analyzer.entity.AnalysisRequest;
+import com.checkstylehub.analyzer.entity.AnalysisResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for AnalysisResultRepository.
+ * Tests carrying results over from one analysis to another.
+ */
+@DataJpaTest
+class AnalysisResultRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AnalysisResultRepository repository;
+
+    @Test
+    @DisplayName("Should copy the results of an analysis and drop those of changed files")
+    void testCopyResultsAndDeleteChangedFiles() {
+        System.out.println("Тест: перенесення результатів між аналізами");
+
+        AnalysisRequest base = entityManager.persist(new AnalysisRequest("https://github.com/test/repo"));
+        AnalysisRequest target = entityManager.persist(new AnalysisRequest("https://github.com/test/repo"));
+        entityManager.persist(result(base, "src/Kept.java", 3));
+        entityManager.persist(result(base, "src/Changed.java", 5));
+        entityManager.persist(result(base, "src/Changed.java", 8));
+        entityManager.flush();
+
+        int copied = repository.copyResults(base.getId(), target.getId());
+        int deleted = repository.deleteByRequestIdAndFilePathIn(target.getId(), List.of("src/Changed.java"));
+        entityManager.clear();
+
+        List<AnalysisResult> results = repository.findByRequestId(target.getId());
+        assertEquals(3, copied);
+        assertEquals(2, deleted);
+        assertEquals(1, results.size());
+        assertEquals("src/Kept.java", results.get(0).getFilePath());
+        assertEquals(3, repository.findByRequestId(base.getId()).size(), "Базовий аналіз не має змінюватися");
+
+        System.out.println("Перенесено результатів: " + results.size());
+    }
+
+    @Test
+    @DisplayName("Should keep the configuration of copied results and filter by it")
+    void testFindByConfigName() {
+        System.out.println("Тест: результати за конфігурацією");
+
+        AnalysisRequest base = entityManager.persist(new AnalysisRequest("https://github.com/test/repo"));
+        AnalysisRequest target = entityManager.persist(new AnalysisRequest("https://github.com/test/repo"));
+        AnalysisResult google = result(base, "src/A.java", 1);
+        google.setConfigName("google");
+        AnalysisResult sun = result(base, "src/A.java", 2);
+        sun.setConfigName("sun");
+        entityManager.persist(google);
+        entityManager.persist(sun);
+        entityManager.flush();
+
+        repository.copyResults(base.getId(), target.getId());
+        entityManager.clear();
+
+        List<AnalysisResult> results = repository.findByRequestIdAndConfigName(target.getId(), "sun");
+        assertEquals(1, results.size());
+        assertEquals(2, results.get(0).getLineNumber());
+        assertEquals("sun", results.get(0).getConfigName());
+
+        System.out.println("Конфігурацію збережено при перенесенні");
+    }
+
+    private static AnalysisResult result(AnalysisRequest request, String filePath, int lineNumber) {
+        AnalysisResult result = new AnalysisResult();
+        result.setRequest(request);
+        result.setFilePath(filePath);
+        result.setLineNumber(lineNumber);
+        result.setSeverity("warning");
+        result.setMessage("Test violation");
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.AnalysisProfileDto;
+import com.checkstylehub.analyzer.dto.AuditProfileDto;
+import com.checkstylehub.analyzer.entity.AnalysisRequest;
+import com.checkstylehub.analyzer.repository.AnalysisProfileEntryRepository;
+import com.checkstylehub.analyzer.repository.AnalysisRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for AnalysisProfileService.
+ * Tests storing profiles and listing the slowest files and checks.
+ */
+@DataJpaTest
+@Import({AnalysisProfileService.class, AnalyzerProperties.class})
+class AnalysisProfileServiceTest {
+
+    @Autowired
+    private AnalysisProfileService profileService;
+
+    @Autowired
+    private AnalysisProfileEntryRepository profileRepository;
+
+    @Autowired
+    private AnalysisRequestRepository requestRepository;
+
+    @Autowired
+    private AnalyzerProperties properties;
+
+    private Long requestId;
+
+    @BeforeEach
+    void setUp() {
+        requestId = requestRepository.save(new AnalysisRequest("https://github.com/test/repo")).getId();
+        System.out.println("Початок тесту AnalysisProfileService");
+    }
+
+    @Test
+    @DisplayName("Should list the slowest files and checks first")
+    void testSaveAndGetProfile() {
+        System.out.println("Тест: збереження та читання профілю");
+
+        AuditProfileDto profile = new AuditProfileDto();
+        profile.addCheckTime("LineLength", 2_000_000);
+        profile.addCheckTime("JavadocMethod", 9_000_000);
+        profile.addCheckTime("EmptyStatement", 500_000);
+        profile.addFileTime("/tmp/repo/src/Fast.java", 1_000_000);
+        profile.addFileTime("/tmp/repo/src/Slow.java", 7_000_000);
+
+        profileService.save(requestId, profile, fileName -> fileName.substring("/tmp/repo/".length()));
+        Optional<AnalysisProfileDto> loaded = profileService.getProfile(requestId, 2);
+
+        assertTrue(loaded.isPresent());
+        assertEquals(2, loaded.get().getSlowestChecks().size(), "Кількість перевірок обмежується лімітом");
+        assertEquals("JavadocMethod", loaded.get().getSlowestChecks().get(0).getName());
+        assertEquals(9.0, loaded.get().getSlowestChecks().get(0).getDurationMillis());
+        assertEquals("src/Slow.java", loaded.get().getSlowestFiles().get(0).getName());
+
+        System.out.println("Найповільніша перевірка: " + loaded.get().getSlowestChecks().get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Should store only the configured number of slowest files")
+    void testSave_LimitsStoredFiles() {
+        System.out.println("Тест: обмеження кількості збережених файлів");
+
+        properties.getProfiling().setStoredFiles(1);
+        AuditProfileDto profile = new AuditProfileDto();
+        profile.addCheckTime("LineLength", 1_000);
+        profile.addFileTime("A.java", 1_000);
+        profile.addFileTime("B.java", 5_000);
+
+        profileService.save(requestId, profile, fileName -> fileName);
+
+        assertEquals(2, profileRepository.count(), "Має бути збережено одну перевірку та один файл");
+        assertEquals("B.java", profileService.getProfile(requestId, 10).orElseThrow().getSlowestFiles().get(0).getName());
+        assertTrue(profileService.getProfile(requestId + 1, 10).isEmpty());
+
+        System.out.println("Збережено записів: " + profileRepository.count());
+    }
+}
@@ -0,0 +1,310 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.AuditProfileDto;
+import com.checkstylehub.analyzer.dto.AuditReportDto;
+import com.checkstylehub.analyzer.dto.CommitDiffDto;
+import com.checkstylehub.analyzer.entity.AnalysisRequest;
+import com.checkstylehub.analyzer.repository.AnalysisLogRepository;
+import com.checkstylehub.analyzer.repository.AnalysisRequestRepository;
+import com.checkstylehub.analyzer.repository.AnalysisResultRepository;
+import com.checkstylehub.analyzer.repository.SkippedFileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AnalysisService.
+ * Tests the analysis flow with the default, a custom and several named configurations.
+ */
+class AnalysisServiceTest {
+
+    private static final String ACTIVE_XML = "<module name=\"Checker\"><!-- active --></module>";
+    private static final String CUSTOM_XML = "<module name=\"Checker\"><!-- custom --></module>";
+    private static final String BASE_SHA = "b".repeat(40);
+
+    @TempDir
+    Path tempDir;
+    @Mock
+    private GitService gitService;
+    @Mock
+    private CheckstyleService checkstyleService;
+    @Mock
+    private CheckstyleConfigurationService configurationService;
+    @Mock
+    private ResultWriterService resultWriterService;
+    @Mock
+    private AnalysisProfileService profileService;
+    @Mock
+    private AnalysisRequestRepository requestRepository;
+    @Mock
+    private AnalysisResultRepository resultRepository;
+    @Mock
+    private SkippedFileRepository skippedFileRepository;
+    @Mock
+    private AnalysisLogRepository logRepository;
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    private AnalysisService analysisService;
+    private AnalysisRequest request;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        AnalyzerProperties properties = new AnalyzerProperties();
+        analysisService = new AnalysisService(gitService, checkstyleService, configurationService,
+                new FileDiscoveryService(properties), resultWriterService, profileService, requestRepository,
+                resultRepository, skippedFileRepository, logRepository, messagingTemplate, properties);
+
+        Files.writeString(tempDir.resolve("App.java"), "public class App {\n}\n");
+        request = new AnalysisRequest("https://github.com/test/repo");
+        request.setId(1L);
+        when(requestRepository.findById(1L)).thenReturn(Optional.of(request));
+        when(requestRepository.save(any(AnalysisRequest.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(gitService.resolveRemoteHead(anyString())).thenReturn("a".repeat(40));
+        when(gitService.resolveHead(tempDir)).thenReturn("a".repeat(40));
+        when(gitService.checkoutSources(anyString(), any(), any(), any()))
+                .thenReturn(new SourceCheckout(tempDir, null, List.of()));
+        when(resultWriterService.open(anyLong(), any(), any()))
+                .thenAnswer(invocation -> mock(ResultWriterService.ResultStream.class));
+        when(configurationService.getActiveConfigurationXml()).thenReturn(ACTIVE_XML);
+        when(checkstyleService.audit(any(Path.class), any(FileBatchSource.class), anyMap(), any(), any()))
+                .thenAnswer(invocation -> {
+                    FileBatchSource source = invocation.getArgument(1);
+                    AuditOptions options = invocation.getArgument(4);
+                    AuditBudget budget = options.getBudget();
+                    int files = 0;
+                    while (!budget.isExhausted()) {
+                        List<Path> batch = source.nextBatch();
+                        if (batch.isEmpty()) {
+                            break;
+                        }
+                        files += batch.size();
+                    }
+                    Map<String, AuditReportDto> reports = new LinkedHashMap<>();
+                    for (String configName : invocation.<Map<String, String>>getArgument(2).keySet()) {
+                        AuditReportDto report = new AuditReportDto(List.of(), 0, files, 0);
+                        report.setPartial(budget.isStopped());
+                        if (options.isProfile()) {
+                            report.setProfile(new AuditProfileDto());
+                        }
+                        reports.put(configName, report);
+                    }
+                    return reports;
+                });
+        System.out.println("Початок тесту AnalysisService");
+    }
+
+    @Test
+    @DisplayName("Should audit with the active configuration and hash its XML")
+    void testStartAnalysisFlow_DefaultConfiguration() throws Exception {
+        System.out.println("Тест: аналіз з активною конфігурацією");
+
+        analysisService.startAnalysisFlow(1L, null);
+
+        assertEquals(AnalysisRequest.RequestStatus.COMPLETED, request.getStatus(), request.getErrorMessage());
+        assertEquals(1, auditedConfigurations().size());
+        assertEquals(ACTIVE_XML, auditedConfigurations().get(null), "Аудит має отримати активну конфігурацію");
+        String activeHash = request.getConfigHash();
+        assertNotNull(activeHash);
+
+        request.setStatus(AnalysisRequest.RequestStatus.PENDING);
+        when(configurationService.getActiveConfigurationXml()).thenReturn(CUSTOM_XML);
+        analysisService.startAnalysisFlow(1L, "  ");
+        assertNotEquals(activeHash, request.getConfigHash(), "Зміна активної конфігурації змінює хеш");
+
+        System.out.println("Аналіз з активною конфігурацією завершено");
+    }
+
+    @Test
+    @DisplayName("Should audit with the custom configuration of the request")
+    void testStartAnalysisFlow_CustomConfiguration() throws Exception {
+        System.out.println("Тест: аналіз з власною конфігурацією");
+
+        analysisService.startAnalysisFlow(1L, CUSTOM_XML);
+
+        assertEquals(AnalysisRequest.RequestStatus.COMPLETED, request.getStatus(), request.getErrorMessage());
+        assertEquals(CUSTOM_XML, auditedConfigurations().get(null));
+        assertNotNull(request.getConfigHash());
+        verify(configurationService, never()).getActiveConfigurationXml();
+
+        System.out.println("Аналіз з власною конфігурацією завершено");
+    }
+
+    @Test
+    @DisplayName("Should audit with all named configurations")
+    void testStartAnalysisFlow_NamedConfigurations() throws Exception {
+        System.out.println("Тест: аналіз з кількома конфігураціями");
+
+        request.setConfigNames(List.of("google", "sun"));
+        when(configurationService.getConfigurationXml("google")).thenReturn(Optional.of(ACTIVE_XML));
+        when(configurationService.getConfigurationXml("sun")).thenReturn(Optional.of(CUSTOM_XML));
+
+        analysisService.startAnalysisFlow(1L, null);
+
+        assertEquals(AnalysisRequest.RequestStatus.COMPLETED, request.getStatus(), request.getErrorMessage());
+        assertEquals(Map.of("google", ACTIVE_XML, "sun", CUSTOM_XML), auditedConfigurations());
+        assertNotNull(request.getConfigHash());
+
+        System.out.println("Аналіз з кількома конфігураціями завершено");
+    }
+
+    @Test
+    @DisplayName("Should carry over results of an analysis of the base commit with the same configuration")
+    void testStartAnalysisFlow_IncrementalBase() throws Exception {
+        System.out.println("Тест: перенесення результатів базового аналізу");
+
+        incrementalBase();
+        when(resultRepository.copyResults(2L, 1L)).thenReturn(3);
+
+        analysisService.startAnalysisFlow(1L, null);
+
+        assertEquals(AnalysisRequest.RequestStatus.COMPLETED, request.getStatus(), request.getErrorMessage());
+        verify(resultRepository).copyResults(2L, 1L);
+        verify(resultRepository).deleteByRequestIdAndFilePathIn(1L, List.of("App.java"));
+
+        System.out.println("Результати базового аналізу перенесено");
+    }
+
+    @Test
+    @DisplayName("Should reject a base analysis of another commit than the base commit")
+    void testStartAnalysisFlow_IncrementalBaseOfOtherCommit() throws Exception {
+        System.out.println("Тест: базовий аналіз іншого коміту");
+
+        AnalysisRequest base = incrementalBase();
+        base.setCommitSha("c".repeat(40));
+
+        analysisService.startAnalysisFlow(1L, null);
+
+        assertEquals(AnalysisRequest.RequestStatus.FAILED, request.getStatus());
+        assertTrue(request.getErrorMessage().contains("коміту"), request.getErrorMessage());
+        verify(resultRepository, never()).copyResults(anyLong(), anyLong());
+
+        System.out.println("Базовий аналіз іншого коміту відхилено");
+    }
+
+    @Test
+    @DisplayName("Should reject a base analysis made with another configuration or other globs")
+    void testStartAnalysisFlow_IncrementalBaseWithOtherConfiguration() throws Exception {
+        System.out.println("Тест: базовий аналіз з іншою конфігурацією");
+
+        incrementalBase();
+        when(configurationService.getActiveConfigurationXml()).thenReturn(CUSTOM_XML);
+
+        analysisService.startAnalysisFlow(1L, null);
+
+        assertEquals(AnalysisRequest.RequestStatus.FAILED, request.getStatus());
+        assertTrue(request.getErrorMessage().contains("конфігурацією"), request.getErrorMessage());
+        verify(resultRepository, never()).copyResults(anyLong(), anyLong());
+
+        request.setStatus(AnalysisRequest.RequestStatus.PENDING);
+        when(configurationService.getActiveConfigurationXml()).thenReturn(ACTIVE_XML);
+        request.setExcludeGlobs(List.of("**/generated/**"));
+        analysisService.startAnalysisFlow(1L, null);
+        assertEquals(AnalysisRequest.RequestStatus.FAILED, request.getStatus(), "Інші шаблони пошуку змінюють хеш");
+        verify(resultRepository, never()).copyResults(anyLong(), anyLong());
+
+        System.out.println("Базовий аналіз з іншою конфігурацією відхилено");
+    }
+
+    @Test
+    @DisplayName("Should end as partial when the time limit runs out before the first batch")
+    void testStartAnalysisFlow_BudgetExpiredBeforeAudit() throws Exception {
+        System.out.println("Тест: ліміт часу вичерпано до аудиту");
+
+        request.setMaxDurationSeconds(1L);
+        when(gitService.checkoutSources(anyString(), any(), any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(1100);
+            return new SourceCheckout(tempDir, null, List.of());
+        });
+
+        analysisService.startAnalysisFlow(1L, null);
+
+        assertEquals(AnalysisRequest.RequestStatus.PARTIAL, request.getStatus(), request.getErrorMessage());
+        assertTrue(request.getErrorMessage().contains("ліміт часу"), request.getErrorMessage());
+
+        System.out.println("Аналіз без перевірених файлів завершено частково");
+    }
+
+    @Test
+    @DisplayName("Should fail on a repository without Java files")
+    void testStartAnalysisFlow_NoJavaFiles() throws Exception {
+        System.out.println("Тест: репозиторій без файлів Java");
+
+        Files.delete(tempDir.resolve("App.java"));
+
+        analysisService.startAnalysisFlow(1L, null);
+
+        assertEquals(AnalysisRequest.RequestStatus.FAILED, request.getStatus());
+        assertTrue(request.getErrorMessage().contains("не містить файлів Java"), request.getErrorMessage());
+
+        System.out.println("Репозиторій без файлів Java відхилено");
+    }
+
+    @Test
+    @DisplayName("Should end as cancelled when cancelled while its last results are saved")
+    void testStartAnalysisFlow_CancelledAfterResultsSaved() throws Exception {
+        System.out.println("Тест: скасування під час збереження профілю");
+
+        request.setProfiled(true);
+        doAnswer(invocation -> {
+            assertTrue(analysisService.cancelAnalysis(1L), "Аналіз ще виконується");
+            return null;
+        }).when(profileService).save(anyLong(), any(), any());
+
+        analysisService.startAnalysisFlow(1L, null);
+
+        assertEquals(AnalysisRequest.RequestStatus.CANCELLED, request.getStatus());
+        verify(resultRepository).deleteByRequestId(1L);
+        assertFalse(analysisService.cancelAnalysis(1L), "Завершений аналіз не можна скасувати");
+
+        System.out.println("Пізнє скасування завершило аналіз зі статусом CANCELLED");
+    }
+
+    /**
+     * Makes the request an incremental analysis v1..v2 on top of a completed analysis #2 of the same
+     * repository, whose commit and configuration hash match the request.
+     */
+    private AnalysisRequest incrementalBase() throws Exception {
+        analysisService.startAnalysisFlow(1L, null);
+        AnalysisRequest base = new AnalysisRequest(request.getRepoUrl());
+        base.setId(2L);
+        base.setStatus(AnalysisRequest.RequestStatus.COMPLETED);
+        base.setCommitSha(BASE_SHA);
+        base.setConfigHash(request.getConfigHash());
+        when(requestRepository.findById(2L)).thenReturn(Optional.of(base));
+        when(gitService.resolveCommit(tempDir, "v1")).thenReturn(BASE_SHA);
+        when(gitService.diffCommits(tempDir, "v1", "v2")).thenReturn(new CommitDiffDto(List.of("App.java"), List.of()));
+
+        request.setStatus(AnalysisRequest.RequestStatus.PENDING);
+        request.setBaseCommit("v1");
+        request.setHeadCommit("v2");
+        request.setBaseRequestId(2L);
+        clearInvocations(resultRepository);
+        return base;
+    }
+
+    private Map<String, String> auditedConfigurations() throws Exception {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, String>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(checkstyleService, atLeastOnce()).audit(any(Path.class), any(FileBatchSource.class),
+                captor.capture(), any(), any());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,181 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CheckerPool.
+ * Tests reuse of configured Checkers, listener reset between jobs and idle eviction.
+ */
+class CheckerPoolTest {
+
+    private static final String CONFIG_XML = """
+            <?xml version="1.0"?>
+            <!DOCTYPE module PUBLIC
+                "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                "https://checkstyle.org/dtds/configuration_1_3.dtd">
+            <module name="Checker">
+                <property name="charset" value="UTF-8"/>
+                <module name="TreeWalker">
+                    <module name="EmptyStatement"/>
+                </module>
+            </module>
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private AnalyzerProperties properties;
+    private MeterRegistry meterRegistry;
+    private CheckerPool checkerPool;
+    private Configuration config;
+    private String configHash;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new AnalyzerProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        checkerPool = new CheckerPool(properties, meterRegistry);
+        config = new CheckstyleConfigurationCache(properties, meterRegistry, checkerPool).getConfiguration(CONFIG_XML);
+        configHash = CheckstyleConfigurationCache.hash(CONFIG_XML);
+        System.out.println("Початок тесту CheckerPool");
+    }
+
+    @AfterEach
+    void tearDown() {
+        checkerPool.destroy();
+    }
+
+    @Test
+    @DisplayName("Should reuse a released Checker for the same configuration")
+    void testBorrowReusesReleasedChecker() throws Exception {
+        System.out.println("Тест: повторне використання Checker");
+
+        Checker first = checkerPool.borrow(configHash, config);
+        checkerPool.release(configHash, first, true);
+        Checker second = checkerPool.borrow(configHash, config);
+
+        assertSame(first, second, "Має бути повернуто той самий екземпляр");
+        assertEquals(1.0, meterRegistry.get("analyzer.checkstyle.checker.pool").tag("result", "reused").counter().count());
+
+        System.out.println("Checker успішно використано повторно");
+    }
+
+    @Test
+    @DisplayName("Should not reuse a Checker released after a failed audit")
+    void testReleaseNotReusable() throws Exception {
+        System.out.println("Тест: Checker після невдалого аналізу");
+
+        Checker first = checkerPool.borrow(configHash, config);
+        checkerPool.release(configHash, first, false);
+
+        assertEquals(0, checkerPool.idleCount(), "Зіпсований Checker не має повертатися в пул");
+        assertNotSame(first, checkerPool.borrow(configHash, config));
+
+        System.out.println("Зіпсований Checker знищено");
+    }
+
+    @Test
+    @DisplayName("Should deliver events only to the listener of the current job")
+    void testListenerResetBetweenJobs() throws Exception {
+        System.out.println("Тест: скидання слухачів між задачами");
+
+        Path javaFile = tempDir.resolve("Bad.java");
+        Files.writeString(javaFile, "public class Bad {\n    void test() {\n        ;\n    }\n}\n");
+
+        AtomicInteger firstJob = new AtomicInteger();
+        AtomicInteger secondJob = new AtomicInteger();
+
+        runJob(javaFile, firstJob);
+        runJob(javaFile, secondJob);
+
+        assertEquals(1, firstJob.get(), "Перша задача має отримати лише власне порушення");
+        assertEquals(1, secondJob.get(), "Друга задача має отримати лише власне порушення");
+
+        System.out.println("Слухачі коректно скинуті між задачами");
+    }
+
+    @Test
+    @DisplayName("Should destroy Checkers idle longer than the timeout")
+    void testIdleEviction() throws Exception {
+        System.out.println("Тест: витіснення неактивних Checker");
+
+        properties.getCheckstyle().setCheckerPoolIdleTimeout(Duration.ZERO);
+        checkerPool.release(configHash, checkerPool.borrow(configHash, config), true);
+        Thread.sleep(5);
+
+        Checker next = checkerPool.borrow("other", config);
+        checkerPool.release("other", next, true);
+
+        assertEquals(1, checkerPool.idleCount(), "Неактивний Checker має бути знищений");
+
+        System.out.println("Неактивні Checker успішно витіснено");
+    }
+
+    @Test
+    @DisplayName("Should destroy a Checker released after its configuration was evicted")
+    void testReleaseAfterEviction() throws Exception {
+        System.out.println("Тест: повернення Checker після витіснення конфігурації");
+
+        Checker borrowed = checkerPool.borrow(configHash, config);
+        checkerPool.evict(configHash);
+        checkerPool.release(configHash, borrowed, true);
+
+        assertEquals(0, checkerPool.idleCount(), "Checker витісненої конфігурації не має повертатися в пул");
+        assertNotSame(borrowed, checkerPool.borrow(configHash, config));
+
+        System.out.println("Checker витісненої конфігурації знищено");
+    }
+
+    private void runJob(Path javaFile, AtomicInteger counter) throws Exception {
+        AuditListener listener = new AuditListener() {
+            @Override
+            public void auditStarted(AuditEvent event) {
+            }
+
+            @Override
+            public void auditFinished(AuditEvent event) {
+            }
+
+            @Override
+            public void fileStarted(AuditEvent event) {
+            }
+
+            @Override
+            public void fileFinished(AuditEvent event) {
+            }
+
+            @Override
+            public void addError(AuditEvent event) {
+                counter.incrementAndGet();
+            }
+
+            @Override
+            public void addException(AuditEvent event, Throwable throwable) {
+            }
+        };
+        Checker checker = checkerPool.borrow(configHash, config);
+        checker.addListener(listener);
+        checker.process(List.of(javaFile.toFile()));
+        checker.removeListener(listener);
+        checkerPool.release(configHash, checker, true);
+    }
+}
@@ -0,0 +1,97 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CheckstyleCacheFileService.
+ * Tests cache and timings file round trips, per-repository separation and LRU eviction under the disk quota.
+ */
+class CheckstyleCacheFileServiceTest {
+
+    private static final String REPO_URL = "https://github.com/example/repo.git";
+
+    @TempDir
+    Path tempDir;
+
+    private AnalyzerProperties properties;
+    private CheckstyleCacheFileService cacheFileService;
+    private String configHash;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AnalyzerProperties();
+        properties.getCacheFiles().setDirectory(tempDir.resolve("cache-files"));
+        cacheFileService = new CheckstyleCacheFileService(properties);
+        configHash = CheckstyleConfigurationCache.hash("<module name=\"Checker\"/>");
+        System.out.println("Початок тесту CheckstyleCacheFileService");
+    }
+
+    @Test
+    @DisplayName("Should load the files stored for the same repository and configuration")
+    void testStoreAndLoad() {
+        System.out.println("Тест: збереження та читання файлу кешу");
+
+        cacheFileService.store(REPO_URL, configHash, Map.of("src/A.java", "abc", "src/B.java", "def"));
+
+        Map<String, String> loaded = cacheFileService.load("https://github.com/example/repo", configHash);
+
+        assertEquals(Map.of("src/A.java", "abc", "src/B.java", "def"), loaded,
+                "Різні написання URL одного репозиторію мають використовувати один файл кешу");
+        assertTrue(cacheFileService.load("https://github.com/example/other", configHash).isEmpty());
+        assertTrue(cacheFileService.load(REPO_URL, CheckstyleConfigurationCache.hash("other")).isEmpty());
+
+        System.out.println("Файл кешу прочитано: " + loaded.size() + " записів");
+    }
+
+    @Test
+    @DisplayName("Should keep file timings per repository and configuration")
+    void testStoreAndLoadTimings() {
+        System.out.println("Тест: збереження часу аналізу файлів");
+
+        cacheFileService.storeTimings(REPO_URL, configHash, Map.of("src/A.java", 1_500_000L, "src/B.java", 20_000L));
+
+        assertEquals(Map.of("src/A.java", 1_500_000L, "src/B.java", 20_000L),
+                cacheFileService.loadTimings(REPO_URL, configHash));
+        assertTrue(cacheFileService.load(REPO_URL, configHash).isEmpty(), "Час аналізу не є записом кешу");
+        assertTrue(cacheFileService.loadTimings("https://github.com/example/other", configHash).isEmpty());
+
+        System.out.println("Час аналізу прочитано");
+    }
+
+    @Test
+    @DisplayName("Should delete least recently used cache files beyond the disk quota")
+    void testEnforceQuota_EvictsLeastRecentlyUsed() throws Exception {
+        System.out.println("Тест: витіснення файлів кешу за квотою");
+
+        Map<String, String> entries = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            entries.put("src/File" + i + ".java", "0123456789012345678901234567890123456789");
+        }
+        cacheFileService.store("https://github.com/example/old", configHash, entries);
+        Path oldFile = cacheFileService.cacheFile("https://github.com/example/old", configHash);
+        Files.setLastModifiedTime(oldFile, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        long singleFileSize = Files.size(oldFile);
+
+        properties.getCacheFiles().setMaxDiskSize(DataSize.ofBytes(singleFileSize + singleFileSize / 2));
+        cacheFileService.store("https://github.com/example/new", configHash, entries);
+
+        assertFalse(Files.exists(oldFile), "Найдавніше використаний файл кешу має бути видалено");
+        assertTrue(Files.exists(cacheFileService.cacheFile("https://github.com/example/new", configHash)));
+        assertTrue(cacheFileService.diskUsage() <= properties.getCacheFiles().getMaxDiskSize().toBytes());
+
+        System.out.println("Використано диску: " + cacheFileService.diskUsage() + " байт");
+    }
+}
@@ -0,0 +1,108 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CheckstyleConfigurationCache.
+ * Tests hashing, cache hits and misses, invalidation and LRU eviction.
+ */
+class CheckstyleConfigurationCacheTest {
+
+    private static final String CONFIG_XML = """
+            <?xml version="1.0"?>
+            <!DOCTYPE module PUBLIC
+                "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                "https://checkstyle.org/dtds/configuration_1_3.dtd">
+            <module name="Checker">
+                <property name="charset" value="UTF-8"/>
+                <module name="TreeWalker">
+                    <module name="EmptyStatement"/>
+                </module>
+            </module>
+            """;
+
+    private MeterRegistry meterRegistry;
+    private AnalyzerProperties properties;
+    private CheckerPool checkerPool;
+    private CheckstyleConfigurationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new AnalyzerProperties();
+        checkerPool = new CheckerPool(properties, meterRegistry);
+        cache = new CheckstyleConfigurationCache(properties, meterRegistry, checkerPool);
+        System.out.println("Початок тесту CheckstyleConfigurationCache");
+    }
+
+    @Test
+    @DisplayName("Should reuse parsed configuration and count hits and misses")
+    void testGetConfiguration_HitAfterMiss() throws CheckstyleException {
+        System.out.println("Тест: повторне використання розібраної конфігурації");
+
+        Configuration first = cache.getConfiguration(CONFIG_XML);
+        Configuration second = cache.getConfiguration(CONFIG_XML.replace("\n", "\r\n"));
+
+        assertSame(first, second, "Однаковий XML з іншими закінченнями рядків має давати той самий об'єкт");
+        assertEquals(1.0, meterRegistry.get("analyzer.checkstyle.config.cache").tag("result", "miss").counter().count());
+        assertEquals(1.0, meterRegistry.get("analyzer.checkstyle.config.cache").tag("result", "hit").counter().count());
+
+        System.out.println("Кеш конфігурацій працює коректно");
+    }
+
+    @Test
+    @DisplayName("Should reload configuration after invalidation")
+    void testInvalidate() throws CheckstyleException {
+        System.out.println("Тест: інвалідація конфігурації");
+
+        Configuration first = cache.getConfiguration(CONFIG_XML);
+        String configHash = CheckstyleConfigurationCache.hash(CONFIG_XML);
+        checkerPool.release(configHash, checkerPool.borrow(configHash, first), true);
+        assertEquals(1, checkerPool.idleCount());
+
+        cache.invalidate(CONFIG_XML);
+        Configuration reloaded = cache.getConfiguration(CONFIG_XML);
+
+        assertNotSame(first, reloaded, "Після інвалідації конфігурація має бути завантажена заново");
+        assertEquals(0, checkerPool.idleCount(), "Інвалідація має знищити Checker-и застарілої конфігурації");
+        assertEquals(2.0, meterRegistry.get("analyzer.checkstyle.config.cache").tag("result", "miss").counter().count());
+
+        System.out.println("Інвалідація працює коректно");
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used configuration when full")
+    void testEviction() throws CheckstyleException {
+        System.out.println("Тест: витіснення найдавніше використаної конфігурації");
+
+        properties.getCheckstyle().setConfigCacheSize(1);
+        cache = new CheckstyleConfigurationCache(properties, new SimpleMeterRegistry(), checkerPool);
+
+        cache.getConfiguration(CONFIG_XML);
+        cache.getConfiguration(CONFIG_XML.replace("EmptyStatement", "EmptyBlock"));
+
+        assertEquals(1, cache.size(), "Кеш не має перевищувати максимальний розмір");
+
+        System.out.println("Витіснення працює коректно");
+    }
+
+    @Test
+    @DisplayName("Should throw CheckstyleException for invalid XML")
+    void testGetConfiguration_InvalidXml() {
+        System.out.println("Тест: невалідний XML конфігурації");
+
+        assertThrows(CheckstyleException.class, () -> cache.getConfiguration("<invalid>xml</invalid>"));
+        assertEquals(0, cache.size(), "Невалідна конфігурація не має потрапляти в кеш");
+
+        System.out.println("Виняток коректно викинуто");
+    }
+}
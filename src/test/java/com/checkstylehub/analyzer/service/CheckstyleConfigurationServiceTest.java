@@ -31,6 +31,9 @@ class CheckstyleConfigurationServiceTest {
     @Mock
     private CheckstyleXmlConverter xmlConverter;
 
+    @Mock
+    private CheckstyleConfigurationCache configurationCache;
+
     @InjectMocks
     private CheckstyleConfigurationService configurationService;
 
@@ -137,6 +140,7 @@ class CheckstyleConfigurationServiceTest {
         assertNotNull(result, "Оновлена конфігурація не повинна бути null");
         assertEquals(newXml, result.getXmlContent());
         verify(configurationRepository, times(1)).save(any(CheckstyleConfiguration.class));
+        verify(configurationCache, times(1)).invalidate(sampleXml);
 
         System.out.println("Конфігурацію успішно оновлено з XML");
     }
@@ -165,6 +169,7 @@ class CheckstyleConfigurationServiceTest {
         assertNotNull(result, "Оновлені правила не повинні бути null");
         verify(xmlConverter, times(1)).generateXmlFromDto(rulesDto);
         verify(configurationRepository, times(1)).save(any(CheckstyleConfiguration.class));
+        verify(configurationCache, times(1)).invalidate(sampleXml);
 
         System.out.println("Конфігурацію успішно оновлено зі структурованих правил");
     }
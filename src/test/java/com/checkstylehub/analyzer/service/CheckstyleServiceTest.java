@@ -1,11 +1,17 @@
 package com.checkstylehub.analyzer.service;
 
-import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.AuditReportDto;
+import com.checkstylehub.analyzer.dto.SkippedFileDto;
+import com.checkstylehub.analyzer.dto.ViolationDto;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -13,8 +19,17 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -27,15 +42,36 @@ class CheckstyleServiceTest {
     Path tempDir;
     @Mock
     private CheckstyleConfigurationService configurationService;
+    @Mock
+    private ViolationCacheService violationCacheService;
     private CheckstyleService checkstyleService;
+    private AnalyzerProperties properties;
+    private ExecutorService executor;
+    private ScheduledExecutorService watchdogExecutor;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        checkstyleService = new CheckstyleService(configurationService);
+        properties = new AnalyzerProperties();
+        properties.getCacheFiles().setDirectory(tempDir.resolve("cache-files"));
+        executor = Executors.newFixedThreadPool(4);
+        watchdogExecutor = Executors.newSingleThreadScheduledExecutor();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CheckerPool checkerPool = new CheckerPool(properties, meterRegistry);
+        CheckstyleConfigurationCache configurationCache =
+                new CheckstyleConfigurationCache(properties, meterRegistry, checkerPool);
+        checkstyleService = new CheckstyleService(configurationService, new FileDiscoveryService(properties),
+                configurationCache, checkerPool, violationCacheService, new CheckstyleCacheFileService(properties),
+                executor, watchdogExecutor, properties);
         System.out.println("Початок тесту CheckstyleService");
     }
 
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        watchdogExecutor.shutdownNow();
+    }
+
     @Test
     @DisplayName("Should find all Java files in directory")
     void testFindJavaFiles() throws IOException {
@@ -131,7 +167,7 @@ class CheckstyleServiceTest {
 
         List<Path> javaFiles = List.of(javaFile);
 
-        List<AuditEvent> violations = checkstyleService.runCheckstyle(tempDir, javaFiles, null);
+        List<ViolationDto> violations = checkstyleService.runCheckstyle(tempDir, javaFiles, null);
 
         assertNotNull(violations, "Результат аналізу не повинен бути null");
         assertTrue(violations.size() >= 0, "Має повернути список порушень");
@@ -171,7 +207,7 @@ class CheckstyleServiceTest {
 
         List<Path> javaFiles = List.of(javaFile);
 
-        List<AuditEvent> violations = checkstyleService.runCheckstyle(tempDir, javaFiles, customXml);
+        List<ViolationDto> violations = checkstyleService.runCheckstyle(tempDir, javaFiles, customXml);
 
         assertNotNull(violations, "Результат аналізу не повинен бути null");
 
@@ -198,5 +234,553 @@ class CheckstyleServiceTest {
 
         System.out.println("Виняток коректно викинуто для невалідної конфігурації");
     }
-}
 
+    @Test
+    @DisplayName("Should produce the same violations in parallel and sequential mode")
+    void testRunCheckstyle_ParallelShardsMatchSequential() throws Exception {
+        System.out.println("Тест: паралельний аналіз шардами");
+
+        String configXml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE module PUBLIC
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                    "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                <module name="Checker">
+                    <property name="charset" value="UTF-8"/>
+                    <module name="TreeWalker">
+                        <module name="EmptyStatement"/>
+                    </module>
+                </module>
+                """;
+
+        Path srcDir = tempDir.resolve("src");
+        Files.createDirectories(srcDir);
+        List<Path> javaFiles = new java.util.ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Path javaFile = srcDir.resolve("Bad" + i + ".java");
+            Files.writeString(javaFile, "public class Bad" + i + " {\n    void test() {\n        ;\n    }\n}\n");
+            javaFiles.add(javaFile);
+        }
+
+        properties.getCheckstyle().setParallel(false);
+        List<ViolationDto> sequential = checkstyleService.runCheckstyle(tempDir, javaFiles, configXml);
+
+        properties.getCheckstyle().setParallel(true);
+        properties.getCheckstyle().setMinFilesPerShard(2);
+        properties.getCheckstyle().setMaxShards(4);
+        List<ViolationDto> parallel = checkstyleService.runCheckstyle(tempDir, javaFiles, configXml);
+
+        assertEquals(8, sequential.size(), "Кожен файл має містити одне порушення");
+        assertEquals(sequential.size(), parallel.size(), "Паралельний режим має знайти ті самі порушення");
+
+        System.out.println("Паралельний аналіз знайшов " + parallel.size() + " порушень");
+    }
+
+    @Test
+    @DisplayName("Should adapt shard count to file count and limits")
+    void testComputeShardCount() {
+        System.out.println("Тест: обчислення кількості шардів");
+
+        properties.getCheckstyle().setMinFilesPerShard(100);
+        properties.getCheckstyle().setMaxShards(8);
+
+        assertEquals(1, checkstyleService.computeShardCount(10), "Малий репозиторій не ділиться на шарди");
+        assertEquals(3, checkstyleService.computeShardCount(350));
+        assertEquals(8, checkstyleService.computeShardCount(40_000), "Кількість шардів обмежена maxShards");
+
+        properties.getCheckstyle().setParallel(false);
+        assertEquals(1, checkstyleService.computeShardCount(40_000), "Вимкнений паралельний режим");
+
+        System.out.println("Кількість шардів обчислено коректно");
+    }
+
+    @Test
+    @DisplayName("Should reuse cached violations and audit only cache misses")
+    void testAudit_UsesViolationCache() throws Exception {
+        System.out.println("Тест: використання кешу порушень");
+
+        String configXml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE module PUBLIC
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                    "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                <module name="Checker">
+                    <property name="charset" value="UTF-8"/>
+                    <module name="TreeWalker">
+                        <module name="EmptyStatement"/>
+                    </module>
+                </module>
+                """;
+
+        Path srcDir = tempDir.resolve("src");
+        Files.createDirectories(srcDir);
+        Path cachedFile = srcDir.resolve("Cached.java");
+        Path freshFile = srcDir.resolve("Fresh.java");
+        Files.writeString(cachedFile, "public class Cached {}\n");
+        Files.writeString(freshFile, "public class Fresh {\n    void test() {\n        ;\n    }\n}\n");
+
+        String cachedKey = ViolationCacheService.fileKey("src/Cached.java",
+                ViolationCacheService.blobId(Files.readAllBytes(cachedFile)));
+        ViolationDto cachedViolation = new ViolationDto(null, 1, 1, "warning", "cached message", "Cached");
+
+        when(violationCacheService.isEnabled()).thenReturn(true);
+        when(violationCacheService.lookup(anyString(), any()))
+                .thenReturn(java.util.Map.of(cachedKey, List.of(cachedViolation)));
+
+        AuditReportDto report = checkstyleService.audit(tempDir, List.of(cachedFile, freshFile), configXml);
+
+        assertEquals(2, report.getTotalFiles());
+        assertEquals(1, report.getCachedFiles(), "Один файл має бути взято з кешу");
+        assertEquals(0.5, report.getCacheHitRatio());
+        assertEquals(2, report.getViolations().size(), "Порушення з кешу та з аналізу мають бути об'єднані");
+        assertTrue(report.getViolations().stream().anyMatch(v ->
+                v.getMessage().equals("cached message") && v.getFilePath().endsWith("Cached.java")));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, List<ViolationDto>>> stored = ArgumentCaptor.forClass(Map.class);
+        verify(violationCacheService).store(eq(CheckstyleConfigurationCache.hash(configXml)), stored.capture());
+        String freshKey = ViolationCacheService.fileKey("src/Fresh.java",
+                ViolationCacheService.blobId(Files.readAllBytes(freshFile)));
+        assertEquals(java.util.Set.of(freshKey), stored.getValue().keySet(), "Кешується лише перевірений файл");
+        List<ViolationDto> freshViolations = stored.getValue().get(freshKey);
+        assertEquals(1, freshViolations.size(), "Порушення перевіреного файлу мають потрапити в кеш");
+        assertEquals(3, freshViolations.get(0).getLineNumber());
+        assertTrue(freshViolations.get(0).getSource().contains("EmptyStatement"));
+
+        System.out.println("Кеш порушень використано: " + report.getCacheHitRatio());
+    }
+
+    @Test
+    @DisplayName("Should stream violations to the sink instead of collecting them")
+    void testAudit_StreamsViolationsToSink() throws Exception {
+        System.out.println("Тест: потокова передача порушень");
+
+        String configXml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE module PUBLIC
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                    "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                <module name="Checker">
+                    <property name="charset" value="UTF-8"/>
+                    <module name="TreeWalker">
+                        <module name="EmptyStatement"/>
+                    </module>
+                </module>
+                """;
+
+        Path srcDir = tempDir.resolve("src");
+        Files.createDirectories(srcDir);
+        List<Path> javaFiles = new java.util.ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Path javaFile = srcDir.resolve("Bad" + i + ".java");
+            Files.writeString(javaFile, "public class Bad" + i + " {\n    void test() {\n        ;\n    }\n}\n");
+            javaFiles.add(javaFile);
+        }
+        properties.getCheckstyle().setMinFilesPerShard(2);
+
+        java.util.Queue<ViolationDto> streamed = new java.util.concurrent.ConcurrentLinkedQueue<>();
+        AuditReportDto report = checkstyleService.audit(tempDir, javaFiles, configXml, streamed::add);
+
+        assertEquals(6, streamed.size(), "Усі порушення мають пройти через sink");
+        assertEquals(6, report.getViolationCount());
+        assertTrue(report.getViolations().isEmpty(), "У потоковому режимі порушення не накопичуються у звіті");
+
+        System.out.println("Передано " + streamed.size() + " порушень");
+    }
+
+    @Test
+    @DisplayName("Should skip unchanged violation-free files recorded in the repository cache file")
+    void testAudit_SkipsUnchangedCleanFilesFromCacheFile() throws Exception {
+        System.out.println("Тест: файл кешу Checkstyle для репозиторію");
+
+        String configXml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE module PUBLIC
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                    "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                <module name="Checker">
+                    <property name="charset" value="UTF-8"/>
+                    <module name="TreeWalker">
+                        <module name="EmptyStatement"/>
+                    </module>
+                </module>
+                """;
+
+        Path srcDir = tempDir.resolve("src");
+        Files.createDirectories(srcDir);
+        Path cleanFile = srcDir.resolve("Clean.java");
+        Path badFile = srcDir.resolve("Bad.java");
+        Files.writeString(cleanFile, "public class Clean {}\n");
+        Files.writeString(badFile, "public class Bad {\n    void test() {\n        ;\n    }\n}\n");
+        List<Path> javaFiles = List.of(cleanFile, badFile);
+
+        AuditOptions options = new AuditOptions();
+        options.setRepositoryUrl("https://github.com/example/repo.git");
+
+        AuditReportDto first = checkstyleService.audit(tempDir, javaFiles, configXml, null, options);
+        assertEquals(0, first.getCachedFiles());
+        assertEquals(1, first.getViolationCount());
+        String configHash = CheckstyleConfigurationCache.hash(configXml);
+        assertEquals(java.util.Set.of("src/Clean.java", "src/Bad.java"), new CheckstyleCacheFileService(properties)
+                        .loadTimings(options.getRepositoryUrl(), configHash).keySet(),
+                "Час аналізу файлів має зберігатися для планування шардів");
+
+        AuditReportDto second = checkstyleService.audit(tempDir, javaFiles, configXml, null, options);
+        assertEquals(1, second.getCachedFiles(), "Незмінений файл без порушень має бути пропущено");
+        assertEquals(1, second.getViolationCount(), "Файл з порушеннями має аналізуватися повторно");
+
+        Files.writeString(cleanFile, "public class Clean {\n    void test() {\n        ;\n    }\n}\n");
+        AuditReportDto changed = checkstyleService.audit(tempDir, javaFiles, configXml, null, options);
+        assertEquals(0, changed.getCachedFiles(), "Змінений файл має аналізуватися повторно");
+        assertEquals(2, changed.getViolationCount());
+
+        System.out.println("Файл кешу: " + properties.getCacheFiles().getDirectory());
+    }
+
+    @Test
+    @DisplayName("Should measure file and check times in a profiled audit")
+    void testAudit_Profiled() throws Exception {
+        System.out.println("Тест: профільований аналіз");
+
+        String configXml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE module PUBLIC
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                    "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                <module name="Checker">
+                    <property name="charset" value="UTF-8"/>
+                    <module name="NewlineAtEndOfFile"/>
+                    <module name="TreeWalker">
+                        <module name="EmptyStatement"/>
+                        <module name="MethodName"/>
+                    </module>
+                </module>
+                """;
+
+        Path srcDir = tempDir.resolve("src");
+        Files.createDirectories(srcDir);
+        Path badFile = srcDir.resolve("Bad.java");
+        Path cleanFile = srcDir.resolve("Clean.java");
+        Files.writeString(badFile, "public class Bad {\n    void Test() {\n        ;\n    }\n}");
+        Files.writeString(cleanFile, "public class Clean {}\n");
+        List<Path> javaFiles = List.of(badFile, cleanFile);
+
+        AuditReportDto regular = checkstyleService.audit(tempDir, javaFiles, configXml);
+        AuditOptions options = new AuditOptions();
+        options.setProfile(true);
+        AuditReportDto profiled = checkstyleService.audit(tempDir, javaFiles, configXml, null, options);
+
+        assertNull(regular.getProfile(), "Звичайний аналіз не профілюється");
+        assertNotNull(profiled.getProfile());
+        assertEquals(3, regular.getViolationCount());
+        assertEquals(regular.getViolationCount(), profiled.getViolationCount(),
+                "Профілювання не має змінювати знайдені порушення");
+        assertEquals(java.util.Set.of(ProfilingCheckerSet.READING_LABEL, ProfilingCheckerSet.PARSING_LABEL,
+                        "NewlineAtEndOfFile", "EmptyStatement", "MethodName"),
+                profiled.getProfile().getCheckNanos().keySet());
+        assertEquals(java.util.Set.of(badFile.toAbsolutePath().normalize().toString(),
+                        cleanFile.toAbsolutePath().normalize().toString()),
+                profiled.getProfile().getFileNanos().keySet());
+
+        System.out.println("Профіль: " + profiled.getProfile().getCheckNanos());
+    }
+
+    @Test
+    @DisplayName("Should stop early and keep partial results when a limit is hit")
+    void testAudit_StopsWhenBudgetIsExhausted() throws Exception {
+        System.out.println("Тест: ліміти аналізу");
+
+        String configXml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE module PUBLIC
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                    "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                <module name="Checker">
+                    <property name="charset" value="UTF-8"/>
+                    <module name="TreeWalker">
+                        <module name="EmptyStatement"/>
+                    </module>
+                </module>
+                """;
+
+        Path srcDir = tempDir.resolve("src");
+        Files.createDirectories(srcDir);
+        List<Path> javaFiles = new java.util.ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Path javaFile = srcDir.resolve("Bad" + i + ".java");
+            Files.writeString(javaFile, "public class Bad" + i + " {\n    void test() {\n        ;\n        ;\n    }\n}\n");
+            javaFiles.add(javaFile);
+        }
+        properties.getCheckstyle().setMinFilesPerShard(2);
+
+        AuditOptions violationLimit = new AuditOptions();
+        violationLimit.setBudget(new AuditBudget(0, 5, null));
+        AuditReportDto byViolations = checkstyleService.audit(tempDir, javaFiles, configXml, null, violationLimit);
+
+        assertTrue(byViolations.isPartial());
+        assertEquals(5, byViolations.getViolationCount(), "Зберігається не більше порушень, ніж дозволяє ліміт");
+        assertEquals(AuditBudget.StopReason.MAX_VIOLATIONS, violationLimit.getBudget().getStopReason());
+
+        AuditOptions fileLimit = new AuditOptions();
+        fileLimit.setBudget(new AuditBudget(3, 0, null));
+        AuditReportDto byFiles = checkstyleService.audit(tempDir, javaFiles, configXml, null, fileLimit);
+
+        assertTrue(byFiles.isPartial());
+        assertEquals(3, byFiles.getTotalFiles());
+        assertEquals(6, byFiles.getViolationCount());
+
+        AuditOptions timeLimit = new AuditOptions();
+        timeLimit.setBudget(new AuditBudget(0, 0, java.time.Duration.ZERO));
+        AuditReportDto byTime = checkstyleService.audit(tempDir, javaFiles, configXml, null, timeLimit);
+
+        assertTrue(byTime.isPartial());
+        assertEquals(0, byTime.getViolationCount());
+
+        AuditReportDto unlimited = checkstyleService.audit(tempDir, javaFiles, configXml);
+        assertFalse(unlimited.isPartial());
+        assertEquals(16, unlimited.getViolationCount());
+
+        System.out.println("Аналіз зупинено за лімітом: " + violationLimit.getBudget().getStopReason());
+    }
+
+    @Test
+    @DisplayName("Should skip files over the size limit")
+    void testAudit_SkipsOversizedFiles() throws Exception {
+        System.out.println("Тест: пропуск завеликих файлів");
+
+        String configXml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE module PUBLIC
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                    "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                <module name="Checker">
+                    <property name="charset" value="UTF-8"/>
+                    <module name="TreeWalker">
+                        <module name="EmptyStatement"/>
+                    </module>
+                </module>
+                """;
+
+        Path srcDir = tempDir.resolve("src");
+        Files.createDirectories(srcDir);
+        Path smallFile = srcDir.resolve("Small.java");
+        Path largeFile = srcDir.resolve("Generated.java");
+        Files.writeString(smallFile, "public class Small {\n    void test() {\n        ;\n    }\n}\n");
+        Files.writeString(largeFile, "public class Generated {\n" + "    void test() {\n        ;\n    }\n".repeat(200) + "}\n");
+        properties.getCheckstyle().setMaxFileSize(org.springframework.util.unit.DataSize.ofBytes(1024));
+
+        AuditReportDto report = checkstyleService.audit(tempDir, List.of(smallFile, largeFile), configXml);
+
+        assertEquals(1, report.getViolationCount(), "Завеликий файл не аналізується");
+        assertEquals(1, report.getSkippedFiles().size());
+        SkippedFileDto skipped = report.getSkippedFiles().get(0);
+        assertEquals(largeFile.toAbsolutePath().normalize().toString(), skipped.getFilePath());
+        assertEquals(SkippedFileDto.REASON_TOO_LARGE, skipped.getReason());
+        assertFalse(report.isPartial());
+
+        System.out.println("Пропущено: " + skipped.getFilePath() + " (" + skipped.getDetail() + ")");
+    }
+
+    @Test
+    @DisplayName("Should abandon a file that exceeds the time limit and audit the rest of its shard")
+    void testAudit_AbandonsStalledFile() throws Exception {
+        System.out.println("Тест: watchdog для файлів, що аналізуються задовго");
+
+        String configXml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE module PUBLIC
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                    "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                <module name="Checker">
+                    <property name="charset" value="UTF-8"/>
+                    <module name="TreeWalker">
+                        <module name="EmptyStatement"/>
+                        <module name="com.checkstylehub.analyzer.service.StallingCheck"/>
+                    </module>
+                </module>
+                """;
+
+        Path srcDir = tempDir.resolve("src");
+        Files.createDirectories(srcDir);
+        Path first = srcDir.resolve("First.java");
+        Path stalled = srcDir.resolve("Stalled.java");
+        Path last = srcDir.resolve("Last.java");
+        for (Path file : List.of(first, stalled, last)) {
+            String className = file.getFileName().toString().replace(".java", "");
+            Files.writeString(file, "public class " + className + " {\n    void test() {\n        ;\n    }\n}\n");
+        }
+        properties.getCheckstyle().setParallel(false);
+        properties.getCheckstyle().setFileTimeout(java.time.Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        AuditReportDto report = checkstyleService.audit(tempDir, List.of(first, stalled, last), configXml);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < StallingCheck.STALL_MILLIS, "Аналіз не чекає на завислий файл");
+        assertEquals(2, report.getViolationCount(), "Файли до і після завислого мають бути проаналізовані");
+        assertEquals(1, report.getSkippedFiles().size());
+        assertEquals(stalled.toAbsolutePath().normalize().toString(), report.getSkippedFiles().get(0).getFilePath());
+        assertEquals(SkippedFileDto.REASON_TIMEOUT, report.getSkippedFiles().get(0).getReason());
+
+        System.out.println("Аналіз з пропущеним файлом тривав " + elapsedMillis + " мс");
+    }
+
+    @Test
+    @DisplayName("Should balance shards by assigning the most expensive files first")
+    void testPlanShards_LongestProcessingTimeFirst() {
+        System.out.println("Тест: планування шардів за вартістю файлів");
+
+        List<Path> files = new java.util.ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            files.add(tempDir.resolve("File" + i + ".java"));
+        }
+        // Round-robin would put 100 and 90 into the same shard of two; LPT separates them.
+        long[] costs = {100, 10, 90, 10, 10, 10, 10};
+
+        List<List<java.io.File>> shards = CheckstyleService.planShards(files, costs, 2);
+
+        assertEquals(2, shards.size());
+        assertEquals(files.get(0).toFile(), shards.get(0).get(0), "Найдорожчий файл має йти першим");
+        assertEquals(files.get(2).toFile(), shards.get(1).get(0));
+        long[] loads = shards.stream()
+                .mapToLong(shard -> shard.stream().mapToLong(file -> costs[files.indexOf(file.toPath())]).sum())
+                .toArray();
+        assertEquals(120, Math.max(loads[0], loads[1]), "Найдовший шард має бути якомога коротшим");
+        assertEquals(7, shards.get(0).size() + shards.get(1).size());
+
+        System.out.println("Навантаження шардів: " + loads[0] + " / " + loads[1]);
+    }
+
+    @Test
+    @DisplayName("Should audit files arriving in batches like a single list")
+    void testAudit_FileBatches() throws Exception {
+        System.out.println("Тест: аналіз файлів, що надходять пакетами");
+
+        String configXml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE module PUBLIC
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                    "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                <module name="Checker">
+                    <property name="charset" value="UTF-8"/>
+                    <module name="TreeWalker">
+                        <module name="EmptyStatement"/>
+                    </module>
+                </module>
+                """;
+
+        Path srcDir = tempDir.resolve("src");
+        Files.createDirectories(srcDir);
+        List<Path> javaFiles = new java.util.ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            Path javaFile = srcDir.resolve("Bad" + i + ".java");
+            Files.writeString(javaFile, "public class Bad" + i + " {\n    void test() {\n        ;\n    }\n}\n");
+            javaFiles.add(javaFile);
+        }
+        java.util.Iterator<List<Path>> batches = List.of(javaFiles.subList(0, 4), javaFiles.subList(4, 9)).iterator();
+        FileBatchSource source = () -> batches.hasNext() ? batches.next() : List.of();
+
+        AuditReportDto batched = checkstyleService.audit(tempDir, source, configXml, null, AuditOptions.defaults());
+
+        assertEquals(9, batched.getTotalFiles());
+        assertEquals(9, batched.getViolationCount());
+
+        java.util.Iterator<List<Path>> limitedBatches =
+                List.of(javaFiles.subList(0, 4), javaFiles.subList(4, 9)).iterator();
+        AuditOptions limited = new AuditOptions();
+        limited.setBudget(new AuditBudget(6, 0, null));
+        AuditReportDto partial = checkstyleService.audit(tempDir,
+                () -> limitedBatches.hasNext() ? limitedBatches.next() : List.of(), configXml, null, limited);
+
+        assertTrue(partial.isPartial());
+        assertEquals(6, partial.getTotalFiles(), "Ліміт файлів рахується для всіх пакетів разом");
+
+        System.out.println("Пакетний аналіз: " + batched.getViolationCount() + " порушень");
+    }
+
+    @Test
+    @DisplayName("Should report only violations on changed lines and bypass the caches")
+    void testAudit_ChangedLinesOnly() throws Exception {
+        System.out.println("Тест: звіт лише про змінені рядки");
+
+        String configXml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE module PUBLIC
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                    "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                <module name="Checker">
+                    <property name="charset" value="UTF-8"/>
+                    <module name="TreeWalker">
+                        <module name="EmptyStatement"/>
+                    </module>
+                </module>
+                """;
+
+        Path srcDir = tempDir.resolve("src");
+        Files.createDirectories(srcDir);
+        Path javaFile = srcDir.resolve("Bad.java");
+        Files.writeString(javaFile, "public class Bad {\n    void test() {\n        ;\n    }\n"
+                + "    void other() {\n        ;\n    }\n}\n");
+        when(violationCacheService.isEnabled()).thenReturn(true);
+
+        AuditOptions options = new AuditOptions();
+        options.setChangedLines(ChangedLines.of(java.util.Map.of("src/Bad.java", List.<int[]>of(new int[]{5, 6}))));
+        AuditReportDto report = checkstyleService.audit(tempDir, List.of(javaFile), configXml, null, options);
+
+        assertEquals(1, report.getViolationCount());
+        assertEquals(6, report.getViolations().get(0).getLineNumber());
+        verify(violationCacheService, org.mockito.Mockito.never()).lookup(anyString(), any());
+        verify(violationCacheService, org.mockito.Mockito.never()).store(anyString(), anyMap());
+
+        System.out.println("Залишено порушення лише у змінених рядках");
+    }
+
+    @Test
+    @DisplayName("Should run several configurations over the same files in one pass")
+    void testAudit_SeveralConfigurations() throws Exception {
+        System.out.println("Тест: аналіз кількома конфігураціями за один прохід");
+
+        String emptyStatementXml = """
+                <?xml version="1.0"?>
+                <!DOCTYPE module PUBLIC
+                    "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                    "https://checkstyle.org/dtds/configuration_1_3.dtd">
+                <module name="Checker">
+                    <property name="charset" value="UTF-8"/>
+                    <module name="TreeWalker">
+                        <module name="EmptyStatement"/>
+                    </module>
+                </module>
+                """;
+        String magicNumberXml = emptyStatementXml.replace("<module name=\"EmptyStatement\"/>",
+                "<module name=\"EmptyStatement\"/>\n<module name=\"MagicNumber\"/>");
+
+        Path srcDir = tempDir.resolve("src");
+        Files.createDirectories(srcDir);
+        List<Path> javaFiles = new java.util.ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Path javaFile = srcDir.resolve("Bad" + i + ".java");
+            Files.writeString(javaFile, "public class Bad" + i + " {\n    int test() {\n        ;\n        return 42;\n    }\n}\n");
+            javaFiles.add(javaFile);
+        }
+        java.util.Map<String, String> configurations = new java.util.LinkedHashMap<>();
+        configurations.put("basic", emptyStatementXml);
+        configurations.put("strict", magicNumberXml);
+        java.util.Map<String, List<ViolationDto>> sunk = new java.util.concurrent.ConcurrentHashMap<>();
+
+        java.util.Map<String, AuditReportDto> reports = checkstyleService.audit(tempDir, FileBatchSource.of(javaFiles),
+                configurations, tag -> violation -> sunk.computeIfAbsent(tag,
+                        t -> java.util.Collections.synchronizedList(new java.util.ArrayList<>())).add(violation),
+                AuditOptions.defaults());
+
+        assertEquals(List.of("basic", "strict"), List.copyOf(reports.keySet()));
+        assertEquals(3, reports.get("basic").getTotalFiles());
+        assertEquals(3, reports.get("strict").getTotalFiles());
+        assertEquals(3, reports.get("basic").getViolationCount());
+        assertEquals(6, reports.get("strict").getViolationCount());
+        assertEquals(3, sunk.get("basic").size());
+        assertEquals(6, sunk.get("strict").size());
+
+        System.out.println("Конфігурації дали " + sunk.get("basic").size() + " і " + sunk.get("strict").size()
+                + " порушень");
+    }
+}
@@ -0,0 +1,134 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.DiscoveryResultDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FileDiscoveryService.
+ * Tests pruning of excluded directories, skip statistics and per-request glob overrides.
+ */
+class FileDiscoveryServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FileDiscoveryService discoveryService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        discoveryService = new FileDiscoveryService(new AnalyzerProperties());
+
+        write("src/main/java/com/example/App.java", "public class App {}");
+        write("src/main/java/com/example/resources/ResourceLoader.java", "public class ResourceLoader {}");
+        write("src/main/java/module-info.java", "module example {}");
+        write("src/main/resources/Template.java", "public class Template {}");
+        write("src/test/java/com/example/AppTest.java", "public class AppTest {}");
+        write("Root.java", "public class Root {}");
+        write("README.md", "# Example");
+        write("target/generated-sources/Generated.java", "public class Generated {}");
+        write("build/Built.java", "public class Built {}");
+        write("web/node_modules/lib/Lib.java", "public class Lib {}");
+        write(".git/objects/Object.java", "public class Object {}");
+        System.out.println("Початок тесту FileDiscoveryService");
+    }
+
+    @Test
+    @DisplayName("Should prune excluded directories and count skipped files")
+    void testDiscover_DefaultGlobs() throws IOException {
+        System.out.println("Тест: пошук файлів зі стандартними glob-шаблонами");
+
+        DiscoveryResultDto result = discoveryService.discover(tempDir);
+
+        assertEquals(Set.of("src/main/java/com/example/App.java",
+                        "src/main/java/com/example/resources/ResourceLoader.java",
+                        "src/test/java/com/example/AppTest.java",
+                        "Root.java"),
+                relativePaths(result.getFiles()),
+                "Пакет з назвою resources не має відкидатися, на відміну від каталогу src/main/resources");
+        assertEquals(2, result.getSkippedFiles(), "module-info.java та README.md пропускаються за шаблонами");
+        assertEquals(Files.size(tempDir.resolve("README.md")) + Files.size(tempDir.resolve("src/main/java/module-info.java")),
+                result.getSkippedBytes());
+        assertEquals(5, result.getPrunedDirectories(), "target, build, node_modules, .git і src/main/resources");
+
+        System.out.println("Знайдено " + result.getFiles().size() + " файлів, пропущено каталогів: "
+                + result.getPrunedDirectories());
+    }
+
+    @Test
+    @DisplayName("Should replace includes and add excludes of a request")
+    void testDiscover_RequestOverrides() throws IOException {
+        System.out.println("Тест: glob-шаблони запиту");
+
+        DiscoveryFilter filter = discoveryService.filterFor(List.of("src/**/*.java"), List.of("**/test/**"));
+        DiscoveryResultDto result = discoveryService.discover(tempDir, filter);
+
+        assertEquals(Set.of("src/main/java/com/example/App.java",
+                        "src/main/java/com/example/resources/ResourceLoader.java"),
+                relativePaths(result.getFiles()));
+        assertThrows(IllegalArgumentException.class, () -> discoveryService.filterFor(List.of("src/[x"), null));
+        assertTrue(filter.acceptsPath(Path.of("src/main/java/Diffed.java")));
+        assertFalse(filter.acceptsPath(Path.of("src/test/java/Diffed.java")), "Каталог test виключено");
+
+        System.out.println("Знайдено " + result.getFiles().size() + " файлів за шаблонами запиту");
+    }
+
+    @Test
+    @DisplayName("Should stream discovered files in bounded batches")
+    void testStream_Batches() throws Exception {
+        System.out.println("Тест: потокова видача знайдених файлів");
+
+        AnalyzerProperties properties = new AnalyzerProperties();
+        properties.getDiscovery().setBatchSize(2);
+        properties.getDiscovery().setQueueCapacity(1);
+        properties.getDiscovery().setParallelism(2);
+        for (int i = 0; i < 20; i++) {
+            write("module" + (i % 4) + "/src/main/java/File" + i + ".java", "public class File" + i + " {}");
+        }
+        FileDiscoveryService streamingService = new FileDiscoveryService(properties);
+
+        List<Path> files = new java.util.ArrayList<>();
+        int batches = 0;
+        try (DiscoveryStream stream = streamingService.stream(tempDir, streamingService.filterFor(null, null))) {
+            List<Path> batch;
+            while (!(batch = stream.nextBatch()).isEmpty()) {
+                assertTrue(batch.size() <= 2, "Пакет не перевищує налаштований розмір");
+                files.addAll(batch);
+                batches++;
+            }
+            assertEquals(5, stream.getResult().getPrunedDirectories());
+        } finally {
+            streamingService.shutdown();
+        }
+
+        assertEquals(24, files.size(), "Мають бути знайдені всі файли");
+        assertEquals(24, new java.util.HashSet<>(files).size(), "Жоден файл не видається двічі");
+        assertTrue(batches >= 12);
+
+        System.out.println("Отримано " + files.size() + " файлів у " + batches + " пакетах");
+    }
+
+    private void write(String relativePath, String content) throws IOException {
+        Path file = tempDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    private Set<String> relativePaths(List<Path> files) {
+        return files.stream()
+                .map(file -> tempDir.relativize(file).toString().replace('\\', '/'))
+                .collect(Collectors.toSet());
+    }
+}
@@ -1,13 +1,28 @@
 package com.checkstylehub.analyzer.service;
 
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.CloneProgressDto;
+import com.checkstylehub.analyzer.dto.CommitDiffDto;
+import com.checkstylehub.analyzer.dto.SkippedFileDto;
 import com.checkstylehub.analyzer.exception.RepositoryAccessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.revwalk.RevCommit;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,21 +32,37 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 class GitServiceTest {
 
+    @TempDir
+    Path originDir;
+    @TempDir
+    Path workspaceDir;
+    private AnalyzerProperties properties;
+    private ExecutorService janitorExecutor;
+    private WorkspaceService workspaceService;
     private GitService gitService;
     private Path testTempDir;
 
     @BeforeEach
     void setUp() {
-        gitService = new GitService();
+        properties = new AnalyzerProperties();
+        properties.getMirrors().setEnabled(false);
+        properties.getWorkspaces().setDirectory(workspaceDir);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        janitorExecutor = Executors.newSingleThreadExecutor();
+        workspaceService = new WorkspaceService(properties, meterRegistry, janitorExecutor);
+        gitService = new GitService(new RepositoryMirrorService(properties, meterRegistry, workspaceService),
+                workspaceService, properties);
         System.out.println("Початок тесту GitService");
     }
 
     @AfterEach
-    void tearDown() {
+    void tearDown() throws Exception {
         if (testTempDir != null && Files.exists(testTempDir)) {
             gitService.deleteTempDirectory(testTempDir);
             System.out.println("Тимчасову директорію очищено");
         }
+        workspaceService.awaitJanitor();
+        janitorExecutor.shutdownNow();
     }
 
     @Test
@@ -76,6 +107,7 @@ class GitServiceTest {
         assertTrue(Files.exists(tempDir), "Директорія має існувати перед видаленням");
 
         gitService.deleteTempDirectory(tempDir);
+        workspaceService.awaitJanitor();
 
         assertFalse(Files.exists(tempDir), "Директорія має бути видалена");
 
@@ -95,5 +127,262 @@ class GitServiceTest {
 
         System.out.println("Обробка неіснуючої директорії пройшла успішно");
     }
-}
 
+    @Test
+    @DisplayName("Should normalize different spellings of the same repository URL")
+    void testNormalizeRepositoryUrl() {
+        System.out.println("Тест: нормалізація URL репозиторію");
+
+        String expected = "https://github.com/Example/Repo";
+
+        assertEquals(expected, GitService.normalizeRepositoryUrl("https://github.com/Example/Repo"));
+        assertEquals(expected, GitService.normalizeRepositoryUrl(" https://GitHub.com/Example/Repo.git "));
+        assertEquals(expected, GitService.normalizeRepositoryUrl("HTTPS://github.com/Example/Repo/"));
+
+        System.out.println("URL нормалізовано: " + expected);
+    }
+
+    @Test
+    @DisplayName("Should check out a commit and list the files changed since another one")
+    void testCloneAtCommitAndDiffCommits() throws Exception {
+        System.out.println("Тест: клонування коміту та порівняння комітів");
+
+        String movedContent = "public class Moved {\n    // " + "x".repeat(200) + "\n}\n";
+        RevCommit base;
+        RevCommit head;
+        try (Git origin = Git.init().setDirectory(originDir.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(originDir.resolve("Changed.java"), "public class Changed {\n}\n");
+            Files.writeString(originDir.resolve("Removed.java"), "public class Removed {\n}\n");
+            Files.writeString(originDir.resolve("Old.java"), movedContent);
+            Files.writeString(originDir.resolve("Kept.java"), "public class Kept {\n}\n");
+            origin.add().addFilepattern(".").call();
+            base = commit(origin, "base");
+
+            Files.writeString(originDir.resolve("Changed.java"), "public class Changed {\n    int x;\n}\n");
+            Files.writeString(originDir.resolve("Added.java"), "public class Added {\n}\n");
+            Files.delete(originDir.resolve("Removed.java"));
+            Files.move(originDir.resolve("Old.java"), originDir.resolve("New.java"));
+            origin.add().addFilepattern(".").call();
+            origin.add().addFilepattern(".").setUpdate(true).call();
+            head = commit(origin, "head");
+
+            Files.writeString(originDir.resolve("Later.java"), "public class Later {\n}\n");
+            origin.add().addFilepattern(".").call();
+            commit(origin, "later");
+        }
+
+        testTempDir = gitService.cloneRepository(originDir.toUri().toString(), head.getName());
+        CommitDiffDto diff = gitService.diffCommits(testTempDir, base.getName(), head.getName());
+
+        assertTrue(Files.exists(testTempDir.resolve("Added.java")), "Має бути витягнуто головний коміт");
+        assertFalse(Files.exists(testTempDir.resolve("Later.java")), "Пізніші коміти не мають витягуватися");
+        assertEquals(List.of("Added.java", "Changed.java", "New.java"), diff.getChangedPaths().stream().sorted().toList());
+        assertEquals(List.of("Old.java", "Removed.java"), diff.getRemovedPaths().stream().sorted().toList());
+        assertThrows(RepositoryAccessException.class,
+                () -> gitService.diffCommits(testTempDir, "0000000000000000000000000000000000000000", head.getName()));
+
+        System.out.println("Змінені файли: " + diff.getChangedPaths());
+    }
+
+    @Test
+    @DisplayName("Should compute the added and modified lines from the diff hunks")
+    void testChangedLines() throws Exception {
+        System.out.println("Тест: змінені рядки між комітами");
+
+        RevCommit base;
+        RevCommit head;
+        try (Git origin = Git.init().setDirectory(originDir.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(originDir.resolve("Edited.java"), "a\nb\nc\nd\ne\n");
+            Files.writeString(originDir.resolve("Deleted.java"), "x\n");
+            origin.add().addFilepattern(".").call();
+            base = commit(origin, "base");
+
+            Files.writeString(originDir.resolve("Edited.java"), "a\nB\nc\nd\ne\nf\ng\n");
+            Files.writeString(originDir.resolve("Added.java"), "1\n2\n3\n");
+            Files.delete(originDir.resolve("Deleted.java"));
+            origin.add().addFilepattern(".").call();
+            origin.add().addFilepattern(".").setUpdate(true).call();
+            head = commit(origin, "head");
+        }
+
+        testTempDir = gitService.cloneRepository(originDir.toUri().toString(), head.getName());
+        ChangedLines changedLines = gitService.changedLines(testTempDir, base.getName(), head.getName());
+
+        assertEquals(java.util.Set.of("Edited.java", "Added.java"), changedLines.getPaths());
+        assertFalse(changedLines.contains("Edited.java", 1));
+        assertTrue(changedLines.contains("Edited.java", 2));
+        assertFalse(changedLines.contains("Edited.java", 5));
+        assertTrue(changedLines.contains("Edited.java", 6));
+        assertTrue(changedLines.contains("Edited.java", 7));
+        assertTrue(changedLines.contains("Edited.java", 0), "Порушення всього файлу зберігаються");
+        assertTrue(changedLines.contains("Added.java", 3));
+        assertFalse(changedLines.contains("Deleted.java", 1));
+
+        System.out.println("Змінені рядки обчислено для " + changedLines.getPaths().size() + " файлів");
+    }
+
+    @Test
+    @DisplayName("Should write only accepted sources of a sparse clone and skip large blobs and LFS pointers")
+    void testCheckoutSources_SparseClone() throws Exception {
+        System.out.println("Тест: розріджене клонування лише Java файлів");
+
+        try (Git origin = Git.init().setDirectory(originDir.toFile()).setInitialBranch("main").call()) {
+            Files.createDirectories(originDir.resolve("src"));
+            Files.createDirectories(originDir.resolve("build"));
+            Files.writeString(originDir.resolve("src/App.java"), "public class App {\n}\n");
+            Files.writeString(originDir.resolve("src/Huge.java"), "// " + "x".repeat(5000) + "\npublic class Huge {\n}\n");
+            Files.writeString(originDir.resolve("src/Stored.java"), "version https://git-lfs.github.com/spec/v1\n"
+                    + "oid sha256:4d7a214614ab2935c943f9e0ff69d22eadbb8f32b1258daaa5e2ca24d17e2393\nsize 12345\n");
+            Files.writeString(originDir.resolve("build/Generated.java"), "public class Generated {\n}\n");
+            Files.write(originDir.resolve("asset.bin"), new byte[8000]);
+            Files.writeString(originDir.resolve("notes.txt"), "notes\n");
+            origin.add().addFilepattern(".").call();
+            commit(origin, "initial");
+            origin.getRepository().getConfig().setBoolean("uploadpack", null, "allowfilter", true);
+            origin.getRepository().getConfig().save();
+        }
+        properties.getClones().setBlobLimit(DataSize.ofKilobytes(1));
+        DiscoveryFilter filter = DiscoveryFilter.compile(List.of("**/*.java"), List.of("**/build/**"));
+
+        SourceCheckout checkout = gitService.checkoutSources(originDir.toUri().toString(), null, filter);
+        testTempDir = checkout.getDirectory();
+
+        assertTrue(Files.exists(testTempDir.resolve("src/App.java")));
+        assertFalse(Files.exists(testTempDir.resolve("src/Huge.java")), "Великі блоби не завантажуються");
+        assertFalse(Files.exists(testTempDir.resolve("src/Stored.java")), "Вказівники LFS не записуються");
+        assertFalse(Files.exists(testTempDir.resolve("asset.bin")));
+        assertFalse(Files.exists(testTempDir.resolve("build")));
+        assertEquals(2, checkout.getOmitted().getSkippedFiles());
+        assertEquals(6, checkout.getOmitted().getSkippedBytes(), "Незавантажені блоби не мають розміру");
+        assertEquals(1, checkout.getOmitted().getPrunedDirectories());
+        assertEquals(List.of(SkippedFileDto.REASON_TOO_LARGE, SkippedFileDto.REASON_LFS_POINTER),
+                checkout.getSkippedFiles().stream().map(SkippedFileDto::getReason).toList());
+        assertEquals(testTempDir.resolve("src/Huge.java").toAbsolutePath().normalize().toString(),
+                checkout.getSkippedFiles().get(0).getFilePath());
+
+        gitService.deleteTempDirectory(testTempDir);
+        try (Git origin = Git.open(originDir.toFile())) {
+            origin.getRepository().getConfig().unset("uploadpack", null, "allowfilter");
+            origin.getRepository().getConfig().save();
+        }
+        checkout = gitService.checkoutSources(originDir.toUri().toString(), null, filter);
+        testTempDir = checkout.getDirectory();
+
+        assertTrue(Files.exists(testTempDir.resolve("src/Huge.java")), "Без підтримки фільтра клонуються всі блоби");
+        assertEquals(8006, checkout.getOmitted().getSkippedBytes());
+        assertEquals(List.of(SkippedFileDto.REASON_LFS_POINTER),
+                checkout.getSkippedFiles().stream().map(SkippedFileDto::getReason).toList());
+
+        System.out.println("Записано лише відібрані Java файли");
+    }
+
+    @Test
+    @DisplayName("Should report clone progress and abort a cancelled clone")
+    void testCheckoutSources_ProgressAndCancel() throws Exception {
+        System.out.println("Тест: прогрес клонування і скасування");
+
+        try (Git origin = Git.init().setDirectory(originDir.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(originDir.resolve("App.java"), "public class App {\n}\n");
+            origin.add().addFilepattern(".").call();
+            commit(origin, "initial");
+        }
+        String originUrl = originDir.toUri().toString();
+        DiscoveryFilter filter = DiscoveryFilter.compile(List.of("**/*.java"), List.of());
+        List<CloneProgressDto> messages = new CopyOnWriteArrayList<>();
+
+        testTempDir = gitService.checkoutSources(originUrl, null, filter,
+                new CloneProgress(messages::add, Duration.ZERO)).getDirectory();
+        assertTrue(Files.exists(testTempDir.resolve("App.java")));
+        assertFalse(messages.isEmpty(), "Прогрес клонування має надсилатися");
+        assertTrue(messages.stream().allMatch(message -> CloneProgressDto.LEVEL.equals(message.getLevel())));
+        assertTrue(messages.stream().anyMatch(message -> message.getMessage().endsWith(", done")),
+                "Кінець задачі надсилається завжди");
+
+        CloneProgress cancelled = CloneProgress.none();
+        cancelled.cancel();
+        assertThrows(InterruptedException.class,
+                () -> gitService.checkoutSources(originUrl, "main", filter, cancelled));
+        workspaceService.awaitJanitor();
+        try (Stream<Path> workTrees = Files.list(workspaceDir)) {
+            assertEquals(List.of(testTempDir), workTrees.toList(), "Скасоване клонування не залишає файлів");
+        }
+
+        System.out.println("Отримано " + messages.size() + " повідомлень про прогрес");
+    }
+
+    @Test
+    @DisplayName("Should share the checkout of a commit until the last job releases it")
+    void testCheckoutSources_SharedCheckout() throws Exception {
+        System.out.println("Тест: спільне робоче дерево для однакових запитів");
+
+        RevCommit head;
+        try (Git origin = Git.init().setDirectory(originDir.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(originDir.resolve("App.java"), "public class App {\n}\n");
+            origin.add().addFilepattern(".").call();
+            head = commit(origin, "initial");
+        }
+        String originUrl = originDir.toUri().toString();
+        DiscoveryFilter filter = DiscoveryFilter.compile(List.of("**/*.java"), List.of());
+
+        Path first = gitService.checkoutSources(originUrl, head.getName(), filter).getDirectory();
+        Path second = gitService.checkoutSources(originUrl + "/", head.getName(),
+                DiscoveryFilter.compile(List.of("**/*.java"), List.of())).getDirectory();
+        Path otherFilter = gitService.checkoutSources(originUrl, head.getName(),
+                DiscoveryFilter.compile(List.of("**/*.java"), List.of("**/test/**"))).getDirectory();
+        Path branch = gitService.checkoutSources(originUrl, "main", filter).getDirectory();
+        Path branchAgain = gitService.checkoutSources(originUrl, "main", filter).getDirectory();
+        try {
+            assertEquals(first, second, "Однаковий коміт і фільтр мають спільне дерево");
+            assertNotEquals(first, otherFilter);
+            assertNotEquals(branch, branchAgain, "Гілка спільна лише під час створення дерева");
+
+            gitService.deleteTempDirectory(first);
+            assertTrue(Files.exists(second.resolve("App.java")), "Дерево видаляється з останнім посиланням");
+            gitService.deleteTempDirectory(second);
+            workspaceService.awaitJanitor();
+            assertFalse(Files.exists(second));
+
+            testTempDir = gitService.checkoutSources(originUrl, head.getName(), filter).getDirectory();
+            assertNotEquals(first, testTempDir, "Після звільнення створюється нове дерево");
+        } finally {
+            gitService.deleteTempDirectory(otherFilter);
+            gitService.deleteTempDirectory(branch);
+            gitService.deleteTempDirectory(branchAgain);
+        }
+
+        System.out.println("Робоче дерево спільне до останнього звільнення");
+    }
+
+    @Test
+    @DisplayName("Should resolve the default branch remotely and the checked out commit locally")
+    void testResolveHead() throws Exception {
+        System.out.println("Тест: визначення коміту без клонування");
+
+        String originUrl = originDir.toUri().toString();
+        Git.init().setDirectory(originDir.toFile()).setInitialBranch("main").call().close();
+        assertNull(gitService.resolveRemoteHead(originUrl), "Порожній репозиторій не має коміту");
+
+        RevCommit head;
+        try (Git origin = Git.open(originDir.toFile())) {
+            Files.writeString(originDir.resolve("App.java"), "public class App {\n}\n");
+            origin.add().addFilepattern(".").call();
+            head = commit(origin, "initial");
+        }
+        DiscoveryFilter filter = DiscoveryFilter.compile(List.of("**/*.java"), List.of());
+        testTempDir = gitService.checkoutSources(originUrl, null, filter).getDirectory();
+
+        assertEquals(head.getName(), gitService.resolveRemoteHead(originUrl));
+        assertEquals(head.getName(), gitService.resolveHead(testTempDir));
+        assertEquals(head.getName(), gitService.resolveCommit(testTempDir, head.getName().substring(0, 7)));
+        assertNull(gitService.resolveCommit(testTempDir, "missing-branch"), "Невідома ревізія не має коміту");
+        assertThrows(RepositoryAccessException.class,
+                () -> gitService.resolveRemoteHead(originDir.resolve("missing").toUri().toString()));
+
+        System.out.println("Коміт визначено: " + head.getName());
+    }
+
+    private static RevCommit commit(Git git, String message) throws Exception {
+        return git.commit().setMessage(message).setAuthor("Test", "test@example.com")
+                .setCommitter("Test", "test@example.com").setSign(false).call();
+    }
+}
@@ -0,0 +1,239 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.CommitDiffDto;
+import com.checkstylehub.analyzer.exception.RepositoryAccessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RepositoryMirrorService.
+ * Tests checkouts from local mirrors of file:// repositories, incremental fetches and eviction.
+ */
+class RepositoryMirrorServiceTest {
+
+    @TempDir
+    Path tempDir;
+    private AnalyzerProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService janitorExecutor;
+    private RepositoryMirrorService mirrorService;
+    private GitService gitService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AnalyzerProperties();
+        properties.getMirrors().setDirectory(tempDir.resolve("mirrors"));
+        properties.getWorkspaces().setDirectory(tempDir.resolve("work-trees"));
+        meterRegistry = new SimpleMeterRegistry();
+        janitorExecutor = Executors.newSingleThreadExecutor();
+        WorkspaceService workspaceService = new WorkspaceService(properties, meterRegistry, janitorExecutor);
+        mirrorService = new RepositoryMirrorService(properties, meterRegistry, workspaceService);
+        gitService = new GitService(mirrorService, workspaceService, properties);
+        System.out.println("Початок тесту RepositoryMirrorService");
+    }
+
+    @AfterEach
+    void tearDown() {
+        janitorExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should clone a mirror once, fetch new commits and check out any revision")
+    void testCheckout_FetchesIncrementally() throws Exception {
+        System.out.println("Тест: витягування з дзеркала з інкрементальним оновленням");
+
+        Path originDir = tempDir.resolve("origin");
+        String originUrl = originDir.toUri().toString();
+        RevCommit first;
+        RevCommit second;
+        try (Git origin = Git.init().setDirectory(originDir.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(originDir.resolve("First.java"), "public class First {\n}\n");
+            origin.add().addFilepattern(".").call();
+            first = commit(origin, "first");
+
+            Path initial = gitService.cloneRepository(originUrl);
+            assertTrue(Files.exists(initial.resolve("First.java")));
+            gitService.deleteTempDirectory(initial);
+
+            Files.writeString(originDir.resolve("Second.java"), "public class Second {\n}\n");
+            origin.add().addFilepattern(".").call();
+            second = commit(origin, "second");
+        }
+
+        Path latest = gitService.cloneRepository(originUrl);
+        Path older = gitService.cloneRepository(originUrl, first.getName());
+        Path byBranch = gitService.cloneRepository(originUrl + "/", "main");
+        try {
+            assertTrue(Files.exists(latest.resolve("Second.java")), "Нові коміти мають бути отримані");
+            assertFalse(Files.exists(older.resolve("Second.java")));
+            assertTrue(Files.exists(byBranch.resolve("Second.java")), "Гілки мають розпізнаватися як у клоні");
+            assertFalse(Files.exists(latest.resolve(".git/objects/pack")) && hasFiles(latest.resolve(".git/objects/pack")),
+                    "Об'єкти не мають копіюватися з дзеркала");
+            CommitDiffDto diff = gitService.diffCommits(latest, first.getName(), second.getName());
+            assertEquals(List.of("Second.java"), diff.getChangedPaths());
+            assertThrows(RepositoryAccessException.class, () -> gitService.cloneRepository(originUrl, "missing-branch"));
+        } finally {
+            gitService.deleteTempDirectory(latest);
+            gitService.deleteTempDirectory(older);
+            gitService.deleteTempDirectory(byBranch);
+        }
+
+        try (Stream<Path> mirrors = Files.list(properties.getMirrors().getDirectory())) {
+            assertEquals(1, mirrors.count(), "Один URL має одне дзеркало");
+        }
+        assertEquals(1, meterRegistry.get("analyzer.git.mirror.requests").tag("result", "miss").counter().count());
+        assertEquals(4, meterRegistry.get("analyzer.git.mirror.requests").tag("result", "hit").counter().count());
+        assertTrue(meterRegistry.get("analyzer.git.mirror.bytes").tag("result", "saved").counter().count() > 0);
+
+        System.out.println("Дзеркало клоновано один раз і оновлено інкрементально");
+    }
+
+    @Test
+    @DisplayName("Should write only accepted sources from the object database and count the rest")
+    void testCheckoutSources_WritesAcceptedFilesOnly() throws Exception {
+        System.out.println("Тест: витягування лише вихідних файлів з бази об'єктів");
+
+        Path originDir = tempDir.resolve("origin");
+        RevCommit first;
+        RevCommit second;
+        try (Git origin = Git.init().setDirectory(originDir.toFile()).setInitialBranch("main").call()) {
+            Files.createDirectories(originDir.resolve("src/main"));
+            Files.createDirectories(originDir.resolve("target"));
+            Files.createDirectories(originDir.resolve("assets"));
+            Files.writeString(originDir.resolve("src/main/App.java"), "public class App {\n}\n");
+            Files.writeString(originDir.resolve("target/Generated.java"), "public class Generated {\n}\n");
+            Files.write(originDir.resolve("assets/logo.png"), new byte[1000]);
+            Files.writeString(originDir.resolve("README.md"), "readme\n");
+            origin.add().addFilepattern(".").call();
+            first = commit(origin, "first");
+            Files.writeString(originDir.resolve("src/main/Next.java"), "public class Next {\n}\n");
+            origin.add().addFilepattern(".").call();
+            second = commit(origin, "second");
+        }
+        DiscoveryFilter filter = DiscoveryFilter.compile(List.of("**/*.java"), List.of("**/target/**"));
+
+        SourceCheckout checkout = gitService.checkoutSources(originDir.toUri().toString(), null, filter);
+        Path workTree = checkout.getDirectory();
+        try {
+            assertTrue(workTree.startsWith(tempDir.resolve("work-trees")));
+            assertEquals("public class App {\n}\n", Files.readString(workTree.resolve("src/main/App.java")));
+            assertTrue(Files.exists(workTree.resolve("src/main/Next.java")));
+            assertFalse(Files.exists(workTree.resolve("target")), "Виключені каталоги не записуються");
+            assertFalse(Files.exists(workTree.resolve("assets/logo.png")), "Невідібрані файли не записуються");
+            assertFalse(Files.exists(workTree.resolve("README.md")));
+            assertFalse(Files.exists(workTree.resolve(".git/index")), "Індекс не створюється");
+            assertEquals(2, checkout.getOmitted().getSkippedFiles());
+            assertEquals(1007, checkout.getOmitted().getSkippedBytes());
+            assertEquals(1, checkout.getOmitted().getPrunedDirectories());
+            CommitDiffDto diff = gitService.diffCommits(workTree, first.getName(), "HEAD");
+            assertEquals(List.of("src/main/Next.java"), diff.getChangedPaths(), "HEAD має вказувати на коміт");
+        } finally {
+            gitService.deleteTempDirectory(workTree);
+        }
+
+        properties.getMirrors().setSourcesOnly(false);
+        SourceCheckout fullCheckout = gitService.checkoutSources(originDir.toUri().toString(), second.getName(), filter);
+        try {
+            assertNull(fullCheckout.getOmitted());
+            assertTrue(Files.exists(fullCheckout.getDirectory().resolve("assets/logo.png")));
+        } finally {
+            gitService.deleteTempDirectory(fullCheckout.getDirectory());
+        }
+
+        System.out.println("Записано лише відібрані Java файли");
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used mirrors beyond the quota but keep mirrors in use")
+    void testEnforceQuota_KeepsLeasedMirrors() throws Exception {
+        System.out.println("Тест: витіснення дзеркал за квотою");
+
+        String firstUrl = createOrigin("first");
+        String secondUrl = createOrigin("second");
+        properties.getMirrors().setMaxDiskSize(DataSize.ofBytes(1));
+
+        Path firstCheckout = gitService.cloneRepository(firstUrl);
+        Path secondCheckout = gitService.cloneRepository(secondUrl);
+        assertEquals(2, countMirrors(), "Дзеркала з витягнутими копіями не витісняються");
+
+        gitService.deleteTempDirectory(firstCheckout);
+        mirrorService.enforceQuota();
+        assertEquals(1, countMirrors(), "Звільнене дзеркало має бути витіснене");
+        assertTrue(Files.exists(secondCheckout.resolve("Origin.java")));
+
+        gitService.deleteTempDirectory(secondCheckout);
+        mirrorService.enforceQuota();
+        assertEquals(0, countMirrors());
+        assertEquals(0, mirrorService.diskUsage());
+
+        System.out.println("Витіснено лише дзеркала без витягнутих копій");
+    }
+
+    @Test
+    @DisplayName("Should account for the mirrors left by a previous process")
+    void testLoadMirrors_MeasuresExistingMirrors() throws Exception {
+        System.out.println("Тест: облік дзеркал попереднього процесу");
+
+        Path checkout = gitService.cloneRepository(createOrigin("first"));
+        gitService.deleteTempDirectory(checkout);
+        long diskUsage = mirrorService.diskUsage();
+        assertTrue(diskUsage > 0, "Розмір дзеркала відомий після клонування");
+
+        WorkspaceService workspaceService = new WorkspaceService(properties, meterRegistry, janitorExecutor);
+        RepositoryMirrorService restarted = new RepositoryMirrorService(properties, new SimpleMeterRegistry(),
+                workspaceService);
+        restarted.loadMirrors();
+        assertEquals(diskUsage, restarted.diskUsage());
+
+        properties.getMirrors().setMaxDiskSize(DataSize.ofBytes(1));
+        restarted.enforceQuota();
+        assertEquals(0, countMirrors(), "Дзеркало попереднього процесу витісняється за квотою");
+        assertEquals(0, restarted.diskUsage());
+
+        System.out.println("Дзеркала попереднього процесу враховано");
+    }
+
+    private String createOrigin(String name) throws Exception {
+        Path originDir = tempDir.resolve(name);
+        try (Git origin = Git.init().setDirectory(originDir.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(originDir.resolve("Origin.java"), "public class Origin {\n}\n");
+            origin.add().addFilepattern(".").call();
+            commit(origin, name);
+        }
+        return originDir.toUri().toString();
+    }
+
+    private long countMirrors() throws Exception {
+        try (Stream<Path> mirrors = Files.list(properties.getMirrors().getDirectory())) {
+            return mirrors.count();
+        }
+    }
+
+    private static boolean hasFiles(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findAny().isPresent();
+        }
+    }
+
+    private static RevCommit commit(Git git, String message) throws Exception {
+        return git.commit().setMessage(message).setAuthor("Test", "test@example.com")
+                .setCommitter("Test", "test@example.com").setSign(false).call();
+    }
+}
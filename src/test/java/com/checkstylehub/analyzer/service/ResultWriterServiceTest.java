@@ -0,0 +1,117 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.ViolationDto;
+import com.checkstylehub.analyzer.entity.AnalysisRequest;
+import com.checkstylehub.analyzer.entity.AnalysisResult;
+import com.checkstylehub.analyzer.repository.AnalysisRequestRepository;
+import com.checkstylehub.analyzer.repository.AnalysisResultRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for ResultWriterService.
+ * Tests batched persistence of streamed violations through a bounded queue.
+ */
+@DataJpaTest
+@Import({ResultWriterService.class, AnalyzerProperties.class, ResultWriterServiceTest.WriterExecutorConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ResultWriterServiceTest {
+
+    @Autowired
+    private ResultWriterService resultWriterService;
+
+    @Autowired
+    private AnalysisRequestRepository requestRepository;
+
+    @Autowired
+    private AnalysisResultRepository resultRepository;
+
+    @Autowired
+    private AnalyzerProperties properties;
+
+    private Long requestId;
+
+    @BeforeEach
+    void setUp() {
+        properties.getResults().setQueueCapacity(4);
+        properties.getResults().setBatchSize(3);
+        requestId = requestRepository.save(new AnalysisRequest("https://github.com/test/repo")).getId();
+        System.out.println("Початок тесту ResultWriterService");
+    }
+
+    @Test
+    @DisplayName("Should persist every streamed violation in batches")
+    void testStreamPersistsAllViolations() throws Exception {
+        System.out.println("Тест: потокове збереження порушень");
+
+        ResultWriterService.ResultStream stream = resultWriterService.open(requestId, fileName -> "src/" + fileName);
+        for (int i = 0; i < 50; i++) {
+            stream.accept(new ViolationDto("A.java", i + 1, 1, "warning", "message " + i, "Check"));
+        }
+        long written = stream.finish();
+        stream.close();
+
+        List<AnalysisResult> results = resultRepository.findByRequestId(requestId);
+        assertEquals(50, written, "Мають бути збережені всі порушення");
+        assertEquals(50, results.size());
+        assertTrue(results.stream().allMatch(r -> r.getFilePath().equals("src/A.java")), "Шлях має бути перетворено");
+
+        System.out.println("Збережено " + written + " порушень");
+    }
+
+    @Test
+    @DisplayName("Should reject violations after the stream is closed")
+    void testAcceptAfterClose() {
+        System.out.println("Тест: запис у закритий потік");
+
+        ResultWriterService.ResultStream stream = resultWriterService.open(requestId, fileName -> fileName);
+        stream.close();
+
+        assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; i < 10; i++) {
+                stream.accept(new ViolationDto("A.java", i, 1, "warning", "message", "Check"));
+            }
+        }, "Закритий потік не має приймати порушення");
+
+        System.out.println("Закритий потік коректно відхиляє записи");
+    }
+
+    @Test
+    @DisplayName("Should delete streamed results of a request")
+    void testDeleteByRequestId() throws Exception {
+        System.out.println("Тест: видалення збережених результатів");
+
+        ResultWriterService.ResultStream stream = resultWriterService.open(requestId, fileName -> fileName);
+        stream.accept(new ViolationDto("A.java", 1, 1, "warning", "message", "Check"));
+        stream.finish();
+
+        assertEquals(1, resultRepository.deleteByRequestId(requestId));
+        assertTrue(resultRepository.findByRequestId(requestId).isEmpty());
+
+        System.out.println("Результати видалено");
+    }
+
+    @TestConfiguration
+    static class WriterExecutorConfig {
+
+        @Bean(name = "resultWriterExecutor", destroyMethod = "shutdownNow")
+        ExecutorService resultWriterExecutor() {
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
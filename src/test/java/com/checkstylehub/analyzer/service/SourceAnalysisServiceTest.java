@@ -0,0 +1,143 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.SourceAnalysisResultDto;
+import com.checkstylehub.analyzer.dto.SourceFileDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SourceAnalysisService.
+ * Tests the synchronous analysis of posted sources.
+ */
+class SourceAnalysisServiceTest {
+
+    private static final String CONFIG_XML = """
+            <?xml version="1.0"?>
+            <!DOCTYPE module PUBLIC
+                "-//Checkstyle//DTD Checkstyle Configuration 1.3//EN"
+                "https://checkstyle.org/dtds/configuration_1_3.dtd">
+            <module name="Checker">
+                <property name="charset" value="UTF-8"/>
+                <module name="TreeWalker">
+                    <module name="EmptyStatement"/>
+                </module>
+            </module>
+            """;
+
+    @TempDir
+    Path tempDir;
+    @Mock
+    private CheckstyleConfigurationService configurationService;
+    @Mock
+    private ViolationCacheService violationCacheService;
+    private SourceAnalysisService sourceAnalysisService;
+    private AnalyzerProperties properties;
+    private ExecutorService executor;
+    private ScheduledExecutorService watchdogExecutor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new AnalyzerProperties();
+        properties.getCacheFiles().setDirectory(tempDir.resolve("cache-files"));
+        executor = Executors.newFixedThreadPool(2);
+        watchdogExecutor = Executors.newSingleThreadScheduledExecutor();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CheckerPool checkerPool = new CheckerPool(properties, meterRegistry);
+        CheckstyleConfigurationCache configurationCache =
+                new CheckstyleConfigurationCache(properties, meterRegistry, checkerPool);
+        CheckstyleService checkstyleService = new CheckstyleService(configurationService,
+                new FileDiscoveryService(properties), configurationCache, checkerPool, violationCacheService,
+                new CheckstyleCacheFileService(properties), executor, watchdogExecutor, properties);
+        sourceAnalysisService = new SourceAnalysisService(checkstyleService, configurationService, properties);
+        System.out.println("Початок тесту SourceAnalysisService");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        watchdogExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should report violations against the posted paths without touching the caches")
+    void testAnalyze_ReportsPostedPaths() throws Exception {
+        System.out.println("Тест: аналіз переданих файлів");
+
+        when(configurationService.getConfigurationXml("strict")).thenReturn(Optional.of(CONFIG_XML));
+        when(violationCacheService.isEnabled()).thenReturn(true);
+
+        SourceAnalysisResultDto result = sourceAnalysisService.analyze(List.of(
+                new SourceFileDto("src\\main\\java\\Bad.java", "public class Bad {\n    void test() {\n        ;\n    }\n}\n"),
+                new SourceFileDto("./src/main/java/Good.java", "public class Good {\n}\n")), "strict");
+
+        assertEquals(1, result.getViolations().size());
+        assertEquals("src/main/java/Bad.java", result.getViolations().get(0).getFilePath());
+        assertEquals(3, result.getViolations().get(0).getLineNumber());
+        assertTrue(result.getSkippedFiles().isEmpty());
+        verify(violationCacheService, never()).lookup(anyString(), any());
+        verify(violationCacheService, never()).store(anyString(), any());
+
+        System.out.println("Порушення прив'язано до переданих шляхів, кеші не використано");
+    }
+
+    @Test
+    @DisplayName("Should use the active configuration when no name is given")
+    void testAnalyze_ActiveConfiguration() throws Exception {
+        System.out.println("Тест: аналіз з активною конфігурацією");
+
+        when(configurationService.getActiveConfigurationXml()).thenReturn(CONFIG_XML);
+
+        SourceAnalysisResultDto result = sourceAnalysisService.analyze(
+                List.of(new SourceFileDto("Good.java", "public class Good {\n}\n")), null);
+
+        assertTrue(result.getViolations().isEmpty());
+        verify(configurationService).getActiveConfigurationXml();
+
+        System.out.println("Використано активну конфігурацію");
+    }
+
+    @Test
+    @DisplayName("Should reject escaping paths, duplicates, oversized requests and unknown configurations")
+    void testAnalyze_RejectsInvalidRequests() {
+        System.out.println("Тест: відхилення некоректних запитів");
+
+        properties.getSources().setMaxFiles(2);
+        when(configurationService.getConfigurationXml("missing")).thenReturn(Optional.empty());
+        SourceFileDto file = new SourceFileDto("Foo.java", "class Foo {}");
+
+        assertThrows(IllegalArgumentException.class, () -> sourceAnalysisService.analyze(
+                List.of(new SourceFileDto("../Foo.java", "class Foo {}")), null));
+        assertThrows(IllegalArgumentException.class, () -> sourceAnalysisService.analyze(
+                List.of(new SourceFileDto("/etc/Foo.java", "class Foo {}")), null));
+        assertThrows(IllegalArgumentException.class, () -> sourceAnalysisService.analyze(
+                List.of(file, new SourceFileDto("./Foo.java", "class Foo {}")), null));
+        assertThrows(IllegalArgumentException.class, () -> sourceAnalysisService.analyze(
+                List.of(file, file, file), null));
+        assertThrows(NoSuchElementException.class, () -> sourceAnalysisService.analyze(List.of(file), "missing"));
+
+        System.out.println("Некоректні запити відхилено");
+    }
+}
@@ -0,0 +1,38 @@
+package com.checkstylehub.analyzer.service;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+
+/**
+ * Test check that stalls on files whose name starts with "Stalled", to simulate a pathological file.
+ */
+public class StallingCheck extends AbstractCheck {
+
+    static final long STALL_MILLIS = 3_000;
+
+    @Override
+    public int[] getDefaultTokens() {
+        return new int[0];
+    }
+
+    @Override
+    public int[] getAcceptableTokens() {
+        return new int[0];
+    }
+
+    @Override
+    public int[] getRequiredTokens() {
+        return new int[0];
+    }
+
+    @Override
+    public void beginTree(DetailAST rootAST) {
+        if (getFilePath().contains("Stalled")) {
+            try {
+                Thread.sleep(STALL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
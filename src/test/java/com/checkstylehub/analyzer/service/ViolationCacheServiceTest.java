@@ -0,0 +1,132 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.dto.ViolationDto;
+import com.checkstylehub.analyzer.repository.FileViolationCacheRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Integration tests for ViolationCacheService.
+ * Tests key computation, persistence of cached violations and LRU eviction.
+ */
+@DataJpaTest
+@Import({ViolationCacheService.class, AnalyzerProperties.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ViolationCacheServiceTest {
+
+    @Autowired
+    private ViolationCacheService violationCacheService;
+
+    @SpyBean
+    private FileViolationCacheRepository cacheRepository;
+
+    @Autowired
+    private AnalyzerProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        cacheRepository.deleteAll();
+        properties.getViolationCache().setMaxEntries(200_000);
+        System.out.println("Початок тесту ViolationCacheService");
+    }
+
+    @Test
+    @DisplayName("Should compute the same blob id as git hash-object")
+    void testBlobId() {
+        System.out.println("Тест: обчислення Git blob id");
+
+        String blobId = ViolationCacheService.blobId("hello\n".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("ce013625030ba8dba906f756967f9e9ca394464a", blobId);
+
+        System.out.println("Blob id: " + blobId);
+    }
+
+    @Test
+    @DisplayName("Should store and look up violations by file key")
+    void testStoreAndLookup() {
+        System.out.println("Тест: збереження та пошук порушень у кеші");
+
+        ViolationDto violation = new ViolationDto("/tmp/repo/A.java", 3, 9, "warning", "Empty statement.", "EmptyStatement");
+        Map<String, List<ViolationDto>> entries = new HashMap<>();
+        entries.put("key-a", List.of(violation));
+        entries.put("key-clean", List.of());
+
+        violationCacheService.store("config", entries);
+        Map<String, List<ViolationDto>> found = violationCacheService.lookup("config", Set.of("key-a", "key-clean", "key-missing"));
+
+        assertEquals(2, found.size(), "Мають бути знайдені лише збережені файли");
+        assertTrue(found.get("key-clean").isEmpty(), "Чистий файл має кешуватися як порожній список");
+        ViolationDto cached = found.get("key-a").get(0);
+        assertNull(cached.getFilePath(), "Шлях файлу не зберігається в кеші");
+        assertEquals(3, cached.getLineNumber());
+        assertEquals("Empty statement.", cached.getMessage());
+        assertTrue(violationCacheService.lookup("other-config", Set.of("key-a")).isEmpty(),
+                "Інша конфігурація не має бачити записи");
+
+        System.out.println("Порушення успішно збережено та знайдено в кеші");
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entries beyond the maximal size")
+    void testEviction() {
+        System.out.println("Тест: витіснення записів кешу");
+
+        properties.getViolationCache().setMaxEntries(2);
+
+        violationCacheService.store("config", new HashMap<>(Map.of("key-1", List.of())));
+        violationCacheService.store("config", new HashMap<>(Map.of("key-2", List.of())));
+        violationCacheService.lookup("config", Set.of("key-1"));
+        violationCacheService.store("config", new HashMap<>(Map.of("key-3", List.of())));
+
+        assertEquals(2, cacheRepository.count(), "Кеш не має перевищувати максимальний розмір");
+        assertEquals(Set.of("key-1", "key-3"),
+                violationCacheService.lookup("config", Set.of("key-1", "key-2", "key-3")).keySet(),
+                "Має бути витіснено найдавніше використаний запис");
+
+        System.out.println("Витіснення працює коректно");
+    }
+
+    @Test
+    @DisplayName("Should keep the other entries of a batch when one was stored concurrently")
+    void testStore_SkipsConcurrentDuplicates() {
+        System.out.println("Тест: одночасне збереження однакових записів");
+
+        violationCacheService.store("config", new HashMap<>(Map.of("key-a", List.of())));
+        // Another audit stores key-a between the existence check and the insert of this batch.
+        doReturn(List.of()).when(cacheRepository).findByConfigHashAndFileKeyIn(eq("config"), anyCollection());
+        try {
+            violationCacheService.store("config", new HashMap<>(Map.of("key-a", List.of(), "key-b", List.of())));
+        } finally {
+            reset(cacheRepository);
+        }
+
+        assertEquals(2, cacheRepository.count(), "Дублікат не зберігається вдруге");
+        assertEquals(Set.of("key-a", "key-b"),
+                violationCacheService.lookup("config", Set.of("key-a", "key-b")).keySet(),
+                "Решта записів пакета має зберегтися");
+
+        System.out.println("Дублікат пропущено, решту пакета збережено");
+    }
+}
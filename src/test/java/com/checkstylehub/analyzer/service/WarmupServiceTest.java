@@ -0,0 +1,109 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for WarmupService.
+ * Tests the startup warm-up on the bundled synthetic corpus.
+ */
+class WarmupServiceTest {
+
+    @TempDir
+    Path tempDir;
+    @Mock
+    private CheckstyleConfigurationService configurationService;
+    @Mock
+    private ViolationCacheService violationCacheService;
+    @Mock
+    private ApplicationContext applicationContext;
+    private WarmupService warmupService;
+    private AnalyzerProperties properties;
+    private ExecutorService executor;
+    private ScheduledExecutorService watchdogExecutor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new AnalyzerProperties();
+        properties.getCacheFiles().setDirectory(tempDir.resolve("cache-files"));
+        executor = Executors.newFixedThreadPool(2);
+        watchdogExecutor = Executors.newSingleThreadScheduledExecutor();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CheckerPool checkerPool = new CheckerPool(properties, meterRegistry);
+        CheckstyleConfigurationCache configurationCache =
+                new CheckstyleConfigurationCache(properties, meterRegistry, checkerPool);
+        CheckstyleService checkstyleService = new CheckstyleService(configurationService,
+                new FileDiscoveryService(properties), configurationCache, checkerPool, violationCacheService,
+                new CheckstyleCacheFileService(properties), executor, watchdogExecutor, properties);
+        warmupService = new WarmupService(checkstyleService, configurationService, applicationContext, properties);
+        System.out.println("Початок тесту WarmupService");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        watchdogExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should audit the corpus with the default configuration within the round limits")
+    void testWarmUp_DefaultConfiguration() throws Exception {
+        System.out.println("Тест: прогрів на синтетичному корпусі");
+
+        when(configurationService.getActiveConfigurationXml()).thenReturn(
+                new ClassPathResource("default_checkstyle_rules.xml").getContentAsString(StandardCharsets.UTF_8));
+        properties.getWarmup().setEnabled(true);
+        properties.getWarmup().setFiles(10);
+        properties.getWarmup().setMinRounds(2);
+        properties.getWarmup().setMaxRounds(4);
+
+        int rounds = warmupService.warmUp();
+        warmupService.run(null);
+
+        assertTrue(rounds >= 2 && rounds <= 4, "Кількість раундів має бути в межах: " + rounds);
+        verify(applicationContext).publishEvent(argThat((ApplicationEvent event) ->
+                event instanceof AvailabilityChangeEvent<?> change
+                        && change.getState() == ReadinessState.REFUSING_TRAFFIC));
+
+        System.out.println("Прогрів завершено за " + rounds + " раундів");
+    }
+
+    @Test
+    @DisplayName("Should do nothing when the warm-up is disabled")
+    void testRun_Disabled() {
+        System.out.println("Тест: прогрів вимкнено");
+
+        warmupService.run(null);
+
+        verify(configurationService, never()).getActiveConfigurationXml();
+        verify(applicationContext, never()).publishEvent(any(ApplicationEvent.class));
+
+        System.out.println("Прогрів пропущено");
+    }
+}
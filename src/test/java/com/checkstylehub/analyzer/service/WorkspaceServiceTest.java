@@ -0,0 +1,143 @@
+package com.checkstylehub.analyzer.service;
+
+import com.checkstylehub.analyzer.config.AnalyzerProperties;
+import com.checkstylehub.analyzer.exception.RepositoryAccessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for WorkspaceService.
+ * Tests the startup sweep, background deletion and the disk quota of working trees.
+ */
+class WorkspaceServiceTest {
+
+    @TempDir
+    Path tempDir;
+    private AnalyzerProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService janitorExecutor;
+    private WorkspaceService workspaceService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AnalyzerProperties();
+        properties.getWorkspaces().setDirectory(tempDir.resolve("workspaces"));
+        properties.getMirrors().setDirectory(tempDir.resolve("mirrors"));
+        meterRegistry = new SimpleMeterRegistry();
+        janitorExecutor = Executors.newSingleThreadExecutor();
+        workspaceService = new WorkspaceService(properties, meterRegistry, janitorExecutor);
+        System.out.println("Початок тесту WorkspaceService");
+    }
+
+    @AfterEach
+    void tearDown() {
+        janitorExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should delete working trees and staging directories left by a previous process")
+    void testSweepOrphans_DeletesLeftovers() throws Exception {
+        System.out.println("Тест: видалення залишків попереднього процесу");
+
+        Path orphan = Files.createDirectories(properties.getWorkspaces().getDirectory().resolve("repo_clone_123"));
+        Files.writeString(orphan.resolve("App.java"), "public class App {\n}\n");
+        Path staging = Files.createDirectories(properties.getMirrors().getDirectory().resolve("mirror-456"));
+        Path mirror = Files.createDirectories(properties.getMirrors().getDirectory().resolve("0123abcd"));
+
+        workspaceService.sweepOrphans();
+        workspaceService.awaitJanitor();
+
+        assertFalse(Files.exists(orphan), "Залишена робоча копія має бути видалена");
+        assertFalse(Files.exists(staging), "Незавершене дзеркало має бути видалене");
+        assertTrue(Files.exists(mirror), "Готові дзеркала не видаляються");
+
+        System.out.println("Залишки видалено");
+    }
+
+    @Test
+    @DisplayName("Should delete released working trees in the background and free their quota")
+    void testDelete_FreesDiskUsage() throws Exception {
+        System.out.println("Тест: фонове видалення робочої копії");
+
+        Path workTree = workspaceService.create();
+        assertTrue(workTree.startsWith(properties.getWorkspaces().getDirectory()));
+        Files.write(workTree.resolve("Data.java"), new byte[2048]);
+        workspaceService.register(workTree);
+        workspaceService.awaitJanitor();
+        assertEquals(2048, workspaceService.diskUsage());
+        assertEquals(2048, meterRegistry.get("analyzer.workspace.disk").gauge().value());
+
+        workspaceService.delete(workTree);
+        workspaceService.awaitJanitor();
+
+        assertFalse(Files.exists(workTree), "Робоча копія має бути видалена");
+        assertEquals(0, workspaceService.diskUsage());
+        assertEquals(0, meterRegistry.get("analyzer.workspace.pending.deletions").gauge().value());
+
+        System.out.println("Робочу копію видалено у фоні");
+    }
+
+    @Test
+    @DisplayName("Should wait for space and fail when the quota is not freed in time")
+    void testCreate_WaitsForQuota() throws Exception {
+        System.out.println("Тест: очікування квоти диска");
+
+        properties.getWorkspaces().setMaxDiskSize(DataSize.ofBytes(1024));
+        properties.getWorkspaces().setQuotaTimeout(Duration.ofMillis(200));
+        Path workTree = workspaceService.create();
+        Files.write(workTree.resolve("Data.java"), new byte[2048]);
+        workspaceService.register(workTree);
+        workspaceService.awaitJanitor();
+
+        assertThrows(RepositoryAccessException.class, () -> workspaceService.create(),
+                "Нова робоча копія не створюється понад квоту");
+
+        workspaceService.delete(workTree);
+        properties.getWorkspaces().setQuotaTimeout(Duration.ofSeconds(10));
+        Path next = workspaceService.create();
+        assertTrue(Files.isDirectory(next), "Після звільнення місця робоча копія створюється");
+
+        System.out.println("Квоту диска дотримано");
+    }
+
+    @Test
+    @DisplayName("Should reserve the estimated size of working trees that are not measured yet")
+    void testCreate_ReservesEstimatedSize() throws Exception {
+        System.out.println("Тест: резервування місця для нових робочих копій");
+
+        properties.getWorkspaces().setMaxDiskSize(DataSize.ofBytes(1024));
+        properties.getWorkspaces().setEstimatedSize(DataSize.ofBytes(600));
+        properties.getWorkspaces().setQuotaTimeout(Duration.ofMillis(200));
+        Path first = workspaceService.create();
+        Path second = workspaceService.create();
+        assertEquals(1200, workspaceService.diskUsage(), "Невиміряні копії рахуються з оцінкою розміру");
+
+        assertThrows(RepositoryAccessException.class, () -> workspaceService.create(),
+                "Одночасні клонування не проходять перевірку квоти разом");
+
+        Files.write(first.resolve("Data.java"), new byte[100]);
+        workspaceService.register(first);
+        workspaceService.awaitJanitor();
+        assertEquals(700, workspaceService.diskUsage(), "Оцінку замінює виміряний розмір");
+
+        workspaceService.delete(second);
+        workspaceService.awaitJanitor();
+        assertEquals(100, workspaceService.diskUsage(), "Видалення звільняє резерв невиміряної копії");
+        assertTrue(Files.isDirectory(workspaceService.create()));
+
+        System.out.println("Місце для нових робочих копій зарезервовано");
+    }
+}